@@ -0,0 +1,49 @@
+package benchmark;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Random;
+
+import db.GeradorDadosSinteticos;
+
+/**
+ * Cria (uma única vez por combinação de parâmetros e dia) um banco SQLite
+ * sintético no diretório temporário, pelo {@link GeradorDadosSinteticos}.
+ *
+ * O banco é gerado em torno de {@link #HOJE}, que vai no nome do arquivo: as
+ * entradas dos benchmarks (períodos, "agora") devem partir da mesma data, senão
+ * um banco de dias atrás mede hospedagens ativas e reservas que já passaram.
+ */
+public class BancoSintetico {
+
+    /** Data de referência do banco e das entradas dos benchmarks. */
+    public static final LocalDate HOJE = LocalDate.now();
+
+    private static final double OCUPACAO = 0.85;
+
+    public static String url(int quartos, int camasPorQuarto, int hospedes, int anos) throws SQLException {
+        String prefixo = String.format("hotel-bench-v3-q%d-c%d-h%d-a%d-", quartos, camasPorQuarto, hospedes, anos);
+        File arquivo = new File(System.getProperty("java.io.tmpdir"), prefixo + HOJE + ".db");
+        String url = "jdbc:sqlite:" + arquivo.getAbsolutePath();
+        if (!arquivo.exists()) {
+            // os dos outros dias não servem mais
+            File[] antigos = arquivo.getParentFile().listFiles((pasta, nome) -> nome.startsWith(prefixo));
+            if (antigos != null) for (File antigo : antigos) antigo.delete(); // inclui um .tmp interrompido
+
+            File temporario = new File(arquivo.getPath() + ".tmp");
+            GeradorDadosSinteticos.gerar("jdbc:sqlite:" + temporario.getAbsolutePath(),
+                    new GeradorDadosSinteticos.Configuracao(quartos, camasPorQuarto, hospedes, anos,
+                            OCUPACAO, 42L, HOJE));
+            if (!temporario.renameTo(arquivo)) {
+                throw new SQLException("Não foi possível mover " + temporario + " para " + arquivo);
+            }
+        }
+        return url;
+    }
+
+    /** Nome como os do banco sintético (também usados nas buscas dos benchmarks). */
+    public static String nomeAleatorio(Random random) {
+        return GeradorDadosSinteticos.nomeAleatorio(random, random.nextBoolean());
+    }
+}
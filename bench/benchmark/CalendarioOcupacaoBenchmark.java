@@ -0,0 +1,112 @@
+package benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import cache.DisponibilidadeCamas;
+import db.ConnectionPool;
+import db.PerfilArmazenamento;
+import model.Cama;
+
+/**
+ * Projeções de vagas: calendário de bits em memória contra o SQL com NOT EXISTS
+ * que a ProjecaoVagasDialog usava. "PorDia" responde quantas camas estão livres
+ * em cada dia dos próximos N dias; "NoPeriodo" lista as camas livres no período todo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalendarioOcupacaoBenchmark {
+
+    private static final String SQL_LIVRES =
+            "SELECT c.id, c.descricao, c.quarto_numero " +
+            "FROM cama c " +
+            "WHERE NOT EXISTS ( " +
+            "  SELECT 1 FROM hospedagem h " +
+            "  WHERE h.cama_id = c.id " +
+            "    AND NOT (h.data_saida < ? OR h.data_entrada > ?) " +
+            ") " +
+            "ORDER BY c.descricao";
+
+    @Param({ "50", "200", "800" })
+    public int quartos;
+
+    @Param({ "30", "365" })
+    public int dias;
+
+    private ConnectionPool pool;
+    private DisponibilidadeCamas disponibilidade;
+    private int[] livres;
+    private LocalDate inicio;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException {
+        String url = BancoSintetico.url(quartos, 4, quartos * 40, 1);
+        pool = new ConnectionPool(url, 2, PerfilArmazenamento.DESK.pragmas());
+        disponibilidade = new DisponibilidadeCamas(pool::emprestar);
+        livres = new int[dias];
+        inicio = BancoSintetico.HOJE;
+        disponibilidade.camasLivresPorDia(inicio, livres); // carga fora da medição
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        pool.close();
+    }
+
+    @Benchmark
+    public int[] calendarioPorDia() throws SQLException {
+        disponibilidade.camasLivresPorDia(inicio, livres);
+        return livres;
+    }
+
+    @Benchmark
+    public int[] sqlPorDia() throws SQLException {
+        try (Connection conn = pool.emprestar();
+             PreparedStatement ps = conn.prepareStatement(SQL_LIVRES)) {
+            for (int i = 0; i < dias; i++) {
+                String dia = inicio.plusDays(i).toString();
+                ps.setString(1, dia);
+                ps.setString(2, dia);
+                int total = 0;
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) total++;
+                }
+                livres[i] = total;
+            }
+        }
+        return livres;
+    }
+
+    @Benchmark
+    public List<Cama> calendarioNoPeriodo() throws SQLException {
+        return disponibilidade.camasDisponiveis(inicio, inicio.plusDays(dias - 1));
+    }
+
+    @Benchmark
+    public List<Cama> sqlNoPeriodo() throws SQLException {
+        List<Cama> camas = new ArrayList<>();
+        try (Connection conn = pool.emprestar();
+             PreparedStatement ps = conn.prepareStatement(SQL_LIVRES)) {
+            ps.setString(1, inicio.toString());
+            ps.setString(2, inicio.plusDays(dias - 1).toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    camas.add(new Cama(rs.getInt(1), rs.getString(2), rs.getInt(3)));
+                }
+            }
+        }
+        return camas;
+    }
+}
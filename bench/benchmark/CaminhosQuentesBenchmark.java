@@ -0,0 +1,173 @@
+package benchmark;
+
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import cache.DisponibilidadeCamas;
+import cache.IndiceHospedes;
+import controller.FonteLinhas;
+import db.BuscaHospedes;
+import db.ConnectionPool;
+import db.PerfilArmazenamento;
+import model.Cama;
+import model.Hospede;
+import model.OcupacaoQuarto;
+import service.FiltroHistorico;
+import service.HotelService;
+import service.LinhaHospedagem;
+
+/**
+ * As consultas que o atendente espera durante o dia, pelo mesmo código das telas
+ * (HotelService, sem Swing), num banco sintético do tamanho pedido:
+ *
+ * - quadroOcupacao: InicioPanel.carregarQuartosComHospedes
+ * - sugestoesHospede*: CheckInPanel.atualizarSugestoesHospede (índice e banco)
+ * - camasDisponiveis*: ProjecaoVagasDialog.getCamasDisponiveis (índice e banco)
+ * - checkOut*: CheckOutPanel.atualizarTabela (sem filtro e com filtro)
+ * - historico*: relatório de histórico de hospedagens (linhas e totais)
+ *
+ * Mede vazão e latência (p50 a p99.99) no mesmo run. Para comparar commits,
+ * grave o resultado em JSON e compare os arquivos:
+ *
+ * java -jar target/benchmarks.jar CaminhosQuentesBenchmark -p hospedes=200000 -p anos=5 -rf json -rff antes.json
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class CaminhosQuentesBenchmark {
+
+    @Param({ "50" })
+    public int quartos;
+
+    @Param({ "4" })
+    public int camasPorQuarto;
+
+    @Param({ "20000" })
+    public int hospedes;
+
+    @Param({ "1" })
+    public int anos;
+
+    private ConnectionPool pool;
+    private HotelService servico;
+    private IndiceHospedes indice;
+    private DisponibilidadeCamas disponibilidade;
+
+    private String[] termos;
+    private LocalDate[] inicios;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int proxima;
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        String url = BancoSintetico.url(quartos, camasPorQuarto, hospedes, anos);
+        pool = new ConnectionPool(url, 2, PerfilArmazenamento.DESK.pragmas());
+        servico = new HotelService(pool::emprestar);
+
+        indice = new IndiceHospedes(pool::emprestar);
+        indice.carregar();
+        disponibilidade = new DisponibilidadeCamas(pool::emprestar);
+        disponibilidade.camasDisponiveis(BancoSintetico.HOJE, BancoSintetico.HOJE); // carrega
+
+        // o que se digita (um ou dois começos de nome) e períodos de reserva nos próximos 90 dias
+        Random random = new Random(11);
+        termos = new String[1024];
+        inicios = new LocalDate[1024];
+        for (int i = 0; i < termos.length; i++) {
+            String[] palavras = BancoSintetico.nomeAleatorio(random).split(" ");
+            String termo = prefixo(palavras[0], random);
+            if (random.nextInt(3) == 0) termo += " " + prefixo(palavras[1 + random.nextInt(2)], random);
+            termos[i] = termo;
+            inicios[i] = BancoSintetico.HOJE.plusDays(random.nextInt(90));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        pool.close();
+    }
+
+    @Benchmark
+    public List<OcupacaoQuarto> quadroOcupacao() throws Exception {
+        try (Connection conn = pool.emprestar()) {
+            return OcupacaoQuarto.carregarTodos(conn);
+        }
+    }
+
+    @Benchmark
+    public List<IndiceHospedes.Sugestao> sugestoesHospedeIndice(Cursor cursor) {
+        return indice.buscar(termo(cursor), true, BuscaHospedes.LIMITE_SUGESTOES);
+    }
+
+    @Benchmark
+    public List<Hospede> sugestoesHospedeBanco(Cursor cursor) throws Exception {
+        return servico.buscarHospedes(termo(cursor), true, BuscaHospedes.LIMITE_SUGESTOES);
+    }
+
+    @Benchmark
+    public List<Cama> camasDisponiveisIndice(Cursor cursor) throws Exception {
+        LocalDate inicio = inicio(cursor);
+        return disponibilidade.camasDisponiveis(inicio, inicio.plusDays(7));
+    }
+
+    @Benchmark
+    public List<Cama> camasDisponiveisBanco(Cursor cursor) throws Exception {
+        LocalDate inicio = inicio(cursor);
+        return servico.camasDisponiveis(inicio, inicio.plusDays(7));
+    }
+
+    @Benchmark
+    public List<LinhaHospedagem> checkOutTodas() throws Exception {
+        return servico.hospedagensAtivas(null);
+    }
+
+    @Benchmark
+    public List<LinhaHospedagem> checkOutFiltro(Cursor cursor) throws Exception {
+        return servico.hospedagensAtivas(termo(cursor));
+    }
+
+    // Como a tela abre: sem filtro, todas as linhas e os totais
+    @Benchmark
+    public long historicoCompleto() throws Exception {
+        return historico(new FiltroHistorico(null, null, null, null));
+    }
+
+    @Benchmark
+    public long historicoBusca(Cursor cursor) throws Exception {
+        return historico(new FiltroHistorico(null, null, null, termo(cursor)));
+    }
+
+    private long historico(FiltroHistorico filtro) throws Exception {
+        long linhas = 0;
+        try (FonteLinhas fonte = servico.relatorioHistorico(filtro)) {
+            while (fonte.proxima()) {
+                fonte.valor(0);
+                linhas++;
+            }
+        }
+        return linhas + servico.totaisHistorico(filtro).hospedagens();
+    }
+
+    private String termo(Cursor cursor) {
+        return termos[cursor.proxima++ & (termos.length - 1)];
+    }
+
+    private LocalDate inicio(Cursor cursor) {
+        return inicios[cursor.proxima++ & (inicios.length - 1)];
+    }
+
+    private static String prefixo(String palavra, Random random) {
+        return palavra.substring(0, Math.min(palavra.length(), 1 + random.nextInt(5)));
+    }
+}
@@ -0,0 +1,74 @@
+package benchmark;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.*;
+
+import controller.GerarContrato;
+import controller.LoteContratos;
+import controller.ModeloContrato;
+import db.ConnectionPool;
+import db.PerfilArmazenamento;
+
+/**
+ * Lote de 1000 contratos a partir do modelo compilado (já em cache): para um
+ * .zip (descartado, mede montagem + zip) e para uma pasta (inclui a escrita em
+ * disco, ~3 MB por contrato por causa das fontes embutidas no modelo).
+ * A montagem usa uma thread por processador.
+ *
+ * Rodar da raiz do projeto (o modelo é lido de modelos/):
+ * java -jar target/benchmarks.jar ContratosLoteBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class ContratosLoteBenchmark {
+
+    @Param({ "1000" })
+    public int contratos;
+
+    private ConnectionPool pool;
+    private List<Integer> ids;
+    private File pasta;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        pool = new ConnectionPool(BancoSintetico.url(50, 4, 20000, 1), 2, PerfilArmazenamento.DESK.pragmas());
+        ids = IntStream.rangeClosed(1, contratos).boxed().collect(Collectors.toList());
+        ModeloContrato.carregar(GerarContrato.MODELO_RESERVA);
+        pasta = Files.createTempDirectory("contratos").toFile();
+    }
+
+    @TearDown(Level.Invocation)
+    public void limparPasta() {
+        File[] arquivos = pasta.listFiles();
+        if (arquivos != null) for (File arquivo : arquivos) arquivo.delete();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        pasta.delete();
+        pool.close();
+    }
+
+    @Benchmark
+    public long zip() throws Exception {
+        return LoteContratos.gerarZip(GerarContrato.MODELO_RESERVA,
+                LoteContratos.porIds(pool::emprestar, ids), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public long pasta() throws Exception {
+        return LoteContratos.gerarEmPasta(GerarContrato.MODELO_RESERVA,
+                LoteContratos.porIds(pool::emprestar, ids), pasta);
+    }
+}
@@ -0,0 +1,85 @@
+package benchmark;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import cache.IndiceHospedes;
+import db.BuscaHospedes;
+import db.ConnectionPool;
+import db.PerfilArmazenamento;
+import model.Hospede;
+
+/**
+ * Autocomplete do check-in: índice em memória contra a busca FTS no banco, com
+ * o que um atendente digita (um ou dois começos de nome, 1 a 5 letras).
+ * Meta: p99 do índice abaixo de 5 ms com 500 mil hóspedes.
+ *
+ * java -jar target/benchmarks.jar IndiceHospedesBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class IndiceHospedesBenchmark {
+
+    @Param({ "50000", "500000" })
+    public int hospedes;
+
+    private ConnectionPool pool;
+    private IndiceHospedes indice;
+    private String[] consultas;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int proxima;
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        String url = BancoSintetico.url(50, 4, hospedes, 1);
+        pool = new ConnectionPool(url, 2, PerfilArmazenamento.DESK.pragmas());
+        indice = new IndiceHospedes(pool::emprestar);
+        indice.carregar();
+
+        Random random = new Random(7);
+        consultas = new String[1024];
+        for (int i = 0; i < consultas.length; i++) {
+            String[] palavras = BancoSintetico.nomeAleatorio(random).split(" ");
+            String consulta = prefixo(palavras[0], random);
+            if (random.nextInt(3) == 0) consulta += " " + prefixo(palavras[1 + random.nextInt(2)], random);
+            consultas[i] = consulta;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        pool.close();
+    }
+
+    @Benchmark
+    public List<IndiceHospedes.Sugestao> indiceEmMemoria(Cursor cursor) {
+        return indice.buscar(proxima(cursor), true, BuscaHospedes.LIMITE_SUGESTOES);
+    }
+
+    @Benchmark
+    public List<Hospede> buscaFts(Cursor cursor) throws SQLException {
+        try (Connection conn = pool.emprestar()) {
+            return BuscaHospedes.buscar(conn, proxima(cursor), true, BuscaHospedes.LIMITE_SUGESTOES);
+        }
+    }
+
+    private String proxima(Cursor cursor) {
+        return consultas[cursor.proxima++ & (consultas.length - 1)];
+    }
+
+    private static String prefixo(String palavra, Random random) {
+        return palavra.substring(0, Math.min(palavra.length(), 1 + random.nextInt(5)));
+    }
+}
@@ -0,0 +1,87 @@
+package benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import db.ConnectionPool;
+import db.PerfilArmazenamento;
+import model.OcupacaoQuarto;
+
+/**
+ * Carga do quadro de ocupação da tela inicial: consulta única agregada
+ * contra o antigo N+1 (uma consulta por quarto). O tempo da consulta única
+ * deve crescer só com o número de hospedagens ativas, sem custo fixo por quarto.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OcupacaoInicioBenchmark {
+
+    @Param({ "50", "200", "800" })
+    public int quartos;
+
+    private ConnectionPool pool;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException {
+        String url = BancoSintetico.url(quartos, 4, quartos * 40, 1);
+        pool = new ConnectionPool(url, 2, PerfilArmazenamento.DESK.pragmas());
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        pool.close();
+    }
+
+    @Benchmark
+    public List<OcupacaoQuarto> snapshot() throws SQLException {
+        try (Connection conn = pool.emprestar()) {
+            return OcupacaoQuarto.carregarTodos(conn);
+        }
+    }
+
+    // Reprodução da implementação anterior do InicioPanel
+    @Benchmark
+    public List<Object[]> legadoNMais1() throws SQLException {
+        List<Object[]> resultado = new ArrayList<>();
+        try (Connection conn = pool.emprestar();
+             PreparedStatement ps = conn.prepareStatement("SELECT numero FROM quarto ORDER BY numero");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                int numero = rs.getInt("numero");
+                String sql = "SELECT h.nome, res.data_saida " +
+                        "FROM hospedagem res " +
+                        "JOIN cama c ON res.cama_id = c.id " +
+                        "JOIN hospede h ON res.hospede_id = h.id " +
+                        "WHERE c.quarto_numero = ? AND res.status = 1";
+                try (PreparedStatement psHosp = conn.prepareStatement(sql)) {
+                    psHosp.setInt(1, numero);
+                    try (ResultSet rsHosp = psHosp.executeQuery()) {
+                        List<String> nomes = new ArrayList<>();
+                        LocalDate maisProxima = null;
+                        while (rsHosp.next()) {
+                            nomes.add(rsHosp.getString("nome"));
+                            LocalDate data = LocalDate.parse(rsHosp.getString("data_saida"),
+                                    DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+                            if (maisProxima == null || data.isBefore(maisProxima)) maisProxima = data;
+                        }
+                        resultado.add(new Object[] { numero, nomes, maisProxima });
+                    }
+                }
+            }
+        }
+        return resultado;
+    }
+}
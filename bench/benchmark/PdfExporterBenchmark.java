@@ -0,0 +1,79 @@
+package benchmark;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import controller.FonteLinhas;
+import controller.PdfExporter;
+
+/**
+ * PDF do histórico de hospedagens com a tabela grande do iText. Com o heap
+ * limitado a 256 MB, 100 mil linhas precisam passar sem estourar e o tempo deve
+ * crescer linearmente com o número de linhas.
+ *
+ * java -jar target/benchmarks.jar PdfExporterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+public class PdfExporterBenchmark {
+
+    private static final String[] COLUNAS = {"Nome", "Sexo", "Documento", "Telefone", "Email", "Data Entrada", "Data Saída"};
+
+    @Param({ "10000", "100000" })
+    public int linhas;
+
+    private File arquivo;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        arquivo = File.createTempFile("historico", ".pdf");
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        arquivo.delete();
+    }
+
+    @Benchmark
+    public long historicoPaisagem() throws Exception {
+        return PdfExporter.escrever(FonteLinhas.de(COLUNAS, historico(linhas)), arquivo,
+                "Relatório - Histórico de Hospedagens", null, true);
+    }
+
+    private static Iterator<Object[]> historico(int total) {
+        Random random = new Random(11);
+        LocalDate base = LocalDate.of(2020, 1, 1);
+        return new Iterator<>() {
+            int gerados;
+
+            @Override
+            public boolean hasNext() {
+                return gerados < total;
+            }
+
+            @Override
+            public Object[] next() {
+                gerados++;
+                LocalDate entrada = base.plusDays(random.nextInt(1800));
+                return new Object[]{
+                        BancoSintetico.nomeAleatorio(random),
+                        random.nextBoolean() ? "M" : "F",
+                        String.format("%011d", random.nextLong(100_000_000_000L)),
+                        "(11) 9" + (1000_0000 + random.nextInt(9000_0000)),
+                        "hospede" + gerados + "@exemplo.com",
+                        entrada.toString(),
+                        entrada.plusDays(1 + random.nextInt(14)).toString()
+                };
+            }
+        };
+    }
+}
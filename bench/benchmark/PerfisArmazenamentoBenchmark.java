@@ -0,0 +1,119 @@
+package benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import db.ConnectionPool;
+import db.PerfilArmazenamento;
+
+/**
+ * Compara os perfis de armazenamento com leituras de relatório concorrentes a
+ * um escritor de check-in (grupo "balcao") e com uma carga em lote.
+ *
+ * java -jar target/benchmarks.jar PerfisArmazenamentoBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PerfisArmazenamentoBenchmark {
+
+    @Param({ "desk", "bulk-import", "reporting" })
+    public String perfil;
+
+    @Param({ "200" })
+    public int quartos;
+
+    private ConnectionPool pool;
+    private int totalCamas;
+    private int totalHospedagens;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException {
+        String url = BancoSintetico.url(quartos, 4, quartos * 40, 3);
+        pool = new ConnectionPool(url, 8, PerfilArmazenamento.porNome(perfil).pragmas());
+        try (Connection conn = pool.emprestar();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS bench_carga (id INTEGER PRIMARY KEY, valor TEXT)");
+            try (ResultSet rs = stmt.executeQuery("SELECT (SELECT MAX(id) FROM cama), (SELECT MAX(id) FROM hospedagem)")) {
+                rs.next();
+                totalCamas = rs.getInt(1);
+                totalHospedagens = rs.getInt(2);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws SQLException {
+        try (Connection conn = pool.emprestar();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS bench_carga");
+        }
+        pool.close();
+    }
+
+    @Benchmark
+    @Group("balcao")
+    @GroupThreads(3)
+    public int leituraRelatorio() throws SQLException {
+        LocalDate inicio = BancoSintetico.HOJE.minusDays(ThreadLocalRandom.current().nextInt(700));
+        String sql = "SELECT COUNT(*), COALESCE(SUM(julianday(data_saida) - julianday(data_entrada)), 0) "
+                + "FROM hospedagem WHERE data_entrada >= ? AND data_saida <= ?";
+        try (Connection conn = pool.emprestar();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, inicio.toString());
+            ps.setString(2, inicio.plusDays(90).toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("balcao")
+    @GroupThreads(1)
+    public int escritaCheckIn() throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int hospedagemId = 1 + random.nextInt(totalHospedagens);
+        int camaId = 1 + random.nextInt(totalCamas);
+        try (Connection conn = pool.emprestar()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps1 = conn.prepareStatement("UPDATE hospedagem SET status = status WHERE id = ?");
+                 PreparedStatement ps2 = conn.prepareStatement("UPDATE cama SET status = status WHERE id = ?")) {
+                ps1.setInt(1, hospedagemId);
+                ps2.setInt(1, camaId);
+                int n = ps1.executeUpdate() + ps2.executeUpdate();
+                conn.commit();
+                return n;
+            }
+        }
+    }
+
+    @Benchmark
+    public int cargaEmLote() throws SQLException {
+        try (Connection conn = pool.emprestar()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement("INSERT INTO bench_carga (valor) VALUES (?)");
+                 Statement limpar = conn.createStatement()) {
+                for (int i = 0; i < 1_000; i++) {
+                    ps.setString(1, "linha " + i);
+                    ps.addBatch();
+                }
+                int n = ps.executeBatch().length;
+                limpar.execute("DELETE FROM bench_carga");
+                conn.commit();
+                return n;
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package benchmark;
+
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.xwpf.usermodel.*;
+import org.openjdk.jmh.annotations.*;
+
+import controller.GerarContrato;
+import controller.SubstituidorPlaceholders;
+
+/**
+ * Troca de placeholders: o jeito antigo do GerarContrato (um String.replace por
+ * chave do mapa em cada parágrafo, e todos os runs refeitos) contra a passada
+ * única do SubstituidorPlaceholders. Os parágrafos são os do modelo de reserva;
+ * {@code extras} acrescenta chaves ao mapa, como um modelo maior teria.
+ *
+ * Rodar da raiz do projeto (o modelo é lido de modelos/):
+ * java -jar target/benchmarks.jar SubstituidorPlaceholdersBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SubstituidorPlaceholdersBenchmark {
+
+    @Param({ "0", "50" })
+    public int extras;
+
+    private String[] paragrafos;
+    private Map<String, String> dados;
+
+    /** Documento novo a cada chamada, já que a troca o altera. */
+    @State(Scope.Thread)
+    public static class Documento {
+        XWPFDocument documento;
+
+        @Setup(Level.Invocation)
+        public void criar(SubstituidorPlaceholdersBenchmark bench) {
+            documento = new XWPFDocument();
+            for (String texto : bench.paragrafos) {
+                XWPFParagraph p = documento.createParagraph();
+                // como o Word grava: o texto em vários runs, às vezes partindo um placeholder
+                for (int i = 0; i < texto.length(); i += 7) {
+                    p.createRun().setText(texto.substring(i, Math.min(texto.length(), i + 7)));
+                }
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        List<String> textos = new ArrayList<>();
+        try (FileInputStream fis = new FileInputStream(GerarContrato.MODELO_RESERVA);
+             XWPFDocument documento = new XWPFDocument(fis)) {
+            for (XWPFParagraph p : documento.getParagraphs()) {
+                textos.add(p.getText());
+            }
+        }
+        paragrafos = textos.toArray(new String[0]);
+
+        dados = new HashMap<>(GerarContrato.dadosContrato(123, "Maria Aparecida Souza", "123.456.789-00",
+                "(11) 98888-7777", "maria@exemplo.com", java.time.LocalDate.of(2026, 3, 1),
+                java.time.LocalDate.of(2026, 3, 31), "12"));
+        for (int i = 0; i < extras; i++) {
+            dados.put("{{extra_" + i + "}}", "valor " + i);
+        }
+    }
+
+    @Benchmark
+    public int textoReplacePorChave() {
+        int total = 0;
+        for (String texto : paragrafos) {
+            String modificado = texto;
+            for (Map.Entry<String, String> entry : dados.entrySet()) {
+                modificado = modificado.replace(entry.getKey(), entry.getValue());
+            }
+            total += modificado.length();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int textoPassadaUnica() {
+        int total = 0;
+        for (String texto : paragrafos) {
+            total += SubstituidorPlaceholders.substituir(texto, dados).length();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public XWPFDocument paragrafosAntigo(Documento d) {
+        for (XWPFParagraph p : d.documento.getParagraphs()) {
+            substituirTextoAntigo(p, dados);
+            for (XWPFRun run : p.getRuns()) {
+                run.setFontFamily("Lato");
+                run.setFontSize(12);
+            }
+        }
+        return d.documento;
+    }
+
+    @Benchmark
+    public XWPFDocument paragrafosPassadaUnica(Documento d) {
+        SubstituidorPlaceholders.substituir(d.documento, dados);
+        return d.documento;
+    }
+
+    // GerarContrato.substituirTexto como era antes do modelo compilado
+    private static void substituirTextoAntigo(XWPFParagraph paragraph, Map<String, String> dados) {
+        StringBuilder paragraphText = new StringBuilder();
+        for (XWPFRun run : paragraph.getRuns()) {
+            String texto = run.getText(0);
+            if (texto != null) {
+                paragraphText.append(texto);
+            }
+        }
+
+        String textoCompleto = paragraphText.toString();
+        String textoModificado = textoCompleto;
+
+        for (Map.Entry<String, String> entry : dados.entrySet()) {
+            textoModificado = textoModificado.replace(entry.getKey(), entry.getValue());
+        }
+
+        if (!textoCompleto.equals(textoModificado)) {
+            int runsCount = paragraph.getRuns().size();
+            for (int i = runsCount - 1; i >= 0; i--) {
+                paragraph.removeRun(i);
+            }
+            XWPFRun novoRun = paragraph.createRun();
+            novoRun.setText(textoModificado);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package cache;
+
+import java.util.Arrays;
+
+/**
+ * Calendário de ocupação com um bit por cama por dia, em palavras {@code long}.
+ *
+ * Cada cama ocupa uma "linha" de {@code palavrasPorCama} palavras dentro de um único
+ * vetor; o bit d da linha indica que a cama está ocupada no dia {@code origem + d}.
+ * As consultas trabalham só com máscaras e popcount, sem alocar objetos.
+ *
+ * Não é thread-safe: o acesso é controlado por {@link DisponibilidadeCamas}.
+ */
+class CalendarioOcupacao {
+
+    private final int camas;          // linhas: a ordem das camas é de quem monta o calendário
+    private final long origem;        // dia epoch do bit 0
+    private final int dias;
+    private final int palavrasPorCama;
+    private final long[] bits;
+
+    CalendarioOcupacao(int camas, long origem, int dias) {
+        this.camas = camas;
+        this.origem = origem;
+        this.dias = dias;
+        this.palavrasPorCama = (dias + 63) >>> 6;
+        this.bits = new long[camas * palavrasPorCama];
+    }
+
+    long origem() {
+        return origem;
+    }
+
+    long fimJanela() {
+        return origem + dias - 1;
+    }
+
+    boolean cobre(long inicio, long fim) {
+        return inicio >= origem && fim <= fimJanela();
+    }
+
+    void limparCama(int linha) {
+        int base = linha * palavrasPorCama;
+        Arrays.fill(bits, base, base + palavrasPorCama, 0L);
+    }
+
+    /** Marca [inicio, fim] (dias epoch, inclusivo), recortando à janela. */
+    void marcar(int linha, long inicio, long fim) {
+        long de = Math.max(inicio, origem) - origem;
+        long ate = Math.min(fim, fimJanela()) - origem;
+        if (de > ate) return;
+        aplicarMascara(linha, (int) de, (int) ate, true);
+    }
+
+    /**
+     * Preenche {@code livres[i]} com o número de camas livres no dia {@code inicio + i},
+     * para i em [0, livres.length). Requer que o intervalo esteja coberto pela janela.
+     */
+    void livresPorDia(long inicio, int[] livres) {
+        int n = livres.length;
+        Arrays.fill(livres, camas);
+        if (n == 0) return;
+        int de = (int) (inicio - origem);
+        int ate = de + n - 1;
+        int primeiraPalavra = de >>> 6;
+        int ultimaPalavra = ate >>> 6;
+
+        for (int linha = 0; linha < camas; linha++) {
+            int base = linha * palavrasPorCama;
+            for (int w = primeiraPalavra; w <= ultimaPalavra; w++) {
+                long palavra = bits[base + w] & mascaraPalavra(w, de, ate);
+                while (palavra != 0) {
+                    int dia = (w << 6) + Long.numberOfTrailingZeros(palavra);
+                    livres[dia - de]--;
+                    palavra &= palavra - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Grava em {@code linhas} as linhas das camas livres em todo o período [inicio, fim]
+     * e retorna quantas foram gravadas: por cama, o OR das palavras do período com a
+     * máscara, parando na primeira ocupada. {@code linhas} deve ter uma posição por
+     * cama. Requer {@link #cobre}.
+     */
+    int camasLivres(long inicio, long fim, int[] linhas) {
+        int de = (int) (inicio - origem);
+        int ate = (int) (fim - origem);
+        int primeiraPalavra = de >>> 6;
+        int ultimaPalavra = ate >>> 6;
+        int n = 0;
+        for (int linha = 0; linha < camas; linha++) {
+            int base = linha * palavrasPorCama;
+            long ocupado = 0;
+            for (int w = primeiraPalavra; w <= ultimaPalavra && ocupado == 0; w++) {
+                ocupado |= bits[base + w] & mascaraPalavra(w, de, ate);
+            }
+            if (ocupado == 0) linhas[n++] = linha;
+        }
+        return n;
+    }
+
+    private void aplicarMascara(int linha, int de, int ate, boolean ligar) {
+        int base = linha * palavrasPorCama;
+        for (int w = de >>> 6; w <= ate >>> 6; w++) {
+            long mascara = mascaraPalavra(w, de, ate);
+            if (ligar) bits[base + w] |= mascara;
+            else bits[base + w] &= ~mascara;
+        }
+    }
+
+    // Bits da palavra w que caem em [de, ate]
+    private static long mascaraPalavra(int w, int de, int ate) {
+        int inicioPalavra = w << 6;
+        int lo = Math.max(de - inicioPalavra, 0);
+        int hi = Math.min(ate - inicioPalavra, 63);
+        long mascara = -1L << lo;
+        return hi == 63 ? mascara : mascara & ((1L << (hi + 1)) - 1);
+    }
+}
@@ -0,0 +1,345 @@
+package cache;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import db.DatabaseConnector;
+import model.Cama;
+
+/**
+ * Índice em memória das estadias por cama para responder "quais camas estão
+ * livres entre A e B" sem varrer a tabela hospedagem.
+ *
+ * O SQL é usado apenas na carga inicial (preguiçosa) e para reler uma
+ * hospedagem específica quando ela muda ({@link #sincronizarHospedagem(int)}).
+ *
+ * Junto com os intervalos é mantido um {@link CalendarioOcupacao} (um bit por
+ * cama por dia) cobrindo de {@value #DIAS_PASSADOS} dias atrás até
+ * {@value #DIAS_FUTUROS} dias à frente, usado nas camas livres de um período e
+ * nas projeções dia a dia; consultas fora dessa janela caem para os intervalos.
+ */
+public class DisponibilidadeCamas {
+
+    static final int DIAS_PASSADOS = 31;
+    static final int DIAS_FUTUROS = 400;
+
+    private static final DisponibilidadeCamas INSTANCIA = new DisponibilidadeCamas(DatabaseConnector::conectar);
+
+    private static final Comparator<Cama> POR_DESCRICAO =
+            Comparator.comparing(Cama::getDescricao, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private record Estadia(int camaId, long inicio, long fim) {}
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Protegidos pelo lock
+    private final Map<Integer, IntervalosCama> intervalosPorCama = new HashMap<>();
+    private final Map<Integer, Estadia> estadias = new HashMap<>();
+    private List<Cama> camasOrdenadas = new ArrayList<>();
+    private Map<Integer, Integer> linhaPorCama = new HashMap<>();
+    private CalendarioOcupacao calendario;
+    private boolean carregado = false;
+
+    private final Callable<Connection> conexoes;
+
+    /** Índice independente sobre outra fonte de conexões (ex.: banco sintético dos benchmarks). */
+    public DisponibilidadeCamas(Callable<Connection> conexoes) {
+        this.conexoes = conexoes;
+    }
+
+    public static DisponibilidadeCamas getInstancia() {
+        return INSTANCIA;
+    }
+
+    /** Dispara a carga do índice em segundo plano (chamado na inicialização). */
+    public void precarregar() {
+        Thread t = new Thread(() -> {
+            try {
+                garantirCarregado();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }, "carga-disponibilidade");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /** Camas sem nenhuma hospedagem (ativa, encerrada ou reserva) sobrepondo o período, por descrição. */
+    public List<Cama> camasDisponiveis(LocalDate inicio, LocalDate fim) throws SQLException {
+        garantirCarregado();
+
+        long a = inicio.toEpochDay();
+        long b = fim.toEpochDay();
+        List<Cama> livres = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            if (calendario != null && calendario.cobre(a, b)) {
+                // linhas do calendário seguem a ordem de camasOrdenadas
+                int[] linhas = new int[camasOrdenadas.size()];
+                int n = calendario.camasLivres(a, b, linhas);
+                for (int i = 0; i < n; i++) livres.add(camasOrdenadas.get(linhas[i]));
+                return livres;
+            }
+            for (Cama cama : camasOrdenadas) {
+                IntervalosCama intervalos = intervalosPorCama.get(cama.getId());
+                if (intervalos == null || !intervalos.sobrepoe(a, b)) {
+                    livres.add(cama);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return livres;
+    }
+
+    public boolean camaLivre(int camaId, LocalDate inicio, LocalDate fim) throws SQLException {
+        garantirCarregado();
+        lock.readLock().lock();
+        try {
+            IntervalosCama intervalos = intervalosPorCama.get(camaId);
+            return intervalos == null || !intervalos.sobrepoe(inicio.toEpochDay(), fim.toEpochDay());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Número de camas livres em cada dia a partir de {@code inicio}: {@code livres[i]}
+     * recebe o total do dia {@code inicio + i}. O vetor é do chamador, para que
+     * projeções repetidas não aloquem nada.
+     */
+    public void camasLivresPorDia(LocalDate inicio, int[] livres) throws SQLException {
+        garantirCarregado();
+
+        long a = inicio.toEpochDay();
+        lock.readLock().lock();
+        try {
+            if (calendario != null && calendario.cobre(a, a + livres.length - 1)) {
+                calendario.livresPorDia(a, livres);
+                return;
+            }
+            for (int i = 0; i < livres.length; i++) {
+                int total = 0;
+                for (Cama cama : camasOrdenadas) {
+                    IntervalosCama intervalos = intervalosPorCama.get(cama.getId());
+                    if (intervalos == null || !intervalos.sobrepoe(a + i, a + i)) total++;
+                }
+                livres[i] = total;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int[] camasLivresPorDia(LocalDate inicio, int dias) throws SQLException {
+        int[] livres = new int[dias];
+        camasLivresPorDia(inicio, livres);
+        return livres;
+    }
+
+    /** Relê uma hospedagem do banco (inserida, alterada ou excluída) e atualiza o índice. */
+    public void sincronizarHospedagem(int hospedagemId) {
+        if (!estaCarregado()) return; // será lida na carga inicial
+
+        String sql = "SELECT cama_id, data_entrada, data_saida FROM hospedagem WHERE id = ?";
+        Estadia nova = null;
+        try (Connection conn = conexoes.call();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, hospedagemId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    nova = criarEstadia(rs.getInt(1), rs.getString(2), rs.getString(3));
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            invalidar();
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (!carregado) return; // invalidado enquanto relia
+            Estadia antiga = estadias.remove(hospedagemId);
+            if (antiga != null) {
+                IntervalosCama intervalos = intervalosPorCama.get(antiga.camaId);
+                if (intervalos != null && intervalos.remover(hospedagemId)) {
+                    intervalos.reindexar();
+                }
+                if (nova == null || nova.camaId != antiga.camaId) {
+                    redesenharCama(antiga.camaId);
+                }
+            }
+            if (nova != null) {
+                estadias.put(hospedagemId, nova);
+                IntervalosCama intervalos = intervalosPorCama.computeIfAbsent(nova.camaId, id -> new IntervalosCama());
+                intervalos.adicionar(hospedagemId, nova.inicio, nova.fim);
+                intervalos.reindexar();
+                redesenharCama(nova.camaId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Recarrega apenas a lista de camas (cadastro, edição ou exclusão de cama). */
+    public void sincronizarCamas() {
+        if (!estaCarregado()) return;
+        try (Connection conn = conexoes.call()) {
+            List<Cama> camas = lerCamas(conn);
+            lock.writeLock().lock();
+            try {
+                if (!carregado) return;
+                camasOrdenadas = camas;
+                reconstruirCalendario();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            invalidar();
+        }
+    }
+
+    /** Descarta o índice; a próxima consulta recarrega tudo do banco. */
+    public void invalidar() {
+        lock.writeLock().lock();
+        try {
+            carregado = false;
+            intervalosPorCama.clear();
+            estadias.clear();
+            camasOrdenadas = new ArrayList<>();
+            linhaPorCama = new HashMap<>();
+            calendario = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean estaCarregado() {
+        lock.readLock().lock();
+        try {
+            return carregado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void garantirCarregado() throws SQLException {
+        lock.readLock().lock();
+        try {
+            if (carregado && !janelaDesatualizada()) return;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (carregado) {
+                // aplicação aberta por dias: só recentraliza o calendário, sem reler o banco
+                if (janelaDesatualizada()) reconstruirCalendario();
+                return;
+            }
+            try (Connection conn = conexoes.call()) {
+                carregar(conn);
+            } catch (SQLException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new SQLException("Erro ao carregar índice de disponibilidade.", e);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Chamado com o write lock
+    private void carregar(Connection conn) throws SQLException {
+        intervalosPorCama.clear();
+        estadias.clear();
+        camasOrdenadas = lerCamas(conn);
+
+        String sql = "SELECT id, cama_id, data_entrada, data_saida FROM hospedagem";
+        try (PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                int id = rs.getInt(1);
+                Estadia estadia = criarEstadia(rs.getInt(2), rs.getString(3), rs.getString(4));
+                if (estadia == null) continue;
+                estadias.put(id, estadia);
+                intervalosPorCama.computeIfAbsent(estadia.camaId, c -> new IntervalosCama())
+                        .adicionar(id, estadia.inicio, estadia.fim);
+            }
+        }
+        for (IntervalosCama intervalos : intervalosPorCama.values()) {
+            intervalos.reindexar();
+        }
+        reconstruirCalendario();
+        carregado = true;
+    }
+
+    // Chamado com o write lock
+    private void reconstruirCalendario() {
+        int n = camasOrdenadas.size();
+        int[] ids = new int[n];
+        Map<Integer, Integer> linhas = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            ids[i] = camasOrdenadas.get(i).getId();
+            linhas.put(ids[i], i);
+        }
+        long hoje = LocalDate.now().toEpochDay();
+        calendario = new CalendarioOcupacao(n, hoje - DIAS_PASSADOS, DIAS_PASSADOS + DIAS_FUTUROS + 1);
+        linhaPorCama = linhas;
+        for (int i = 0; i < n; i++) {
+            IntervalosCama intervalos = intervalosPorCama.get(ids[i]);
+            if (intervalos != null) intervalos.marcarEm(calendario, i);
+        }
+    }
+
+    // Chamado com o write lock
+    private void redesenharCama(int camaId) {
+        Integer linha = linhaPorCama.get(camaId);
+        if (linha == null) return; // cama fora do cadastro atual
+        calendario.limparCama(linha);
+        IntervalosCama intervalos = intervalosPorCama.get(camaId);
+        if (intervalos != null) intervalos.marcarEm(calendario, linha);
+    }
+
+    // A janela anda com a data: recentraliza depois de um mês, mantendo sempre mais de um ano à frente
+    private boolean janelaDesatualizada() {
+        return calendario != null
+                && LocalDate.now().toEpochDay() - calendario.origem() > DIAS_PASSADOS * 2L;
+    }
+
+    private static List<Cama> lerCamas(Connection conn) throws SQLException {
+        List<Cama> camas = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement("SELECT id, descricao, quarto_numero FROM cama");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                camas.add(new Cama(rs.getInt(1), rs.getString(2), rs.getInt(3)));
+            }
+        }
+        camas.sort(POR_DESCRICAO);
+        return camas;
+    }
+
+    private static Estadia criarEstadia(int camaId, String entrada, String saida) {
+        try {
+            return new Estadia(camaId, LocalDate.parse(entrada).toEpochDay(), LocalDate.parse(saida).toEpochDay());
+        } catch (DateTimeParseException | NullPointerException e) {
+            System.err.println("Hospedagem com data inválida ignorada no índice: " + entrada + " / " + saida);
+            return null;
+        }
+    }
+}
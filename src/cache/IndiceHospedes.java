@@ -0,0 +1,475 @@
+package cache;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import db.DatabaseConnector;
+
+/**
+ * Índice em memória de hóspedes para o autocomplete, sem ida ao banco a cada tecla.
+ *
+ * Cobre os mesmos campos da busca FTS ({@link db.BuscaHospedes}): cada palavra do
+ * nome, documento, telefone e email (sem acentos, minúscula) e o documento e o
+ * telefone só com dígitos viram chaves de um vetor ordenado; a busca pega a faixa de chaves
+ * com o prefixo digitado por busca binária. Alterações posteriores à carga ficam
+ * em "recentes" (varridos linearmente) até a próxima reconstrução do vetor, feita
+ * em segundo plano.
+ *
+ * Resultados seguem a ordem do autocomplete antigo: mais recentes (maior id) primeiro.
+ */
+public class IndiceHospedes {
+
+    public record Sugestao(int id, String nome, String documento) {}
+
+    private static final IndiceHospedes INSTANCIA = new IndiceHospedes(DatabaseConnector::conectar);
+
+    // Acima disso os recentes pesam na busca: reconstrói o vetor ordenado
+    private static final int LIMITE_RECENTES = 4096;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern NAO_DIGITOS = Pattern.compile("\\D+");
+
+    private record Entrada(int id, String nome, String documento, String[] chaves) {
+
+        /** Cada termo é prefixo de alguma chave do hóspede. */
+        boolean casa(String[] termos) {
+            for (String termo : termos) {
+                if (primeiraChaveCom(termo) == null) return false;
+            }
+            return true;
+        }
+
+        String primeiraChaveCom(String prefixo) {
+            int i = limiteInferior(chaves, prefixo);
+            return i < chaves.length && chaves[i].startsWith(prefixo) ? chaves[i] : null;
+        }
+    }
+
+    /** Vetor imutável ordenado por chave e, na mesma chave, por id decrescente: chaves[i] pertence a ids[i]. */
+    private record Base(String[] chaves, int[] ids, int[] idsOrdenados) {}
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Callable<Connection> conexoes;
+
+    // Protegidos pelo lock
+    private final Map<Integer, Entrada> entradas = new HashMap<>();
+    private final Map<Integer, Long> recentes = new HashMap<>();       // id -> versão da alteração
+    private final Map<Integer, Integer> hospedePorAtiva = new HashMap<>(); // hospedagem ativa -> hóspede
+    private final Map<Integer, Integer> ativasPorHospede = new HashMap<>();
+    private Base base = new Base(new String[0], new int[0], new int[0]);
+    private long versao = 0;
+    private boolean carregado = false;
+    private boolean reconstruindo = false;
+
+    /** Índice independente sobre outra fonte de conexões (ex.: banco sintético dos benchmarks). */
+    public IndiceHospedes(Callable<Connection> conexoes) {
+        this.conexoes = conexoes;
+    }
+
+    public static IndiceHospedes getInstancia() {
+        return INSTANCIA;
+    }
+
+    /** Dispara a carga em segundo plano (chamado na inicialização). */
+    public void precarregar() {
+        Thread t = new Thread(() -> {
+            try {
+                carregar();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }, "carga-indice-hospedes");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /** Enquanto a carga não termina, as telas devem usar a busca no banco. */
+    public boolean pronto() {
+        lock.readLock().lock();
+        try {
+            return carregado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Até {@code limite} hóspedes cujas palavras (nome, documento, telefone, email) começam com cada
+     * termo digitado, do mais recente para o mais antigo. Termo vazio lista os mais recentes.
+     */
+    public List<Sugestao> buscar(String termo, boolean somenteSemHospedagemAtiva, int limite) {
+        String[] termos = palavras(termo);
+        MaioresIds top = new MaioresIds(limite);
+
+        lock.readLock().lock();
+        try {
+            for (Integer id : recentes.keySet()) {
+                considerar(id, termos, somenteSemHospedagemAtiva, top);
+            }
+
+            // o termo mais longo dá a faixa mais estreita; os outros são conferidos na entrada
+            String chave = "";
+            for (String t : termos) if (t.length() > chave.length()) chave = t;
+            String[] chaves = base.chaves;
+            int i = limiteInferior(chaves, chave);
+
+            if (termos.length == 0 || faixaLarga(i, limiteInferior(chaves, chave + Character.MAX_VALUE), limite)) {
+                int[] ids = base.idsOrdenados;
+                for (int j = ids.length - 1; j >= 0 && !top.descarta(ids[j]); j--) {
+                    if (!recentes.containsKey(ids[j])) considerar(ids[j], termos, somenteSemHospedagemAtiva, top);
+                }
+            } else {
+                while (i < chaves.length && chaves[i].startsWith(chave)) {
+                    int id = base.ids[i];
+                    if (top.descarta(id)) {
+                        // o resto desta chave tem ids menores: pula para a próxima chave
+                        i = limiteSuperior(chaves, chaves[i], i);
+                        continue;
+                    }
+                    i++;
+                    if (!recentes.isEmpty() && recentes.containsKey(id)) continue;
+                    Entrada entrada = entradas.get(id);
+                    // conta cada hóspede uma vez só: pela sua primeira chave com o prefixo
+                    if (entrada == null || entrada.primeiraChaveCom(chave) != chaves[i - 1]) continue;
+                    considerar(id, termos, somenteSemHospedagemAtiva, top);
+                }
+            }
+
+            int[] ids = top.emOrdemDecrescente();
+            List<Sugestao> sugestoes = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                Entrada entrada = entradas.get(id);
+                sugestoes.add(new Sugestao(id, entrada.nome, entrada.documento));
+            }
+            return sugestoes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Relê um hóspede (inserido, editado ou excluído). */
+    public void sincronizarHospede(int hospedeId) {
+        if (!pronto()) return; // será lido na carga
+
+        Entrada nova = null;
+        try (Connection conn = conexoes.call();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT id, nome, documento, telefone, email FROM hospede WHERE id = ?")) {
+            ps.setInt(1, hospedeId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) nova = criarEntrada(rs);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (nova == null) {
+                entradas.remove(hospedeId); // chaves antigas na base são ignoradas sem a entrada
+                recentes.remove(hospedeId);
+            } else {
+                entradas.put(hospedeId, nova);
+                recentes.put(hospedeId, ++versao);
+                if (recentes.size() > LIMITE_RECENTES && !reconstruindo) {
+                    reconstruindo = true;
+                    Thread t = new Thread(this::reconstruirBase, "reconstrucao-indice-hospedes");
+                    t.setDaemon(true);
+                    t.start();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Relê o status de uma hospedagem para manter o filtro "sem hospedagem ativa". */
+    public void sincronizarHospedagem(int hospedagemId) {
+        if (!pronto()) return;
+
+        Integer hospede = null;
+        try (Connection conn = conexoes.call();
+             PreparedStatement ps = conn.prepareStatement("SELECT hospede_id FROM hospedagem WHERE id = ? AND status = 1")) {
+            ps.setInt(1, hospedagemId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) hospede = rs.getInt(1);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            recarregarAtivas();
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer anterior = hospedePorAtiva.remove(hospedagemId);
+            if (anterior != null) ativasPorHospede.computeIfPresent(anterior, (id, n) -> n > 1 ? n - 1 : null);
+            if (hospede != null) {
+                hospedePorAtiva.put(hospedagemId, hospede);
+                ativasPorHospede.merge(hospede, 1, Integer::sum);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Relê todas as hospedagens ativas (ex.: liberar quarto inteiro). */
+    public void recarregarAtivas() {
+        if (!pronto()) return;
+        try (Connection conn = conexoes.call()) {
+            Map<Integer, Integer> ativas = lerAtivas(conn);
+            lock.writeLock().lock();
+            try {
+                trocarAtivas(ativas);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /** Carga completa (bloqueante); normalmente chamada por {@link #precarregar()}. */
+    public void carregar() throws Exception {
+        Map<Integer, Entrada> lidas = new HashMap<>();
+        Map<Integer, Integer> ativas;
+        try (Connection conn = conexoes.call()) {
+            try (PreparedStatement ps = conn.prepareStatement("SELECT id, nome, documento, telefone, email FROM hospede");
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Entrada entrada = criarEntrada(rs);
+                    lidas.put(entrada.id, entrada);
+                }
+            }
+            ativas = lerAtivas(conn);
+        }
+        Base nova = montarBase(lidas.values());
+
+        lock.writeLock().lock();
+        try {
+            entradas.clear();
+            entradas.putAll(lidas);
+            recentes.clear();
+            trocarAtivas(ativas);
+            base = nova;
+            carregado = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void reconstruirBase() {
+        List<Entrada> copia;
+        long versaoCopia;
+        lock.readLock().lock();
+        try {
+            copia = new ArrayList<>(entradas.values());
+            versaoCopia = versao;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Base nova = montarBase(copia);
+
+        lock.writeLock().lock();
+        try {
+            base = nova;
+            // alterações feitas durante a montagem continuam nos recentes
+            recentes.values().removeIf(v -> v <= versaoCopia);
+            reconstruindo = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+     * Prefixo comum ("mar"): a faixa tem milhares de chaves distintas (palavras de
+     * email, dígitos de telefone), cada uma pulada com uma busca binária. Percorrer
+     * os hóspedes do mais novo para o mais antigo acha os {@code limite} primeiros
+     * depois de uns limite * total / faixa; escolhe o caminho mais curto.
+     */
+    private boolean faixaLarga(int inicio, int fim, int limite) {
+        long faixa = fim - inicio;
+        return faixa * faixa > (long) limite * base.idsOrdenados.length;
+    }
+
+    // Chamado com o read lock
+    private void considerar(int id, String[] termos, boolean somenteSemHospedagemAtiva, MaioresIds top) {
+        if (top.descarta(id)) return;
+        if (somenteSemHospedagemAtiva && ativasPorHospede.containsKey(id)) return;
+        Entrada entrada = entradas.get(id);
+        if (entrada != null && entrada.casa(termos)) top.oferecer(id);
+    }
+
+    // Chamado com o write lock
+    private void trocarAtivas(Map<Integer, Integer> ativas) {
+        hospedePorAtiva.clear();
+        hospedePorAtiva.putAll(ativas);
+        ativasPorHospede.clear();
+        for (Integer hospede : ativas.values()) ativasPorHospede.merge(hospede, 1, Integer::sum);
+    }
+
+    private static Map<Integer, Integer> lerAtivas(Connection conn) throws SQLException {
+        Map<Integer, Integer> ativas = new HashMap<>();
+        try (PreparedStatement ps = conn.prepareStatement("SELECT id, hospede_id FROM hospedagem WHERE status = 1");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) ativas.put(rs.getInt(1), rs.getInt(2));
+        }
+        return ativas;
+    }
+
+    private static Base montarBase(Iterable<Entrada> entradas) {
+        int total = 0, hospedes = 0;
+        for (Entrada e : entradas) {
+            total += e.chaves.length;
+            hospedes++;
+        }
+
+        Integer[] ordem = new Integer[total];
+        String[] chaves = new String[total];
+        int[] ids = new int[total];
+        int[] idsOrdenados = new int[hospedes];
+        int k = 0, h = 0;
+        for (Entrada e : entradas) {
+            idsOrdenados[h++] = e.id;
+            for (String chave : e.chaves) {
+                chaves[k] = chave; // mesma instância da entrada (ver primeiraChaveCom)
+                ids[k] = e.id;
+                ordem[k] = k;
+                k++;
+            }
+        }
+        Arrays.sort(ordem, (a, b) -> {
+            int c = chaves[a].compareTo(chaves[b]);
+            return c != 0 ? c : Integer.compare(ids[b], ids[a]);
+        });
+        Arrays.sort(idsOrdenados);
+
+        String[] chavesOrdenadas = new String[total];
+        int[] idsPorChave = new int[total];
+        for (int i = 0; i < total; i++) {
+            chavesOrdenadas[i] = chaves[ordem[i]];
+            idsPorChave[i] = ids[ordem[i]];
+        }
+        return new Base(chavesOrdenadas, idsPorChave, idsOrdenados);
+    }
+
+    // Colunas id, nome, documento, telefone, email
+    private static Entrada criarEntrada(ResultSet rs) throws SQLException {
+        String nome = rs.getString(2);
+        String documento = rs.getString(3);
+        TreeSet<String> chaves = new TreeSet<>();
+        for (int coluna = 2; coluna <= 5; coluna++) {
+            chaves.addAll(Arrays.asList(palavras(rs.getString(coluna))));
+        }
+        adicionarDigitos(chaves, documento);
+        adicionarDigitos(chaves, rs.getString(4));
+        return new Entrada(rs.getInt(1), nome, documento, chaves.toArray(new String[0]));
+    }
+
+    // "(11) 98888-7777" também é achado por "1198888"
+    private static void adicionarDigitos(TreeSet<String> chaves, String texto) {
+        if (texto == null) return;
+        String digitos = NAO_DIGITOS.matcher(texto).replaceAll("");
+        if (!digitos.isEmpty()) chaves.add(digitos);
+    }
+
+    /** Palavras sem acento e em minúsculas, como são guardadas e buscadas. */
+    static String[] palavras(String texto) {
+        if (texto == null || texto.isBlank()) return new String[0];
+        String normalizado = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARADORES.split(normalizado)).filter(p -> !p.isEmpty()).toArray(String[]::new);
+    }
+
+    // Primeira posição com valor >= chave
+    private static int limiteInferior(String[] ordenadas, String chave) {
+        int baixo = 0, alto = ordenadas.length;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (ordenadas[meio].compareTo(chave) < 0) baixo = meio + 1;
+            else alto = meio;
+        }
+        return baixo;
+    }
+
+    // Primeira posição a partir de "desde" com valor > chave
+    private static int limiteSuperior(String[] ordenadas, String chave, int desde) {
+        int baixo = desde, alto = ordenadas.length;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (ordenadas[meio].compareTo(chave) <= 0) baixo = meio + 1;
+            else alto = meio;
+        }
+        return baixo;
+    }
+
+    /** Os N maiores ids vistos, num heap mínimo de tamanho fixo. */
+    private static final class MaioresIds {
+        private final int[] heap;
+        private int tamanho;
+
+        MaioresIds(int limite) {
+            heap = new int[Math.max(limite, 0)];
+        }
+
+        /** true se o id não entraria mais no resultado. */
+        boolean descarta(int id) {
+            return heap.length == 0 || (tamanho == heap.length && id <= heap[0]);
+        }
+
+        void oferecer(int id) {
+            if (tamanho < heap.length) {
+                int i = tamanho++;
+                heap[i] = id;
+                while (i > 0 && heap[(i - 1) / 2] > heap[i]) {
+                    trocar((i - 1) / 2, i);
+                    i = (i - 1) / 2;
+                }
+            } else if (id > heap[0]) {
+                heap[0] = id;
+                int i = 0;
+                while (true) {
+                    int menor = i, e = 2 * i + 1, d = e + 1;
+                    if (e < tamanho && heap[e] < heap[menor]) menor = e;
+                    if (d < tamanho && heap[d] < heap[menor]) menor = d;
+                    if (menor == i) break;
+                    trocar(i, menor);
+                    i = menor;
+                }
+            }
+        }
+
+        int[] emOrdemDecrescente() {
+            int[] ids = Arrays.copyOf(heap, tamanho);
+            Arrays.sort(ids);
+            for (int i = 0, j = ids.length - 1; i < j; i++, j--) {
+                int t = ids[i];
+                ids[i] = ids[j];
+                ids[j] = t;
+            }
+            return ids;
+        }
+
+        private void trocar(int a, int b) {
+            int t = heap[a];
+            heap[a] = heap[b];
+            heap[b] = t;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Lista ordenada (por data de entrada) das estadias de uma cama, em dias epoch.
+ * Um vetor com o maior fim até cada posição permite responder "há estadia
+ * sobrepondo [inicio, fim]?" com uma busca binária.
+ *
+ * Não é thread-safe: o acesso é controlado por {@link DisponibilidadeCamas}.
+ */
+class IntervalosCama {
+
+    private record Intervalo(int hospedagemId, long inicio, long fim) {}
+
+    private final List<Intervalo> intervalos = new ArrayList<>();
+
+    private long[] inicios = new long[0];
+    private long[] fins = new long[0];
+    private long[] maiorFimAte = new long[0];
+
+    void adicionar(int hospedagemId, long inicio, long fim) {
+        intervalos.add(new Intervalo(hospedagemId, inicio, fim));
+    }
+
+    boolean remover(int hospedagemId) {
+        return intervalos.removeIf(i -> i.hospedagemId == hospedagemId);
+    }
+
+    /** Deve ser chamado após adicionar/remover e antes das consultas. */
+    void reindexar() {
+        intervalos.sort(Comparator.comparingLong(Intervalo::inicio));
+        int n = intervalos.size();
+        inicios = new long[n];
+        fins = new long[n];
+        maiorFimAte = new long[n];
+        long maior = Long.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            Intervalo intervalo = intervalos.get(i);
+            inicios[i] = intervalo.inicio;
+            fins[i] = intervalo.fim;
+            maior = Math.max(maior, intervalo.fim);
+            maiorFimAte[i] = maior;
+        }
+    }
+
+    /** Mesma regra do SQL anterior: ocupa se NOT (saida < inicio OR entrada > fim). */
+    boolean sobrepoe(long inicio, long fim) {
+        // última estadia com entrada <= fim
+        int baixo = 0, alto = inicios.length - 1, k = -1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (inicios[meio] <= fim) {
+                k = meio;
+                baixo = meio + 1;
+            } else {
+                alto = meio - 1;
+            }
+        }
+        return k >= 0 && maiorFimAte[k] >= inicio;
+    }
+
+    int tamanho() {
+        return intervalos.size();
+    }
+
+    /** Marca todas as estadias da cama na linha correspondente do calendário. */
+    void marcarEm(CalendarioOcupacao calendario, int linha) {
+        for (int i = 0; i < inicios.length; i++) {
+            calendario.marcar(linha, inicios[i], fins[i]);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package cache;
+
+/**
+ * Ponto único que as telas chamam depois de gravar (commit) alterações,
+ * para manter os índices em memória coerentes com o banco.
+ */
+public class NotificadorAlteracoes {
+
+    /** Hospedagem inserida, alterada (datas, cama, status) ou excluída. */
+    public static void hospedagemAlterada(int hospedagemId) {
+        DisponibilidadeCamas.getInstancia().sincronizarHospedagem(hospedagemId);
+        IndiceHospedes.getInstancia().sincronizarHospedagem(hospedagemId);
+    }
+
+    /** Várias hospedagens alteradas de uma vez (ex.: liberar quarto). */
+    public static void hospedagensAlteradas() {
+        DisponibilidadeCamas.getInstancia().invalidar();
+        IndiceHospedes.getInstancia().recarregarAtivas();
+    }
+
+    /** Hóspede cadastrado, editado ou excluído. */
+    public static void hospedeAlterado(int hospedeId) {
+        IndiceHospedes.getInstancia().sincronizarHospede(hospedeId);
+    }
+
+    /** Cama cadastrada, editada ou excluída. */
+    public static void camasAlteradas() {
+        DisponibilidadeCamas.getInstancia().sincronizarCamas();
+    }
+}
@@ -1,47 +1,151 @@
 package controller;
 
 import javax.swing.JTable;
-import javax.swing.table.TableModel;
 import java.io.FileOutputStream;
 import java.io.File;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+
+import diagnostico.EventosHotel;
+
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
+/**
+ * Exportação para .xlsx em streaming (SXSSF): só as últimas {@value #JANELA_LINHAS}
+ * linhas ficam em memória, o resto vai para arquivo temporário, então o consumo
+ * não cresce com o tamanho do relatório. Acima do limite de linhas do formato,
+ * continua em novas planilhas.
+ */
 public class ExcelExporter {
 
+    /** Linhas por planilha no .xlsx, contando o cabeçalho. */
+    public static final int MAX_LINHAS_PLANILHA = 1_048_576;
+
+    private static final int JANELA_LINHAS = 200;
+    private static final String NOME_PLANILHA = "Relatório";
+
+    private static final DateTimeFormatter ISO = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final DateTimeFormatter BR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
     public static boolean exportarTabelaParaExcel(JTable tabela, File arquivo) {
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Relatório");
+        return exportar(FonteLinhas.de(tabela.getModel()), arquivo);
+    }
 
-            TableModel model = tabela.getModel();
+    /** Exporta direto de uma consulta ou iterador; mostra o erro no console e retorna false se falhar. */
+    public static boolean exportar(FonteLinhas fonte, File arquivo) {
+        try {
+            escrever(fonte, arquivo);
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
 
-            // Cabeçalhos
-            Row headerRow = sheet.createRow(0);
-            for (int col = 0; col < model.getColumnCount(); col++) {
-                Cell cell = headerRow.createCell(col);
-                cell.setCellValue(model.getColumnName(col));
-            }
+    /** Como {@link #exportar}, mas propaga o erro; retorna quantas linhas de dados foram escritas. */
+    public static long escrever(FonteLinhas fonte, File arquivo) throws Exception {
+        return escrever(fonte, arquivo, MAX_LINHAS_PLANILHA);
+    }
+
+    static long escrever(FonteLinhas fonte, File arquivo, int maxLinhasPlanilha) throws Exception {
+        EventosHotel.Exportacao evento = new EventosHotel.Exportacao();
+        evento.begin();
+        evento.formato = "xlsx";
+        evento.arquivo = arquivo.getName();
+        try {
+            evento.linhas = gravar(fonte, arquivo, maxLinhasPlanilha);
+            evento.bytes = arquivo.length();
+            evento.sucesso = true;
+            return evento.linhas;
+        } finally {
+            evento.commit();
+        }
+    }
 
-            // Dados
-            for (int row = 0; row < model.getRowCount(); row++) {
-                Row dataRow = sheet.createRow(row + 1);
-                for (int col = 0; col < model.getColumnCount(); col++) {
-                    Object valor = model.getValueAt(row, col);
-                    Cell cell = dataRow.createCell(col);
-                    cell.setCellValue(valor != null ? valor.toString() : "");
+    private static long gravar(FonteLinhas fonte, File arquivo, int maxLinhasPlanilha) throws Exception {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(JANELA_LINHAS);
+        workbook.setCompressTempFiles(true);
+        try (workbook; fonte) {
+            CellStyle estiloData = workbook.createCellStyle();
+            estiloData.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd/mm/yyyy"));
+
+            String[] colunas = fonte.colunas();
+            Sheet sheet = null;
+            int linhaNaPlanilha = maxLinhasPlanilha; // força a criação da primeira
+            long total = 0;
+
+            while (fonte.proxima()) {
+                if (linhaNaPlanilha == maxLinhasPlanilha) {
+                    int numero = workbook.getNumberOfSheets() + 1;
+                    sheet = workbook.createSheet(numero == 1 ? NOME_PLANILHA : NOME_PLANILHA + " (" + numero + ")");
+                    escreverCabecalho(sheet, colunas);
+                    linhaNaPlanilha = 1;
+                }
+                Row dataRow = sheet.createRow(linhaNaPlanilha++);
+                for (int col = 0; col < colunas.length; col++) {
+                    preencher(dataRow.createCell(col), fonte.valor(col), estiloData);
                 }
+                total++;
+            }
+
+            if (sheet == null) { // relatório vazio: só o cabeçalho
+                escreverCabecalho(workbook.createSheet(NOME_PLANILHA), colunas);
             }
 
-            // Salvar arquivo
             try (FileOutputStream out = new FileOutputStream(arquivo)) {
                 workbook.write(out);
             }
+            return total;
+        } finally {
+            workbook.dispose(); // apaga os temporários
+        }
+    }
 
-            return true;
+    private static void escreverCabecalho(Sheet sheet, String[] colunas) {
+        Row headerRow = sheet.createRow(0);
+        for (int col = 0; col < colunas.length; col++) {
+            headerRow.createCell(col).setCellValue(colunas[col]);
+        }
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
+    // Números e datas viram células tipadas (somáveis e ordenáveis no Excel)
+    private static void preencher(Cell cell, Object valor, CellStyle estiloData) {
+        if (valor == null) {
+            cell.setCellValue("");
+        } else if (valor instanceof Number numero) {
+            cell.setCellValue(numero.doubleValue());
+        } else if (valor instanceof Boolean b) {
+            cell.setCellValue(b);
+        } else if (valor instanceof LocalDate data) {
+            cell.setCellValue(data);
+            cell.setCellStyle(estiloData);
+        } else if (valor instanceof Date data) {
+            cell.setCellValue(data);
+            cell.setCellStyle(estiloData);
+        } else {
+            String texto = valor.toString();
+            LocalDate data = comoData(texto);
+            if (data != null) {
+                cell.setCellValue(data);
+                cell.setCellStyle(estiloData);
+            } else {
+                cell.setCellValue(texto);
+            }
+        }
+    }
+
+    // O banco guarda datas como texto yyyy-MM-dd e as telas mostram dd/MM/yyyy
+    private static LocalDate comoData(String texto) {
+        if (texto.length() != 10) return null;
+        try {
+            if (texto.charAt(4) == '-' && texto.charAt(7) == '-') return LocalDate.parse(texto, ISO);
+            if (texto.charAt(2) == '/' && texto.charAt(5) == '/') return LocalDate.parse(texto, BR);
+        } catch (DateTimeParseException e) {
+            // não é data: fica como texto
         }
+        return null;
     }
 }
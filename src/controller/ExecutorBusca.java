@@ -0,0 +1,193 @@
+package controller;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+import db.DatabaseConnector;
+
+/**
+ * Executa as buscas "enquanto digita" fora da EDT, e só a última vale.
+ *
+ * Cada chamada a {@link #buscar} supera as anteriores: as que ainda estão na fila
+ * nem começam, a que está rodando é interrompida com {@link Statement#cancel()} e
+ * nenhum resultado superado chega à tela. O resultado da última é entregue na EDT.
+ *
+ * No SQLite o cancel de qualquer statement interrompe a conexão inteira
+ * (sqlite3_interrupt), por isso basta um statement "sentinela" criado na mesma
+ * conexão usada pela consulta.
+ */
+public class ExecutorBusca<T> {
+
+    /** A consulta em si; pode chamar {@link Execucao#conexao()} quando precisar do banco. */
+    @FunctionalInterface
+    public interface Consulta<T> {
+        T executar(Execucao execucao) throws Exception;
+    }
+
+    /** Contexto de uma execução; a conexão é emprestada só se for pedida e devolvida no fim. */
+    public static final class Execucao {
+        private final ExecutorBusca<?> dono;
+        private final long geracao;
+        private Connection conexao;
+
+        private Execucao(ExecutorBusca<?> dono, long geracao) {
+            this.dono = dono;
+            this.geracao = geracao;
+        }
+
+        public Connection conexao() throws Exception {
+            if (conexao == null) {
+                conexao = dono.conexoes.call();
+                Statement sentinela = conexao.createStatement();
+                synchronized (dono) {
+                    dono.emAndamento = sentinela;
+                }
+                // superada enquanto esperava a conexão: o interrupt do SQLite não vale para
+                // consultas que ainda não começaram, então nem começa
+                if (cancelada()) throw new SQLException("Busca superada por outra mais recente.");
+            }
+            return conexao;
+        }
+
+        /**
+         * A mesma {@link #conexao()} para código que fecha o que abre (ex.: o
+         * {@link service.HotelService}): o close() dela não faz nada, quem
+         * devolve a conexão é a própria execução no fim.
+         */
+        public Callable<Connection> conexoes() {
+            return () -> {
+                Connection real = conexao();
+                return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[] { Connection.class }, (proxy, metodo, args) -> {
+                            if (metodo.getName().equals("close")) return null;
+                            try {
+                                return metodo.invoke(real, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        });
+            };
+        }
+
+        /** Para consultas longas em memória: true se já existe uma busca mais nova. */
+        public boolean cancelada() {
+            return geracao != dono.ultima.get();
+        }
+
+        private void encerrar() {
+            synchronized (dono) {
+                if (dono.emAndamento != null) {
+                    try {
+                        dono.emAndamento.close();
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                    dono.emAndamento = null;
+                }
+            }
+            if (conexao != null) {
+                try {
+                    conexao.close();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private final Callable<Connection> conexoes;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong ultima = new AtomicLong();
+    private final AtomicLong concluidas = new AtomicLong();
+    private final AtomicLong canceladas = new AtomicLong();
+
+    private Statement emAndamento; // sentinela da consulta rodando; guardado por this
+
+    public ExecutorBusca(String nome) {
+        this(nome, DatabaseConnector::conectar);
+    }
+
+    public ExecutorBusca(String nome, Callable<Connection> conexoes) {
+        this.conexoes = conexoes;
+        // Uma thread só, que morre quando a tela fica ociosa
+        this.executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "busca-" + nome);
+            t.setDaemon(true);
+            return t;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public void buscar(Consulta<T> consulta, Consumer<? super T> aoConcluir) {
+        buscar(consulta, aoConcluir, Throwable::printStackTrace);
+    }
+
+    /** {@code aoConcluir} e {@code aoFalhar} rodam na EDT e só para a busca mais recente. */
+    public void buscar(Consulta<T> consulta, Consumer<? super T> aoConcluir, Consumer<Exception> aoFalhar) {
+        long geracao = ultima.incrementAndGet();
+        synchronized (this) {
+            if (emAndamento != null) {
+                try {
+                    emAndamento.cancel();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+        executor.execute(() -> executar(new Execucao(this, geracao), consulta, aoConcluir, aoFalhar));
+    }
+
+    /** Buscas que terminaram e foram publicadas na tela. */
+    public long getConcluidas() {
+        return concluidas.get();
+    }
+
+    /** Buscas superadas: descartadas na fila, interrompidas ou com resultado ignorado. */
+    public long getCanceladas() {
+        return canceladas.get();
+    }
+
+    private void executar(Execucao execucao, Consulta<T> consulta,
+                          Consumer<? super T> aoConcluir, Consumer<Exception> aoFalhar) {
+        if (execucao.cancelada()) {
+            canceladas.incrementAndGet();
+            return;
+        }
+
+        T resultado;
+        try {
+            resultado = consulta.executar(execucao);
+        } catch (Exception e) {
+            if (execucao.cancelada()) {
+                canceladas.incrementAndGet(); // interrompida por uma busca mais nova
+            } else {
+                SwingUtilities.invokeLater(() -> {
+                    if (!execucao.cancelada()) aoFalhar.accept(e);
+                });
+            }
+            return;
+        } finally {
+            execucao.encerrar();
+        }
+
+        SwingUtilities.invokeLater(() -> {
+            if (execucao.cancelada()) {
+                canceladas.incrementAndGet();
+                return;
+            }
+            concluidas.incrementAndGet();
+            aoConcluir.accept(resultado);
+        });
+    }
+}
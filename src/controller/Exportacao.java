@@ -0,0 +1,170 @@
+package controller;
+
+import java.awt.Component;
+import java.io.File;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+
+/**
+ * Uma exportação enviada ao {@link GerenciadorExportacoes}: estado, linhas já
+ * escritas e cancelamento. O progresso é contado a cada linha lida da fonte.
+ */
+public class Exportacao {
+
+    public enum Estado {
+        NA_FILA("Na fila"),
+        EXPORTANDO("Exportando"),
+        CONCLUIDA("Concluída"),
+        CANCELADA("Cancelada"),
+        FALHOU("Falhou");
+
+        private final String descricao;
+
+        Estado(String descricao) {
+            this.descricao = descricao;
+        }
+
+        @Override
+        public String toString() {
+            return descricao;
+        }
+    }
+
+    private final int id;
+    private final String descricao;
+    private final File arquivo;
+    private final long totalEstimado;
+    private final AtomicLong linhas = new AtomicLong();
+    private final List<Consumer<Exportacao>> aoTerminar = new ArrayList<>();
+
+    private volatile Estado estado = Estado.NA_FILA;
+    private volatile boolean cancelamentoPedido;
+    private volatile Exception erro;
+
+    Exportacao(int id, String descricao, File arquivo, long totalEstimado) {
+        this.id = id;
+        this.descricao = descricao;
+        this.arquivo = arquivo;
+        this.totalEstimado = totalEstimado;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public File getArquivo() {
+        return arquivo;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    public long getLinhas() {
+        return linhas.get();
+    }
+
+    public Exception getErro() {
+        return erro;
+    }
+
+    public boolean terminada() {
+        Estado atual = estado;
+        return atual != Estado.NA_FILA && atual != Estado.EXPORTANDO;
+    }
+
+    /** 0 a 100, ou -1 quando não se sabe quantas linhas virão. */
+    public int getProgresso() {
+        if (estado == Estado.CONCLUIDA) return 100;
+        if (totalEstimado <= 0) return -1;
+        // a estimativa pode ficar curta se os dados mudaram depois dela
+        return (int) Math.min(99, linhas.get() * 100 / totalEstimado);
+    }
+
+    /**
+     * Na fila, passa a cancelada na hora e nem começa; em andamento, para na
+     * próxima linha e o arquivo parcial é apagado.
+     */
+    public void cancelar() {
+        synchronized (aoTerminar) {
+            cancelamentoPedido = true;
+            if (estado == Estado.NA_FILA) terminar(Estado.CANCELADA, null);
+        }
+    }
+
+    public boolean isCancelamentoPedido() {
+        return cancelamentoPedido;
+    }
+
+    /** Roda na EDT quando a exportação termina (na hora, se já terminou). */
+    public void aoTerminar(Consumer<Exportacao> acao) {
+        synchronized (aoTerminar) {
+            if (!terminada()) {
+                aoTerminar.add(acao);
+                return;
+            }
+        }
+        SwingUtilities.invokeLater(() -> acao.accept(this));
+    }
+
+    /** Mensagem de sucesso ou erro ao final, como as telas de relatório sempre mostraram; cancelada não avisa. */
+    public void avisarAoTerminar(Component parent, String msgSucesso, String msgErro) {
+        aoTerminar(exportacao -> {
+            if (exportacao.getEstado() == Estado.CONCLUIDA) {
+                JOptionPane.showMessageDialog(parent, msgSucesso);
+            } else if (exportacao.getEstado() == Estado.FALHOU) {
+                Exception erro = exportacao.getErro();
+                String detalhe = erro.getMessage() != null ? erro.getMessage() : erro.getClass().getSimpleName();
+                JOptionPane.showMessageDialog(parent, msgErro + "\n" + detalhe);
+            }
+        });
+    }
+
+    /** false se foi cancelada enquanto esperava na fila. */
+    boolean iniciar() {
+        synchronized (aoTerminar) {
+            if (estado != Estado.NA_FILA) return false;
+            estado = Estado.EXPORTANDO;
+            return true;
+        }
+    }
+
+    void terminar(Estado estadoFinal, Exception erro) {
+        List<Consumer<Exportacao>> acoes;
+        synchronized (aoTerminar) {
+            this.erro = erro;
+            this.estado = estadoFinal;
+            acoes = new ArrayList<>(aoTerminar);
+            aoTerminar.clear();
+        }
+        if (!acoes.isEmpty()) {
+            SwingUtilities.invokeLater(() -> acoes.forEach(acao -> acao.accept(this)));
+        }
+    }
+
+    /** Conta as linhas lidas e interrompe a leitura quando o cancelamento é pedido. */
+    FonteLinhas monitorar(FonteLinhas fonte) {
+        return new FonteLinhas() {
+            @Override public String[] colunas() { return fonte.colunas(); }
+            @Override public Object valor(int coluna) throws Exception { return fonte.valor(coluna); }
+            @Override public void close() throws SQLException { fonte.close(); }
+            @Override public boolean proxima() throws Exception {
+                if (cancelamentoPedido) throw new CancellationException("Exportação cancelada.");
+                if (!fonte.proxima()) return false;
+                linhas.incrementAndGet();
+                return true;
+            }
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package controller;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import javax.swing.table.TableModel;
+
+/**
+ * Linhas de um relatório lidas uma a uma, para os exportadores não precisarem
+ * de tudo em memória. Os valores vêm tipados (número, texto, data) quando a
+ * origem permite.
+ */
+public interface FonteLinhas extends AutoCloseable {
+
+    String[] colunas();
+
+    /** Avança para a próxima linha; false no fim. */
+    boolean proxima() throws Exception;
+
+    /** Valor da coluna (0-based) na linha atual. */
+    Object valor(int coluna) throws Exception;
+
+    @Override
+    default void close() throws SQLException {
+    }
+
+    @FunctionalInterface
+    interface Parametros {
+        void vincular(PreparedStatement stmt) throws SQLException;
+    }
+
+    /** Percorre o ResultSet (que continua sendo do chamador); cabeçalhos dos rótulos do SELECT. */
+    static FonteLinhas de(ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        String[] colunas = new String[meta.getColumnCount()];
+        for (int i = 0; i < colunas.length; i++) colunas[i] = meta.getColumnLabel(i + 1);
+        return de(rs, colunas);
+    }
+
+    static FonteLinhas de(ResultSet rs, String[] colunas) {
+        return new FonteLinhas() {
+            @Override public String[] colunas() { return colunas; }
+            @Override public boolean proxima() throws SQLException { return rs.next(); }
+            @Override public Object valor(int coluna) throws SQLException { return rs.getObject(coluna + 1); }
+        };
+    }
+
+    /** Executa a consulta numa conexão própria; conexão, statement e ResultSet são fechados no close(). */
+    static FonteLinhas daConsulta(Callable<Connection> conexoes, String sql, Parametros parametros,
+                                  String[] colunas) throws Exception {
+        Connection conn = conexoes.call();
+        try {
+            PreparedStatement stmt = conn.prepareStatement(sql);
+            parametros.vincular(stmt);
+            ResultSet rs = stmt.executeQuery();
+            return new FonteLinhas() {
+                @Override public String[] colunas() { return colunas; }
+                @Override public boolean proxima() throws SQLException { return rs.next(); }
+                @Override public Object valor(int coluna) throws SQLException { return rs.getObject(coluna + 1); }
+                @Override public void close() throws SQLException {
+                    if (conn.isClosed()) return;
+                    try {
+                        rs.close();
+                        stmt.close();
+                    } finally {
+                        conn.close();
+                    }
+                }
+            };
+        } catch (Exception e) {
+            conn.close();
+            throw e;
+        }
+    }
+
+    static FonteLinhas de(String[] colunas, Iterator<Object[]> linhas) {
+        return new FonteLinhas() {
+            private Object[] atual;
+            @Override public String[] colunas() { return colunas; }
+            @Override public boolean proxima() {
+                atual = linhas.hasNext() ? linhas.next() : null;
+                return atual != null;
+            }
+            @Override public Object valor(int coluna) { return atual[coluna]; }
+        };
+    }
+
+    static FonteLinhas de(TableModel modelo) {
+        String[] colunas = new String[modelo.getColumnCount()];
+        for (int i = 0; i < colunas.length; i++) colunas[i] = modelo.getColumnName(i);
+        return new FonteLinhas() {
+            private int linha = -1;
+            @Override public String[] colunas() { return colunas; }
+            @Override public boolean proxima() { return ++linha < modelo.getRowCount(); }
+            @Override public Object valor(int coluna) { return modelo.getValueAt(linha, coluna); }
+        };
+    }
+
+    /** Cópia das linhas do modelo, para exportar fora da EDT; chamar na EDT. */
+    static FonteLinhas copia(TableModel modelo) {
+        String[] colunas = new String[modelo.getColumnCount()];
+        for (int i = 0; i < colunas.length; i++) colunas[i] = modelo.getColumnName(i);
+        List<Object[]> linhas = new ArrayList<>(modelo.getRowCount());
+        for (int linha = 0; linha < modelo.getRowCount(); linha++) {
+            Object[] valores = new Object[colunas.length];
+            for (int col = 0; col < colunas.length; col++) valores[col] = modelo.getValueAt(linha, col);
+            linhas.add(valores);
+        }
+        return de(colunas, linhas.iterator());
+    }
+}
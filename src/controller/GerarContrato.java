@@ -1,23 +1,26 @@
 package controller;
 
-import org.apache.poi.xwpf.usermodel.*;
 import javax.swing.*;
 import java.awt.Component;
 import java.io.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.Map;
 
+import diagnostico.EventosHotel;
+
 public class GerarContrato {
 
+    public static final String MODELO_RESERVA = "modelos/modelo_reserva.docx";
+
+    private static final DateTimeFormatter FRIENDLY = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
     // Recebe o componente pai para o diálogo
     public static void gerarComDialogo(Component parent, String caminhoModelo, Map<String, String> dados) {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Salvar Contrato");
-        String id = dados.getOrDefault("{{reserva_id}}", "0");
-        String ano = dados.getOrDefault("{{ano}}", "0000");
-        String nome = dados.getOrDefault("{{nome}}", "nome").replaceAll("[^a-zA-Z0-9]", "_"); // limpa caracteres problemáticos
-
-        String nomeArquivo = String.format("Termo %s %s %s.docx", id, ano, nome);
-        fileChooser.setSelectedFile(new File(nomeArquivo));
+        fileChooser.setSelectedFile(new File(nomeArquivo(dados)));
 
         // Passa o parent no lugar do null
         int userSelection = fileChooser.showSaveDialog(parent);
@@ -25,70 +28,79 @@ public class GerarContrato {
         if (userSelection == JFileChooser.APPROVE_OPTION) {
             File arquivoDestino = fileChooser.getSelectedFile();
 
-            try (FileInputStream fis = new FileInputStream(caminhoModelo);
-                 XWPFDocument document = new XWPFDocument(fis)) {
-
-                for (XWPFParagraph p : document.getParagraphs()) {
-                    substituirTexto(p, dados);
-                    aplicarFonte(p); // aplica Lato 12
+            // Monta e grava fora da EDT; o atendente já pode seguir para o próximo check-in
+            new SwingWorker<Void, Void>() {
+                @Override
+                protected Void doInBackground() throws Exception {
+                    gerar(caminhoModelo, dados, arquivoDestino);
+                    return null;
                 }
 
-                for (XWPFTable table : document.getTables()) {
-                    for (XWPFTableRow row : table.getRows()) {
-                        for (XWPFTableCell cell : row.getTableCells()) {
-                            for (XWPFParagraph p : cell.getParagraphs()) {
-                                substituirTexto(p, dados);
-                                aplicarFonte(p); // aplica Lato 12
-                            }
-                        }
+                @Override
+                protected void done() {
+                    try {
+                        get();
+                        JOptionPane.showMessageDialog(parent, "Contrato salvo com sucesso em:\n" + arquivoDestino.getAbsolutePath());
+                    } catch (Exception e) {
+                        Throwable causa = e.getCause() != null ? e.getCause() : e;
+                        causa.printStackTrace();
+                        JOptionPane.showMessageDialog(parent, "Erro ao gerar contrato:\n" + causa.getMessage());
                     }
                 }
-
-                try (FileOutputStream fos = new FileOutputStream(arquivoDestino)) {
-                    document.write(fos);
-                }
-
-                JOptionPane.showMessageDialog(parent, "Contrato salvo com sucesso em:\n" + arquivoDestino.getAbsolutePath());
-
-            } catch (Exception e) {
-                e.printStackTrace();
-                JOptionPane.showMessageDialog(parent, "Erro ao gerar contrato:\n" + e.getMessage());
-            }
+            }.execute();
         } else {
             System.out.println("Usuário cancelou o salvamento.");
         }
     }
 
-    private static void substituirTexto(XWPFParagraph paragraph, Map<String, String> dados) {
-        StringBuilder paragraphText = new StringBuilder();
-        for (XWPFRun run : paragraph.getRuns()) {
-            String texto = run.getText(0);
-            if (texto != null) {
-                paragraphText.append(texto);
-            }
-        }
-
-        String textoCompleto = paragraphText.toString();
-        String textoModificado = textoCompleto;
-
-        for (Map.Entry<String, String> entry : dados.entrySet()) {
-            textoModificado = textoModificado.replace(entry.getKey(), entry.getValue());
+    /** Preenche o modelo (compilado uma vez e mantido em cache, ver {@link ModeloContrato}) e grava em destino. */
+    public static void gerar(String caminhoModelo, Map<String, String> dados, File destino) throws IOException {
+        EventosHotel.Contrato evento = new EventosHotel.Contrato();
+        evento.begin();
+        evento.modelo = caminhoModelo;
+        evento.destino = destino.getName();
+        try {
+            evento.hospedagemId = Integer.parseInt(dados.getOrDefault("{{reserva_id}}", "0"));
+        } catch (NumberFormatException e) {
+            // id fora do padrão: o evento fica sem ele
         }
-
-        if (!textoCompleto.equals(textoModificado)) {
-            int runsCount = paragraph.getRuns().size();
-            for (int i = runsCount - 1; i >= 0; i--) {
-                paragraph.removeRun(i);
+        try {
+            ModeloContrato modelo = ModeloContrato.carregar(caminhoModelo);
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(destino), 64 * 1024)) {
+                modelo.gerar(dados, out);
             }
-            XWPFRun novoRun = paragraph.createRun();
-            novoRun.setText(textoModificado);
+            evento.contratos = 1;
+            evento.sucesso = true;
+        } finally {
+            evento.commit();
         }
     }
 
-    private static void aplicarFonte(XWPFParagraph paragraph) {
-        for (XWPFRun run : paragraph.getRuns()) {
-            run.setFontFamily("Lato");
-            run.setFontSize(12);
-        }
+    /**
+     * Valores dos placeholders do modelo de reserva. O ano do termo é o da entrada,
+     * para o check-in e o lote gerarem o mesmo contrato (e o mesmo nome de arquivo).
+     */
+    public static Map<String, String> dadosContrato(int idHospedagem, String nome, String documento,
+                                                    String telefone, String email, LocalDate entrada,
+                                                    LocalDate saida, String numeroQuarto) {
+        Map<String, String> dados = new HashMap<>();
+        dados.put("{{reserva_id}}", String.valueOf(idHospedagem));
+        dados.put("{{ano}}", String.valueOf(entrada.getYear()));
+        dados.put("{{nome}}", nome);
+        dados.put("{{documento}}", documento);
+        dados.put("{{telefone}}", telefone);
+        dados.put("{{email}}", email);
+        dados.put("{{data_entrada}}", FRIENDLY.format(entrada));
+        dados.put("{{data_saida}}", FRIENDLY.format(saida));
+        dados.put("{{quarto}}", numeroQuarto);
+        return dados;
+    }
+
+    /** "Termo &lt;id&gt; &lt;ano&gt; &lt;nome&gt;.docx", o mesmo nome para o mesmo contrato. */
+    public static String nomeArquivo(Map<String, String> dados) {
+        String id = dados.getOrDefault("{{reserva_id}}", "0");
+        String ano = dados.getOrDefault("{{ano}}", "0000");
+        String nome = dados.getOrDefault("{{nome}}", "nome").replaceAll("[^a-zA-Z0-9]", "_"); // limpa caracteres problemáticos
+        return String.format("Termo %s %s %s.docx", id, ano, nome);
     }
 }
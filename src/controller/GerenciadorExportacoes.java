@@ -0,0 +1,131 @@
+package controller;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Fila das exportações de relatórios (Excel/PDF), fora da EDT. No máximo
+ * {@value #MAX_SIMULTANEAS} rodam ao mesmo tempo; as demais esperam na fila, e o
+ * balcão continua usando o sistema enquanto isso.
+ */
+public class GerenciadorExportacoes {
+
+    public static final int MAX_SIMULTANEAS = 2;
+
+    public static final GerenciadorExportacoes INSTANCIA = new GerenciadorExportacoes(MAX_SIMULTANEAS);
+
+    /** De onde vêm as linhas; chamado já na thread da exportação. */
+    @FunctionalInterface
+    public interface Origem {
+        FonteLinhas abrir() throws Exception;
+    }
+
+    /** O exportador em si, por exemplo {@code ExcelExporter::escrever}. */
+    @FunctionalInterface
+    public interface Destino {
+        long escrever(FonteLinhas fonte, File arquivo) throws Exception;
+    }
+
+    private final ExecutorService executor;
+    private final AtomicInteger proximoId = new AtomicInteger(1);
+    private final List<Exportacao> exportacoes = new CopyOnWriteArrayList<>();
+    private final List<Runnable> ouvintes = new CopyOnWriteArrayList<>();
+
+    public GerenciadorExportacoes(int maxSimultaneas) {
+        AtomicInteger threads = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(maxSimultaneas, maxSimultaneas, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "exportacao-" + threads.incrementAndGet());
+                    t.setDaemon(true);
+                    t.setPriority(Thread.NORM_PRIORITY - 1); // não disputa CPU com a tela
+                    return t;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+    }
+
+    public Exportacao enviar(String descricao, File arquivo, Origem origem, Destino destino) {
+        return enviar(descricao, arquivo, -1, origem, destino);
+    }
+
+    /** {@code totalEstimado} (linhas) só serve para a porcentagem; -1 se não se sabe. */
+    public Exportacao enviar(String descricao, File arquivo, long totalEstimado, Origem origem, Destino destino) {
+        Exportacao exportacao = new Exportacao(proximoId.getAndIncrement(), descricao, arquivo, totalEstimado);
+        exportacoes.add(exportacao);
+        notificar();
+        executor.execute(() -> executar(exportacao, origem, destino));
+        return exportacao;
+    }
+
+    public List<Exportacao> getExportacoes() {
+        return new ArrayList<>(exportacoes);
+    }
+
+    public int getEmAndamento() {
+        int total = 0;
+        for (Exportacao exportacao : exportacoes) {
+            if (!exportacao.terminada()) total++;
+        }
+        return total;
+    }
+
+    /** Ver {@link Exportacao#cancelar()}; avisa os ouvintes, já que uma da fila termina na hora. */
+    public void cancelar(Exportacao exportacao) {
+        exportacao.cancelar();
+        notificar();
+    }
+
+    public void limparTerminadas() {
+        exportacoes.removeIf(Exportacao::terminada);
+        notificar();
+    }
+
+    /** Avisado na EDT sempre que uma exportação entra, começa ou termina. */
+    public void addOuvinte(Runnable ouvinte) {
+        ouvintes.add(ouvinte);
+    }
+
+    public void removeOuvinte(Runnable ouvinte) {
+        ouvintes.remove(ouvinte);
+    }
+
+    private void executar(Exportacao exportacao, Origem origem, Destino destino) {
+        if (!exportacao.iniciar()) {
+            notificar();
+            return;
+        }
+        notificar();
+
+        File arquivo = exportacao.getArquivo();
+        try (FonteLinhas fonte = exportacao.monitorar(origem.abrir())) {
+            destino.escrever(fonte, arquivo);
+        } catch (Exception e) {
+            arquivo.delete(); // não deixa arquivo pela metade
+            if (e instanceof CancellationException || exportacao.isCancelamentoPedido()) {
+                exportacao.terminar(Exportacao.Estado.CANCELADA, null);
+            } else {
+                e.printStackTrace();
+                exportacao.terminar(Exportacao.Estado.FALHOU, e);
+            }
+            notificar();
+            return;
+        }
+        // só depois do close(): uma falha ao fechar a fonte ainda conta como erro
+        exportacao.terminar(Exportacao.Estado.CONCLUIDA, null);
+        notificar();
+    }
+
+    private void notificar() {
+        SwingUtilities.invokeLater(() -> ouvintes.forEach(Runnable::run));
+    }
+}
@@ -0,0 +1,197 @@
+package controller;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import diagnostico.EventosHotel;
+
+/**
+ * Contratos de várias hospedagens de uma vez (grupo que chega junto, todas as
+ * entradas de um período). Todos saem do mesmo {@link ModeloContrato} compilado;
+ * a montagem roda em paralelo e a gravação (pasta ou um .zip só) segue a ordem
+ * das hospedagens, com o nome de sempre: "Termo &lt;id&gt; &lt;ano&gt; &lt;nome&gt;.docx".
+ *
+ * As linhas vêm de uma {@link FonteLinhas} com as colunas de {@link #COLUNAS},
+ * então o lote pode rodar no {@link GerenciadorExportacoes} com progresso e cancelamento.
+ */
+public class LoteContratos {
+
+    public static final String[] COLUNAS = {"Hospedagem", "Nome", "Documento", "Telefone", "Email",
+                                            "Data Entrada", "Data Saída", "Quarto"};
+
+    private static final String SELECT =
+            "SELECT hos.id, h.nome, h.documento, h.telefone, h.email, hos.data_entrada, hos.data_saida, c.quarto_numero " +
+            "FROM hospedagem hos " +
+            "JOIN hospede h ON h.id = hos.hospede_id " +
+            "JOIN cama c ON c.id = hos.cama_id ";
+
+    public static FonteLinhas porIds(Callable<Connection> conexoes, List<Integer> ids) throws Exception {
+        String lista = ids.stream().map(String::valueOf).collect(Collectors.joining(",", "[", "]"));
+        return FonteLinhas.daConsulta(conexoes,
+                SELECT + "WHERE hos.id IN (SELECT value FROM json_each(?)) ORDER BY hos.id",
+                stmt -> stmt.setString(1, lista), COLUNAS);
+    }
+
+    /** Hospedagens com entrada no período (inclusive). */
+    public static FonteLinhas porPeriodo(Callable<Connection> conexoes, LocalDate inicio, LocalDate fim) throws Exception {
+        return FonteLinhas.daConsulta(conexoes,
+                SELECT + "WHERE hos.data_entrada BETWEEN ? AND ? ORDER BY hos.id",
+                stmt -> {
+                    stmt.setString(1, inicio.toString());
+                    stmt.setString(2, fim.toString());
+                }, COLUNAS);
+    }
+
+    /** Um .docx por hospedagem dentro de {@code pasta}; retorna quantos foram gerados. */
+    public static long gerarEmPasta(String caminhoModelo, FonteLinhas fonte, File pasta) throws Exception {
+        EventosHotel.Contrato evento = eventoLote(caminhoModelo, pasta);
+        try {
+            if (!pasta.isDirectory() && !pasta.mkdirs()) throw new IOException("Não foi possível criar a pasta " + pasta);
+            ModeloContrato modelo = ModeloContrato.carregar(caminhoModelo);
+            evento.contratos = processar(fonte, dados -> {
+                File arquivo = new File(pasta, GerarContrato.nomeArquivo(dados));
+                try (OutputStream out = new BufferedOutputStream(new FileOutputStream(arquivo), 64 * 1024)) {
+                    modelo.gerar(dados, out);
+                }
+                return null;
+            }, resultado -> { });
+            evento.sucesso = true;
+            return evento.contratos;
+        } finally {
+            evento.commit();
+        }
+    }
+
+    public static long gerarZip(String caminhoModelo, FonteLinhas fonte, File arquivo) throws Exception {
+        EventosHotel.Contrato evento = eventoLote(caminhoModelo, arquivo);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(arquivo), 256 * 1024)) {
+            evento.contratos = gerarZip(caminhoModelo, fonte, out);
+            evento.sucesso = true;
+            return evento.contratos;
+        } finally {
+            evento.commit();
+        }
+    }
+
+    private static EventosHotel.Contrato eventoLote(String caminhoModelo, File destino) {
+        EventosHotel.Contrato evento = new EventosHotel.Contrato();
+        evento.begin();
+        evento.modelo = caminhoModelo;
+        evento.destino = destino.getName();
+        return evento;
+    }
+
+    /**
+     * Todos os contratos num .zip escrito à medida que ficam prontos. Os .docx já
+     * vêm comprimidos, então entram sem nova compressão.
+     */
+    public static long gerarZip(String caminhoModelo, FonteLinhas fonte, OutputStream destino) throws Exception {
+        ModeloContrato modelo = ModeloContrato.carregar(caminhoModelo);
+        ZipOutputStream zip = new ZipOutputStream(destino);
+        long total = processar(fonte, dados -> {
+            ByteArrayOutputStream docx = new ByteArrayOutputStream(4 * 1024 * 1024);
+            modelo.gerar(dados, docx);
+            return new Contrato(GerarContrato.nomeArquivo(dados), docx.toByteArray());
+        }, contrato -> {
+            CRC32 crc = new CRC32();
+            crc.update(contrato.bytes());
+            ZipEntry entrada = new ZipEntry(contrato.nome());
+            entrada.setMethod(ZipEntry.STORED);
+            entrada.setSize(contrato.bytes().length);
+            entrada.setCrc(crc.getValue());
+            zip.putNextEntry(entrada);
+            zip.write(contrato.bytes());
+            zip.closeEntry();
+        });
+        zip.finish();
+        return total;
+    }
+
+    private record Contrato(String nome, byte[] bytes) {}
+
+    @FunctionalInterface
+    private interface Montagem<T> {
+        T montar(Map<String, String> dados) throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface Gravacao<T> {
+        void gravar(T resultado) throws Exception;
+    }
+
+    // Lê as linhas nesta thread, monta em paralelo e grava na ordem de leitura;
+    // no máximo 2 contratos por thread ficam prontos esperando a gravação
+    private static <T> long processar(FonteLinhas fonte, Montagem<T> montagem, Gravacao<T> gravacao) throws Exception {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+        AtomicInteger numero = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "contratos-" + numero.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        ArrayDeque<Future<T>> pendentes = new ArrayDeque<>();
+        long total = 0;
+        try {
+            while (fonte.proxima()) {
+                Map<String, String> dados = dados(fonte);
+                pendentes.add(pool.submit(() -> montagem.montar(dados)));
+                if (pendentes.size() >= 2 * threads) {
+                    gravacao.gravar(aguardar(pendentes.poll()));
+                    total++;
+                }
+            }
+            while (!pendentes.isEmpty()) {
+                gravacao.gravar(aguardar(pendentes.poll()));
+                total++;
+            }
+            return total;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static <T> T aguardar(Future<T> futuro) throws Exception {
+        try {
+            return futuro.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception causa ? causa : e;
+        }
+    }
+
+    private static Map<String, String> dados(FonteLinhas fonte) throws Exception {
+        LocalDate entrada = LocalDate.parse(String.valueOf(fonte.valor(5)));
+        LocalDate saida = LocalDate.parse(String.valueOf(fonte.valor(6)));
+        return GerarContrato.dadosContrato(
+                ((Number) fonte.valor(0)).intValue(),
+                texto(fonte.valor(1)),
+                texto(fonte.valor(2)),
+                texto(fonte.valor(3)),
+                texto(fonte.valor(4)),
+                entrada,
+                saida,
+                texto(fonte.valor(7)));
+    }
+
+    private static String texto(Object valor) {
+        return valor != null ? valor.toString() : "";
+    }
+}
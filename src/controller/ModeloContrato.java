@@ -0,0 +1,303 @@
+package controller;
+
+import org.apache.poi.xwpf.usermodel.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Modelo de contrato (.docx) "compilado": o modelo é lido pelo POI uma vez só,
+ * já com a fonte aplicada e com cada {{placeholder}} inteiro num único run (mesmo
+ * que no Word ele tenha ficado partido em vários). O word/document.xml vira uma
+ * lista de trechos fixos entre placeholders, e as demais partes do pacote
+ * (fontes embutidas, imagens, estilos) ficam guardadas já comprimidas, com o
+ * trecho do zip pronto.
+ *
+ * Gerar um contrato é então só juntar os trechos com os valores, comprimir o
+ * document.xml (~30 KB) e copiar o resto byte a byte. O modelo compilado fica em
+ * cache pelo caminho e é refeito se o arquivo mudar (data de modificação ou tamanho).
+ */
+public final class ModeloContrato {
+
+    // "troca" cada placeholder por ele mesmo: só junta os que o Word partiu em vários runs
+    private static final Function<String, String> MANTER_TOKEN = Function.identity();
+    private static final String DOCUMENTO = "word/document.xml";
+
+    private static final Map<Path, ModeloContrato> CACHE = new ConcurrentHashMap<>();
+
+    private final long modificadoEm;
+    private final long tamanho;
+
+    // document.xml: fixos[0] placeholders[0] fixos[1] ... fixos[n]
+    private final byte[][] fixos;
+    private final String[] placeholders;
+
+    // Demais partes: cabeçalhos locais + dados comprimidos, e as entradas do diretório central
+    private final byte[] partesLocais;
+    private final byte[] partesCentrais;
+    private final int totalPartes;
+
+    private ModeloContrato(long modificadoEm, long tamanho, byte[][] fixos, String[] placeholders,
+                           byte[] partesLocais, byte[] partesCentrais, int totalPartes) {
+        this.modificadoEm = modificadoEm;
+        this.tamanho = tamanho;
+        this.fixos = fixos;
+        this.placeholders = placeholders;
+        this.partesLocais = partesLocais;
+        this.partesCentrais = partesCentrais;
+        this.totalPartes = totalPartes;
+    }
+
+    /** Modelo compilado do cache, recompilando se o arquivo mudou desde a última vez. */
+    public static ModeloContrato carregar(String caminhoModelo) throws IOException {
+        Path caminho = Paths.get(caminhoModelo).toAbsolutePath().normalize();
+        BasicFileAttributes atributos = Files.readAttributes(caminho, BasicFileAttributes.class);
+        long modificadoEm = atributos.lastModifiedTime().toMillis();
+        long tamanho = atributos.size();
+
+        ModeloContrato modelo = CACHE.get(caminho);
+        if (modelo == null || modelo.modificadoEm != modificadoEm || modelo.tamanho != tamanho) {
+            modelo = compilar(caminho, modificadoEm, tamanho);
+            CACHE.put(caminho, modelo);
+        }
+        return modelo;
+    }
+
+    /** Compila em segundo plano, para o primeiro contrato do dia não pagar a leitura do modelo. */
+    public static void precarregar(String caminhoModelo) {
+        Thread t = new Thread(() -> {
+            try {
+                carregar(caminhoModelo);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, "carga-modelo-contrato");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /** Placeholders encontrados no modelo, na ordem em que aparecem. */
+    public Set<String> getPlaceholders() {
+        return new LinkedHashSet<>(List.of(placeholders));
+    }
+
+    /**
+     * Escreve o contrato preenchido. As chaves de {@code dados} incluem as chaves,
+     * como "{{nome}}"; placeholder fora do mapa fica como está no modelo e chave
+     * presente com valor null sai vazia.
+     */
+    public void gerar(Map<String, String> dados, OutputStream out) throws IOException {
+        ByteArrayOutputStream xml = new ByteArrayOutputStream(64 * 1024);
+        for (int i = 0; i < placeholders.length; i++) {
+            xml.write(fixos[i]);
+            String valor = dados.containsKey(placeholders[i])
+                    ? escaparXml(Objects.requireNonNullElse(dados.get(placeholders[i]), ""))
+                    : placeholders[i];
+            xml.write(valor.getBytes(StandardCharsets.UTF_8));
+        }
+        xml.write(fixos[fixos.length - 1]);
+
+        ParteZip documento = ParteZip.comprimir(DOCUMENTO, xml.toByteArray());
+
+        out.write(partesLocais);
+        documento.escreverLocal(out);
+        long inicioCentral = partesLocais.length + documento.tamanhoLocal();
+        out.write(partesCentrais);
+        int tamanhoCentral = partesCentrais.length + documento.escreverCentral(out, partesLocais.length);
+        escreverFimDiretorio(out, totalPartes + 1, tamanhoCentral, inicioCentral);
+        out.flush();
+    }
+
+    private static ModeloContrato compilar(Path caminho, long modificadoEm, long tamanho) throws IOException {
+        // 1) o que o GerarContrato sempre fez com o modelo, exceto trocar os valores
+        ByteArrayOutputStream normalizado = new ByteArrayOutputStream();
+        try (FileInputStream fis = new FileInputStream(caminho.toFile());
+             XWPFDocument document = new XWPFDocument(fis)) {
+            for (XWPFParagraph p : document.getParagraphs()) {
+                SubstituidorPlaceholders.substituir(p, MANTER_TOKEN);
+                aplicarFonte(p);
+            }
+            for (XWPFTable table : document.getTables()) {
+                for (XWPFTableRow row : table.getRows()) {
+                    for (XWPFTableCell cell : row.getTableCells()) {
+                        for (XWPFParagraph p : cell.getParagraphs()) {
+                            SubstituidorPlaceholders.substituir(p, MANTER_TOKEN);
+                            aplicarFonte(p);
+                        }
+                    }
+                }
+            }
+            document.write(normalizado);
+        }
+
+        // 2) separa o document.xml nos placeholders e deixa o resto pronto para copiar
+        byte[][] fixos = null;
+        String[] placeholders = null;
+        ByteArrayOutputStream locais = new ByteArrayOutputStream();
+        ByteArrayOutputStream centrais = new ByteArrayOutputStream();
+        int totalPartes = 0;
+
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(normalizado.toByteArray()))) {
+            for (ZipEntry entrada; (entrada = zip.getNextEntry()) != null; ) {
+                byte[] conteudo = zip.readAllBytes();
+                if (DOCUMENTO.equals(entrada.getName())) {
+                    SubstituidorPlaceholders.Compilado xml =
+                            SubstituidorPlaceholders.compilar(new String(conteudo, StandardCharsets.UTF_8));
+                    fixos = new byte[xml.fixos().length][];
+                    for (int i = 0; i < fixos.length; i++) {
+                        fixos[i] = xml.fixos()[i].getBytes(StandardCharsets.UTF_8);
+                    }
+                    placeholders = xml.tokens();
+                } else {
+                    ParteZip parte = ParteZip.comprimir(entrada.getName(), conteudo);
+                    int deslocamento = locais.size();
+                    parte.escreverLocal(locais);
+                    parte.escreverCentral(centrais, deslocamento);
+                    totalPartes++;
+                }
+            }
+        }
+        if (fixos == null) throw new IOException("Modelo sem " + DOCUMENTO + ": " + caminho);
+
+        return new ModeloContrato(modificadoEm, tamanho, fixos, placeholders,
+                locais.toByteArray(), centrais.toByteArray(), totalPartes);
+    }
+
+    private static void aplicarFonte(XWPFParagraph paragraph) {
+        for (XWPFRun run : paragraph.getRuns()) {
+            run.setFontFamily("Lato");
+            run.setFontSize(12);
+        }
+    }
+
+    private static String escaparXml(String valor) {
+        StringBuilder sb = null;
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            String troca = switch (c) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                default -> null;
+            };
+            if (troca != null && sb == null) sb = new StringBuilder(valor.length() + 16).append(valor, 0, i);
+            if (sb != null) {
+                if (troca != null) sb.append(troca); else sb.append(c);
+            }
+        }
+        return sb != null ? sb.toString() : valor;
+    }
+
+    private static void escreverFimDiretorio(OutputStream out, int entradas, int tamanhoCentral,
+                                             long inicioCentral) throws IOException {
+        escreverInt(out, 0x06054b50);
+        escreverShort(out, 0);
+        escreverShort(out, 0);
+        escreverShort(out, entradas);
+        escreverShort(out, entradas);
+        escreverInt(out, tamanhoCentral);
+        escreverInt(out, (int) inicioCentral);
+        escreverShort(out, 0);
+    }
+
+    private static void escreverShort(OutputStream out, int v) throws IOException {
+        out.write(v & 0xff);
+        out.write((v >>> 8) & 0xff);
+    }
+
+    private static void escreverInt(OutputStream out, int v) throws IOException {
+        escreverShort(out, v);
+        escreverShort(out, v >>> 16);
+    }
+
+    /** Uma parte do pacote já comprimida, com o necessário para os cabeçalhos do zip. */
+    private record ParteZip(byte[] nome, int metodo, int crc, byte[] dados, int tamanhoOriginal) {
+
+        private static final int DATA_DOS = (1 << 5) | 1; // 01/01/1980, como o próprio Word grava
+        private static final int NOME_UTF8 = 0x0800;
+
+        static ParteZip comprimir(String nome, byte[] conteudo) {
+            CRC32 crc = new CRC32();
+            crc.update(conteudo);
+
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            deflater.setInput(conteudo);
+            deflater.finish();
+            ByteArrayOutputStream comprimido = new ByteArrayOutputStream(conteudo.length / 2 + 64);
+            byte[] buffer = new byte[16 * 1024];
+            while (!deflater.finished()) {
+                comprimido.write(buffer, 0, deflater.deflate(buffer));
+            }
+            deflater.end();
+
+            // imagens já comprimidas ficam como estão
+            boolean compensa = comprimido.size() < conteudo.length;
+            return new ParteZip(nome.getBytes(StandardCharsets.UTF_8),
+                    compensa ? ZipEntry.DEFLATED : ZipEntry.STORED, (int) crc.getValue(),
+                    compensa ? comprimido.toByteArray() : conteudo, conteudo.length);
+        }
+
+        int tamanhoLocal() {
+            return 30 + nome.length + dados.length;
+        }
+
+        void escreverLocal(OutputStream out) throws IOException {
+            escreverInt(out, 0x04034b50);
+            escreverShort(out, 20);
+            escreverShort(out, NOME_UTF8);
+            escreverShort(out, metodo);
+            escreverShort(out, 0);
+            escreverShort(out, DATA_DOS);
+            escreverInt(out, crc);
+            escreverInt(out, dados.length);
+            escreverInt(out, tamanhoOriginal);
+            escreverShort(out, nome.length);
+            escreverShort(out, 0);
+            out.write(nome);
+            out.write(dados);
+        }
+
+        /** Retorna quantos bytes escreveu. */
+        int escreverCentral(OutputStream out, int deslocamentoLocal) throws IOException {
+            escreverInt(out, 0x02014b50);
+            escreverShort(out, 20);
+            escreverShort(out, 20);
+            escreverShort(out, NOME_UTF8);
+            escreverShort(out, metodo);
+            escreverShort(out, 0);
+            escreverShort(out, DATA_DOS);
+            escreverInt(out, crc);
+            escreverInt(out, dados.length);
+            escreverInt(out, tamanhoOriginal);
+            escreverShort(out, nome.length);
+            escreverShort(out, 0);
+            escreverShort(out, 0);
+            escreverShort(out, 0);
+            escreverShort(out, 0);
+            escreverInt(out, 0);
+            escreverInt(out, deslocamentoLocal);
+            out.write(nome);
+            return 46 + nome.length;
+        }
+    }
+}
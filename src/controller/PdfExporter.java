@@ -1,79 +1,96 @@
 package controller;
 
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.Table;
-import com.itextpdf.layout.properties.HorizontalAlignment;
 import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
 import com.itextpdf.layout.element.Cell;
 import com.itextpdf.layout.element.Paragraph;
 
 
+import diagnostico.EventosHotel;
+
 import javax.swing.JTable;
-import javax.swing.table.TableModel;
 import java.io.File;
-
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Relatórios em PDF lidos linha a linha ({@link FonteLinhas}) e escritos com a
+ * tabela grande do iText: a cada {@value #LINHAS_POR_FLUSH} linhas o que já foi
+ * diagramado vai para o arquivo e sai da memória, e o cabeçalho se repete em
+ * cada página.
+ */
 public class PdfExporter {
 
-	public static boolean exportarTabelaParaPdf(JTable tabela, File arquivo, String tituloRelatorio) {
-	    try {
-	        PdfWriter writer = new PdfWriter(arquivo.getAbsolutePath());
-	        PdfDocument pdf = new PdfDocument(writer);
-	        Document document = new Document(pdf);
-
-	        TableModel model = tabela.getModel();
-
-	        // Título centralizado
-	        Paragraph titulo = new Paragraph("Relatório de Camas Vagas")
-	                .setFontSize(16)
-	                .setBold()
-	                .setTextAlignment(TextAlignment.CENTER);
-	        document.add(titulo);
-
-	        // Espaço entre título e tabela
-	        document.add(new Paragraph("\n"));
-
-	        Table table = new Table(model.getColumnCount());
+	private static final int LINHAS_POR_FLUSH = 200;
+	private static final float TAMANHO_FONTE_TABELA = 9;
 
-	        // Cabeçalhos
-	        for (int col = 0; col < model.getColumnCount(); col++) {
-	            table.addHeaderCell(new Cell().add(new Paragraph(model.getColumnName(col))));
-	        }
-
-	        // Dados
-	        for (int row = 0; row < model.getRowCount(); row++) {
-	            for (int col = 0; col < model.getColumnCount(); col++) {
-	                Object valor = model.getValueAt(row, col);
-	                table.addCell(new Cell().add(new Paragraph(valor != null ? valor.toString() : "")));
-	            }
-	        }
+	private static final DateTimeFormatter BR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
-	        // Centraliza a tabela
-	        table.setHorizontalAlignment(HorizontalAlignment.CENTER);
+	// Um PdfFont pertence ao documento em que foi usado e não pode ir para outro;
+	// o que dá para compartilhar entre exportações é o FontProgram (métricas já lidas)
+	private static volatile FontProgram fonteNormal;
+	private static volatile FontProgram fonteNegrito;
 
-	        document.add(table);
+	public static boolean exportarTabelaParaPdf(JTable tabela, File arquivo, String tituloRelatorio) {
+	    return exportar(FonteLinhas.de(tabela.getModel()), arquivo, tituloRelatorio, null, false);
+	}
 
-	        document.close();
+	public static boolean exportarTabelaParaPdfComResumoPaisagem(JTable tabela, File arquivo, String titulo, String resumo) {
+	    return exportar(FonteLinhas.de(tabela.getModel()), arquivo, titulo, resumo, true);
+	}
 
+	/** Exporta direto de uma consulta ou iterador; mostra o erro no console e retorna false se falhar. */
+	public static boolean exportar(FonteLinhas fonte, File arquivo, String titulo, String resumo, boolean paisagem) {
+	    try {
+	        escrever(fonte, arquivo, titulo, resumo, paisagem);
 	        return true;
 	    } catch (Exception e) {
 	        e.printStackTrace();
 	        return false;
 	    }
 	}
-	
-	public static boolean exportarTabelaParaPdfComResumoPaisagem(JTable tabela, File arquivo, String titulo, String resumo) {
+
+	/** Como {@link #exportar}, mas propaga o erro; retorna quantas linhas de dados foram escritas. */
+	public static long escrever(FonteLinhas fonte, File arquivo, String titulo, String resumo, boolean paisagem) throws Exception {
+	    EventosHotel.Exportacao evento = new EventosHotel.Exportacao();
+	    evento.begin();
+	    evento.formato = "pdf";
+	    evento.arquivo = arquivo.getName();
 	    try {
-	        PdfWriter writer = new PdfWriter(arquivo.getAbsolutePath());
-	        PdfDocument pdf = new PdfDocument(writer);
-	        Document document = new Document(pdf, PageSize.A4.rotate());
-	        document.setMargins(20, 20, 20, 20);
+	        evento.linhas = gravar(fonte, arquivo, titulo, resumo, paisagem);
+	        evento.bytes = arquivo.length();
+	        evento.sucesso = true;
+	        return evento.linhas;
+	    } finally {
+	        evento.commit();
+	    }
+	}
 
+	private static long gravar(FonteLinhas fonte, File arquivo, String titulo, String resumo, boolean paisagem) throws Exception {
+	    PdfDocument pdf = new PdfDocument(new PdfWriter(arquivo.getAbsolutePath()));
+	    try (fonte; Document document = new Document(pdf, paisagem ? PageSize.A4.rotate() : PageSize.A4)) {
+
+	        PdfFont normal = PdfFontFactory.createFont(programa(false), PdfEncodings.WINANSI);
+	        PdfFont negrito = PdfFontFactory.createFont(programa(true), PdfEncodings.WINANSI);
+	        document.setFont(normal);
+	        if (paisagem) document.setMargins(20, 20, 20, 20);
+
+	        // Título centralizado
 	        document.add(new Paragraph(titulo)
+	            .setFont(negrito)
 	            .setFontSize(16)
-	            .setBold()
 	            .setTextAlignment(TextAlignment.CENTER));
 
 	        if (resumo != null && !resumo.isEmpty()) {
@@ -82,31 +99,54 @@ public class PdfExporter {
 	                .setTextAlignment(TextAlignment.CENTER));
 	        }
 
+	        // Espaço entre título e tabela
 	        document.add(new Paragraph("\n"));
 
-	        TableModel model = tabela.getModel();
-	        Table table = new Table(model.getColumnCount());
+	        String[] colunas = fonte.colunas();
+	        Table table = new Table(UnitValue.createPercentArray(colunas.length), true)
+	            .useAllAvailableWidth()
+	            .setFontSize(TAMANHO_FONTE_TABELA);
 
-	        for (int col = 0; col < model.getColumnCount(); col++) {
-	            table.addHeaderCell(new Cell().add(new Paragraph(model.getColumnName(col))));
-	        }
-	        for (int row = 0; row < model.getRowCount(); row++) {
-	            for (int col = 0; col < model.getColumnCount(); col++) {
-	                Object valor = model.getValueAt(row, col);
-	                table.addCell(new Cell().add(new Paragraph(valor != null ? valor.toString() : "")));
-	            }
+	        for (String coluna : colunas) {
+	            table.addHeaderCell(new Cell().add(new Paragraph(coluna).setFont(negrito)));
 	        }
-
-	        table.setHorizontalAlignment(HorizontalAlignment.CENTER);
 	        document.add(table);
 
-	        document.close();
-	        return true;
-	    } catch (Exception e) {
-	        e.printStackTrace();
-	        return false;
+	        long total = 0;
+	        while (fonte.proxima()) {
+	            for (int col = 0; col < colunas.length; col++) {
+	                table.addCell(new Cell().add(new Paragraph(texto(fonte.valor(col)))));
+	            }
+	            if (++total % LINHAS_POR_FLUSH == 0) {
+	                table.flush();
+	            }
+	        }
+	        table.complete();
+	        return total;
 	    }
 	}
 
+	private static FontProgram programa(boolean negrito) throws IOException {
+	    FontProgram programa = negrito ? fonteNegrito : fonteNormal;
+	    if (programa == null) {
+	        programa = FontProgramFactory.createFont(negrito ? StandardFonts.HELVETICA_BOLD : StandardFonts.HELVETICA);
+	        if (negrito) fonteNegrito = programa; else fonteNormal = programa;
+	    }
+	    return programa;
+	}
 
+	// Datas do banco (yyyy-MM-dd) saem como nas telas
+	private static String texto(Object valor) {
+	    if (valor == null) return "";
+	    if (valor instanceof LocalDate data) return BR.format(data);
+	    String texto = valor.toString();
+	    if (texto.length() == 10 && texto.charAt(4) == '-' && texto.charAt(7) == '-') {
+	        try {
+	            return BR.format(LocalDate.parse(texto));
+	        } catch (Exception e) {
+	            // não é data: fica como está
+	        }
+	    }
+	    return texto;
+	}
 }
@@ -0,0 +1,191 @@
+package controller;
+
+import org.apache.poi.xwpf.usermodel.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Troca de placeholders {{nome}} numa passada só: o texto é percorrido uma vez,
+ * cada token encontrado é procurado no mapa (as chaves incluem as chaves, como
+ * "{{nome}}") e o resto é copiado como está. Sem nenhuma troca, devolve o mesmo
+ * String, sem alocar.
+ *
+ * Serve a qualquer modelo (contratos, recibos, relatórios): em texto puro, em
+ * parágrafos do Word ou pré-compilado com {@link #compilar} para preencher o
+ * mesmo texto muitas vezes.
+ */
+public final class SubstituidorPlaceholders {
+
+    private SubstituidorPlaceholders() {
+    }
+
+    /** Texto separado nos placeholders: fixos[0] tokens[0] fixos[1] ... fixos[n]. */
+    public record Compilado(String[] fixos, String[] tokens) {
+
+        public String preencher(Map<String, String> valores) {
+            return preencher(valores::get);
+        }
+
+        /** Token sem valor ({@code null}) fica como está. */
+        public String preencher(Function<String, String> valores) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < tokens.length; i++) {
+                sb.append(fixos[i]);
+                String valor = valores.apply(tokens[i]);
+                sb.append(valor != null ? valor : tokens[i]);
+            }
+            return sb.append(fixos[tokens.length]).toString();
+        }
+    }
+
+    public static Compilado compilar(String texto) {
+        List<String> fixos = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+        int copiado = 0;
+        for (int inicio = proximo(texto, 0); inicio >= 0; inicio = proximo(texto, copiado)) {
+            int fim = fimDoToken(texto, inicio);
+            fixos.add(texto.substring(copiado, inicio));
+            tokens.add(texto.substring(inicio, fim));
+            copiado = fim;
+        }
+        fixos.add(texto.substring(copiado));
+        return new Compilado(fixos.toArray(new String[0]), tokens.toArray(new String[0]));
+    }
+
+    public static boolean contem(String texto) {
+        return proximo(texto, 0) >= 0;
+    }
+
+    public static String substituir(String texto, Map<String, String> valores) {
+        return substituir(texto, (Function<String, String>) valores::get);
+    }
+
+    /** Token sem valor ({@code null}) fica como está. */
+    public static String substituir(String texto, Function<String, String> valores) {
+        StringBuilder sb = null;
+        int copiado = 0;
+        for (int inicio = proximo(texto, 0); inicio >= 0; ) {
+            int fim = fimDoToken(texto, inicio);
+            String valor = valores.apply(texto.substring(inicio, fim));
+            if (valor != null) {
+                if (sb == null) sb = new StringBuilder(texto.length() + 32);
+                sb.append(texto, copiado, inicio).append(valor);
+                copiado = fim;
+            }
+            inicio = proximo(texto, fim);
+        }
+        if (sb == null) return texto;
+        return sb.append(texto, copiado, texto.length()).toString();
+    }
+
+    public static boolean substituir(XWPFParagraph paragrafo, Map<String, String> valores) {
+        return substituir(paragrafo, (Function<String, String>) valores::get);
+    }
+
+    /**
+     * Troca os placeholders do parágrafo mexendo só nos runs afetados: um token
+     * dentro de um run é trocado ali mesmo, mantendo a formatação; um token
+     * partido em vários runs (o Word faz isso) vai inteiro para o primeiro deles
+     * e os seguintes perdem o pedaço. Retorna true se algo mudou.
+     */
+    public static boolean substituir(XWPFParagraph paragrafo, Function<String, String> valores) {
+        List<XWPFRun> runs = paragrafo.getRuns();
+        if (runs.isEmpty()) return false;
+
+        int[] offsets = new int[runs.size() + 1];
+        StringBuilder completo = new StringBuilder();
+        for (int i = 0; i < runs.size(); i++) {
+            offsets[i] = completo.length();
+            String texto = runs.get(i).getText(0);
+            if (texto != null) completo.append(texto);
+        }
+        offsets[runs.size()] = completo.length();
+        String texto = completo.toString();
+
+        // tokens de trás para frente: trocar um não desloca os anteriores
+        List<int[]> tokens = new ArrayList<>();
+        for (int inicio = proximo(texto, 0); inicio >= 0; ) {
+            int fim = fimDoToken(texto, inicio);
+            tokens.add(new int[]{inicio, fim});
+            inicio = proximo(texto, fim);
+        }
+
+        boolean mudou = false;
+        for (int t = tokens.size() - 1; t >= 0; t--) {
+            int inicio = tokens.get(t)[0];
+            int fim = tokens.get(t)[1];
+            String token = texto.substring(inicio, fim);
+            String valor = valores.apply(token);
+            int primeiro = runDe(offsets, inicio);
+            int ultimo = runDe(offsets, fim - 1);
+            if (valor == null || (valor.equals(token) && primeiro == ultimo)) continue;
+
+            XWPFRun run = paragrafo.getRuns().get(primeiro);
+            String antes = textoDe(run).substring(0, inicio - offsets[primeiro]);
+            String depois = textoDe(paragrafo.getRuns().get(ultimo)).substring(fim - offsets[ultimo]);
+            for (int i = ultimo; i > primeiro; i--) {
+                paragrafo.removeRun(i);
+            }
+            run.setText(antes + valor + depois, 0);
+            mudou = true;
+        }
+        return mudou;
+    }
+
+    /** Parágrafos do corpo e de todas as tabelas (inclusive aninhadas); retorna quantos mudaram. */
+    public static int substituir(XWPFDocument documento, Map<String, String> valores) {
+        return substituir(documento.getBodyElements(), valores);
+    }
+
+    private static int substituir(List<IBodyElement> elementos, Map<String, String> valores) {
+        int alterados = 0;
+        for (IBodyElement elemento : elementos) {
+            if (elemento instanceof XWPFParagraph p) {
+                if (substituir(p, valores)) alterados++;
+            } else if (elemento instanceof XWPFTable tabela) {
+                for (XWPFTableRow linha : tabela.getRows()) {
+                    for (XWPFTableCell celula : linha.getTableCells()) {
+                        alterados += substituir(celula.getBodyElements(), valores);
+                    }
+                }
+            }
+        }
+        return alterados;
+    }
+
+    // Início do próximo "{{...}}" a partir de desde, ou -1
+    private static int proximo(String texto, int desde) {
+        for (int inicio = texto.indexOf("{{", desde); inicio >= 0; inicio = texto.indexOf("{{", inicio + 1)) {
+            if (fimDoToken(texto, inicio) > 0) return inicio;
+        }
+        return -1;
+    }
+
+    // Fim (exclusivo) do token que começa em inicio, ou -1 se não é um placeholder
+    private static int fimDoToken(String texto, int inicio) {
+        int i = inicio + 2;
+        if (i < texto.length() && texto.charAt(i) == '}') return -1; // "{{}}" não é placeholder
+        for (; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '}') {
+                return i + 1 < texto.length() && texto.charAt(i + 1) == '}' ? i + 2 : -1;
+            }
+            if (c == '{' || c == '<' || c == '>') return -1;
+        }
+        return -1;
+    }
+
+    private static int runDe(int[] offsets, int posicao) {
+        int i = 0;
+        while (offsets[i + 1] <= posicao) i++;
+        return i;
+    }
+
+    private static String textoDe(XWPFRun run) {
+        String texto = run.getText(0);
+        return texto != null ? texto : "";
+    }
+}
@@ -0,0 +1,89 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Hospede;
+
+/**
+ * Busca de hóspedes pelo índice FTS5 {@code hospede_fts} (migração 3), mantido
+ * por triggers na tabela hospede. Cobre nome, documento, telefone e email,
+ * ignora acentos e maiúsculas e trata cada palavra digitada como prefixo:
+ * "jo sil" encontra "Joana Silva".
+ *
+ * Usada pelo autocomplete do check-in, pelo cadastro de hóspedes e pelos filtros
+ * de hóspede dos relatórios.
+ */
+public class BuscaHospedes {
+
+    /** Limite padrão para listas de sugestão. */
+    public static final int LIMITE_SUGESTOES = 50;
+
+    /**
+     * Condição para filtrar outra consulta pelo índice, ex.:
+     * {@code "AND " + BuscaHospedes.filtroPorId("h.id")}; o parâmetro é {@link #expressao(String)}.
+     */
+    public static String filtroPorId(String colunaId) {
+        return colunaId + " IN (SELECT rowid FROM hospede_fts WHERE hospede_fts MATCH ?)";
+    }
+
+    /**
+     * Converte o texto digitado em uma expressão MATCH: cada palavra vira um
+     * prefixo entre aspas (sem operadores do FTS), todas obrigatórias.
+     * Retorna null quando não há nada pesquisável.
+     */
+    public static String expressao(String termo) {
+        if (termo == null) return null;
+        StringBuilder sb = new StringBuilder();
+        for (String palavra : termo.split("[^\\p{L}\\p{N}]+")) {
+            if (palavra.isEmpty()) continue;
+            if (sb.length() > 0) sb.append(' ');
+            sb.append('"').append(palavra).append("\"*");
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
+
+    /**
+     * Hóspedes que casam com o termo, mais relevantes primeiro (nome pesa mais que
+     * documento, que pesa mais que contato). Termo vazio lista os mais recentes.
+     */
+    public static List<Hospede> buscar(Connection conn, String termo, boolean somenteSemHospedagemAtiva, int limite)
+            throws SQLException {
+        String expressao = expressao(termo);
+        String semAtiva = somenteSemHospedagemAtiva
+                ? "AND NOT EXISTS (SELECT 1 FROM hospedagem h WHERE h.hospede_id = ho.id AND h.status = 1) "
+                : "";
+
+        String sql;
+        if (expressao == null) {
+            sql = "SELECT ho.id, ho.nome, ho.sexo, ho.documento, ho.telefone, ho.email "
+                + "FROM hospede ho WHERE 1=1 " + semAtiva
+                + "ORDER BY ho.id DESC LIMIT ?";
+        } else {
+            sql = "SELECT ho.id, ho.nome, ho.sexo, ho.documento, ho.telefone, ho.email "
+                + "FROM hospede_fts f JOIN hospede ho ON ho.id = f.rowid "
+                + "WHERE hospede_fts MATCH ? " + semAtiva
+                + "ORDER BY bm25(hospede_fts, 10.0, 5.0, 2.0, 2.0, 5.0), ho.id DESC LIMIT ?";
+        }
+
+        List<Hospede> hospedes = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            int i = 1;
+            if (expressao != null) ps.setString(i++, expressao);
+            ps.setInt(i, limite);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Hospede hospede = new Hospede(rs.getString(2), rs.getString(3), rs.getString(4),
+                            rs.getString(5), rs.getString(6));
+                    hospede.setId(rs.getInt(1));
+                    hospedes.add(hospede);
+                }
+            }
+        }
+        return hospedes;
+    }
+}
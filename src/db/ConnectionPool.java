@@ -0,0 +1,357 @@
+package db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool limitado de conexões SQLite já "aquecidas" (PRAGMAs aplicados na abertura).
+ *
+ * Cada chamada a {@link #emprestar()} devolve um proxy de {@link Connection}; o
+ * {@code close()} do proxy não fecha a conexão física, apenas a devolve ao pool.
+ * Assim o código existente com try-with-resources continua igual.
+ *
+ * Conexões presas além do limite são reportadas como possível vazamento, com a
+ * thread e a origem informada em {@link #emprestar(String)}; a pilha completa
+ * do empréstimo só é capturada com -Dhotel.db.pool.pilha=true, porque custa uma
+ * exceção por empréstimo.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final boolean PILHA_EMPRESTIMO = Boolean.getBoolean("hotel.db.pool.pilha");
+
+    private final String url;
+    private final int tamanhoMaximo;
+    private final long timeoutAquisicaoMs;
+    private final long intervaloValidacaoMs;
+    private final long limiteVazamentoMs;
+    private final List<String> pragmas;
+
+    private final BlockingDeque<ConexaoFisica> ociosas = new LinkedBlockingDeque<>();
+    private final Semaphore permissoes;
+    private final Set<Emprestimo> emprestimosAtivos = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService monitor;
+    private volatile boolean fechado = false;
+
+    // Métricas
+    private final AtomicLong abertas = new AtomicLong();
+    private final LongAdder criadas = new LongAdder();
+    private final LongAdder descartadas = new LongAdder();
+    private final LongAdder emprestimos = new LongAdder();
+    private final LongAdder devolucoes = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder vazamentos = new LongAdder();
+    private final LongAdder esperaTotalNanos = new LongAdder();
+    private final AtomicLong esperaMaximaNanos = new AtomicLong();
+
+    public ConnectionPool(String url, int tamanhoMaximo, List<String> pragmas) {
+        this(url, tamanhoMaximo, pragmas, 10_000, 30_000, 60_000);
+    }
+
+    public ConnectionPool(String url, int tamanhoMaximo, List<String> pragmas,
+                          long timeoutAquisicaoMs, long intervaloValidacaoMs, long limiteVazamentoMs) {
+        if (tamanhoMaximo < 1) {
+            throw new IllegalArgumentException("Tamanho do pool deve ser ao menos 1.");
+        }
+        this.url = url;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.pragmas = List.copyOf(pragmas);
+        this.timeoutAquisicaoMs = timeoutAquisicaoMs;
+        this.intervaloValidacaoMs = intervaloValidacaoMs;
+        this.limiteVazamentoMs = limiteVazamentoMs;
+        this.permissoes = new Semaphore(tamanhoMaximo, true);
+
+        this.monitor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-sqlite-monitor");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodo = Math.max(1_000, limiteVazamentoMs / 2);
+        monitor.scheduleWithFixedDelay(this::verificarVazamentos, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    /** Abre antecipadamente até {@code quantidade} conexões para evitar custo no primeiro uso. */
+    public void aquecer(int quantidade) throws SQLException {
+        int alvo = Math.min(quantidade, tamanhoMaximo);
+        while (abertas.get() < alvo) {
+            ociosas.offerLast(abrirConexaoFisica());
+        }
+    }
+
+    public Connection emprestar() throws SQLException {
+        return emprestar(null);
+    }
+
+    /** {@code origem} (ex.: a tela que pediu) aparece no aviso de vazamento; pode ser null. */
+    public Connection emprestar(String origem) throws SQLException {
+        if (fechado) throw new SQLException("Pool de conexões encerrado.");
+
+        long inicio = System.nanoTime();
+        try {
+            if (!permissoes.tryAcquire(timeoutAquisicaoMs, TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                throw new SQLException("Tempo esgotado aguardando conexão do pool ("
+                        + timeoutAquisicaoMs + " ms). Em uso: " + emprestimosAtivos.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido aguardando conexão do pool.", e);
+        }
+
+        ConexaoFisica fisica;
+        try {
+            fisica = obterConexaoValida();
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+
+        long espera = System.nanoTime() - inicio;
+        esperaTotalNanos.add(espera);
+        esperaMaximaNanos.accumulateAndGet(espera, Math::max);
+        emprestimos.increment();
+
+        Emprestimo emprestimo = new Emprestimo(fisica, origem);
+        emprestimosAtivos.add(emprestimo);
+        return emprestimo.proxy;
+    }
+
+    private ConexaoFisica obterConexaoValida() throws SQLException {
+        ConexaoFisica fisica;
+        while ((fisica = ociosas.pollFirst()) != null) {
+            if (System.currentTimeMillis() - fisica.ultimoUso < intervaloValidacaoMs) {
+                return fisica;
+            }
+            // Health check: só revalida conexões paradas há algum tempo
+            if (fisica.valida()) {
+                return fisica;
+            }
+            descartar(fisica);
+        }
+        return abrirConexaoFisica();
+    }
+
+    private ConexaoFisica abrirConexaoFisica() throws SQLException {
+        Connection conn = DriverManager.getConnection(url);
+        try (Statement stmt = conn.createStatement()) {
+            for (String pragma : pragmas) {
+                stmt.execute(pragma);
+            }
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        abertas.incrementAndGet();
+        criadas.increment();
+        return new ConexaoFisica(conn);
+    }
+
+    private void devolver(Emprestimo emprestimo) {
+        emprestimosAtivos.remove(emprestimo);
+        devolucoes.increment();
+
+        ConexaoFisica fisica = emprestimo.fisica;
+        boolean reaproveitar = !fechado && fisica.resetar(emprestimo.statements);
+        if (reaproveitar) {
+            fisica.ultimoUso = System.currentTimeMillis();
+            ociosas.offerFirst(fisica); // LIFO: mantém as mesmas conexões "quentes"
+        } else {
+            descartar(fisica);
+        }
+        permissoes.release();
+    }
+
+    private void descartar(ConexaoFisica fisica) {
+        try {
+            fisica.conn.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        abertas.decrementAndGet();
+        descartadas.increment();
+    }
+
+    private void verificarVazamentos() {
+        long agora = System.currentTimeMillis();
+        for (Emprestimo e : emprestimosAtivos) {
+            if (!e.vazamentoReportado && agora - e.inicioMs > limiteVazamentoMs) {
+                e.vazamentoReportado = true;
+                vazamentos.increment();
+                System.err.println("Possível vazamento de conexão: emprestada há "
+                        + (agora - e.inicioMs) + " ms pela thread " + e.thread
+                        + (e.origem != null ? " (" + e.origem + ")" : ""));
+                if (e.pilha != null) e.pilha.printStackTrace();
+                else System.err.println("  -Dhotel.db.pool.pilha=true mostra onde a conexão foi emprestada");
+            }
+        }
+    }
+
+    public MetricasPool getMetricas() {
+        long total = emprestimos.sum();
+        return new MetricasPool(
+                tamanhoMaximo,
+                (int) abertas.get(),
+                ociosas.size(),
+                emprestimosAtivos.size(),
+                total,
+                devolucoes.sum(),
+                criadas.sum(),
+                descartadas.sum(),
+                timeouts.sum(),
+                vazamentos.sum(),
+                total == 0 ? 0 : esperaTotalNanos.sum() / total / 1_000,
+                esperaMaximaNanos.get() / 1_000);
+    }
+
+    @Override
+    public void close() {
+        fechado = true;
+        monitor.shutdownNow();
+        ConexaoFisica fisica;
+        while ((fisica = ociosas.pollFirst()) != null) {
+            descartar(fisica);
+        }
+    }
+
+    /** Fotografia das métricas do pool. Tempos de espera em microssegundos. */
+    public record MetricasPool(int tamanhoMaximo, int abertas, int ociosas, int emUso,
+                               long emprestimos, long devolucoes, long criadas, long descartadas,
+                               long timeouts, long vazamentos, long esperaMediaMicros, long esperaMaximaMicros) {
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "Pool[max=%d, abertas=%d, ociosas=%d, em uso=%d, empréstimos=%d, criadas=%d, descartadas=%d, "
+                    + "timeouts=%d, vazamentos=%d, espera média=%dµs, espera máx=%dµs]",
+                    tamanhoMaximo, abertas, ociosas, emUso, emprestimos, criadas, descartadas,
+                    timeouts, vazamentos, esperaMediaMicros, esperaMaximaMicros);
+        }
+    }
+
+    private static class ConexaoFisica {
+        final Connection conn;
+        volatile long ultimoUso = System.currentTimeMillis();
+
+        ConexaoFisica(Connection conn) {
+            this.conn = conn;
+        }
+
+        boolean valida() {
+            try {
+                return !conn.isClosed() && conn.isValid(2);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        // Deixa a conexão como nova para o próximo empréstimo
+        boolean resetar(List<Statement> statements) {
+            try {
+                for (Statement s : statements) {
+                    if (!s.isClosed()) s.close();
+                }
+                if (!conn.getAutoCommit()) {
+                    conn.rollback();
+                    conn.setAutoCommit(true);
+                }
+                return !conn.isClosed();
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return false;
+            }
+        }
+    }
+
+    private class Emprestimo implements InvocationHandler {
+        final ConexaoFisica fisica;
+        final Connection proxy;
+        final long inicioMs = System.currentTimeMillis();
+        final String thread = Thread.currentThread().getName();
+        final String origem;
+        final Throwable pilha = PILHA_EMPRESTIMO ? new Throwable("Conexão emprestada aqui") : null;
+        final List<Statement> statements = new ArrayList<>();
+        volatile boolean vazamentoReportado = false;
+        private boolean devolvido = false;
+
+        Emprestimo(ConexaoFisica fisica, String origem) {
+            this.fisica = fisica;
+            this.origem = origem;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, this);
+        }
+
+        @Override
+        public Object invoke(Object p, Method method, Object[] args) throws Throwable {
+            String nome = method.getName();
+            switch (nome) {
+                case "close":
+                    synchronized (this) {
+                        if (devolvido) return null;
+                        devolvido = true;
+                    }
+                    devolver(this);
+                    return null;
+                case "isClosed":
+                    return devolvido || fisica.conn.isClosed();
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(p) ? p : fisica.conn.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(p) || fisica.conn.isWrapperFor((Class<?>) args[0]);
+                case "equals":
+                    return p == args[0];
+                case "hashCode":
+                    return System.identityHashCode(p);
+                case "toString":
+                    return "ConexaoEmprestada[" + fisica.conn + "]";
+                default:
+                    break;
+            }
+
+            if (devolvido) {
+                throw new SQLException("Conexão já devolvida ao pool.");
+            }
+
+            Object resultado;
+            try {
+                resultado = method.invoke(fisica.conn, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (resultado instanceof Statement) {
+                registrarStatement((Statement) resultado);
+            }
+            return resultado;
+        }
+
+        // Guarda os statements para fechá-los na devolução, descartando os já fechados
+        private void registrarStatement(Statement statement) throws SQLException {
+            if (statements.size() >= 32) {
+                statements.removeIf(s -> {
+                    try {
+                        return s.isClosed();
+                    } catch (SQLException e) {
+                        return true;
+                    }
+                });
+            }
+            statements.add(statement);
+        }
+    }
+}
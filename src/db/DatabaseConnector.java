@@ -2,14 +2,48 @@ package db;
 
 import java.io.File;
 import java.sql.Connection;
-import java.sql.DriverManager;
+
+import diagnostico.MetricasSql;
 
 public class DatabaseConnector {
 
     private static final String DB_FOLDER = "db";
     private static final String DB_NAME = "hotel.db";
 
+    // Tamanho máximo do pool (pode ser ajustado com -Dhotel.db.pool=N)
+    private static final int TAMANHO_POOL = Integer.getInteger("hotel.db.pool", 8);
+
+    private static volatile ConnectionPool pool;
+
+    /**
+     * Empresta uma conexão do pool. Feche-a normalmente (try-with-resources):
+     * o close() devolve a conexão ao pool em vez de fechá-la. O que ela executa
+     * entra nas {@link MetricasSql}.
+     */
     public static Connection conectar() throws Exception {
+        if (!MetricasSql.ATIVO) return getPool().emprestar();
+        // Uma só leitura da pilha serve às métricas e ao aviso de vazamento do pool
+        String tela = MetricasSql.telaChamadora();
+        long inicio = System.nanoTime();
+        Connection conn = getPool().emprestar(tela);
+        return MetricasSql.instrumentar(conn, tela, System.nanoTime() - inicio);
+    }
+
+    public static ConnectionPool getPool() throws Exception {
+        ConnectionPool atual = pool;
+        if (atual == null) {
+            synchronized (DatabaseConnector.class) {
+                atual = pool;
+                if (atual == null) {
+                    atual = criarPool();
+                    pool = atual;
+                }
+            }
+        }
+        return atual;
+    }
+
+    private static ConnectionPool criarPool() throws Exception {
         // Cria a pasta 'db' se não existir
         File folder = new File(DB_FOLDER);
         if (!folder.exists()) {
@@ -18,12 +52,31 @@ public class DatabaseConnector {
 
         // Caminho completo do arquivo do banco
         File dbFile = new File(folder, DB_NAME);
-
         System.out.println("Caminho completo do banco: " + dbFile.getAbsolutePath());
-        System.out.println("Existe? " + dbFile.exists());
 
         String url = "jdbc:sqlite:" + dbFile.getAbsolutePath();
 
-        return DriverManager.getConnection(url);
+        // PRAGMAs aplicados uma única vez em cada conexão física do pool
+        PerfilArmazenamento perfil = PerfilArmazenamento.configurado();
+        System.out.println("Perfil de armazenamento: " + perfil.nome());
+
+        ConnectionPool novo = new ConnectionPool(url, TAMANHO_POOL, perfil.pragmas());
+        novo.aquecer(2);
+        Runtime.getRuntime().addShutdownHook(new Thread(novo::close, "pool-sqlite-shutdown"));
+        return novo;
+    }
+
+    public static ConnectionPool.MetricasPool getMetricasPool() {
+        ConnectionPool atual = pool;
+        return atual != null ? atual.getMetricas() : null;
+    }
+
+    public static void encerrar() {
+        synchronized (DatabaseConnector.class) {
+            if (pool != null) {
+                pool.close();
+                pool = null;
+            }
+        }
     }
 }
@@ -1,14 +1,20 @@
 package db;
 
 import java.sql.*;
+import java.util.List;
 import java.security.MessageDigest;
 
 public class DatabaseInitializer {
 
-    public static void inicializarBanco() {
-        String url = "jdbc:sqlite:db/hotel.db";
+    // Indexa na busca textual todos os hóspedes da tabela (migração 3 e carga em lote)
+    static final String PREENCHER_FTS =
+            "INSERT INTO hospede_fts (rowid, nome, documento, telefone, email, digitos) "
+            + "SELECT id, nome, documento, telefone, email, "
+            + somenteDigitos("documento") + " || ' ' || " + somenteDigitos("telefone") + " FROM hospede;";
 
-        String[] sqlStatements = {
+    // Nunca altere uma migração já publicada: acrescente uma nova versão no fim da lista.
+    public static final List<Migracao> MIGRACOES = List.of(
+        Migracao.de(1, "Tabelas iniciais",
             "CREATE TABLE IF NOT EXISTS usuario ("
             + "id INTEGER PRIMARY KEY AUTOINCREMENT, "
             + "login TEXT NOT NULL UNIQUE, "
@@ -42,15 +48,66 @@ public class DatabaseInitializer {
             + "status INTEGER NOT NULL DEFAULT 1 CHECK (status IN (0, 1)),"
             + "FOREIGN KEY (hospede_id) REFERENCES hospede(id), "
             + "FOREIGN KEY (cama_id) REFERENCES cama(id));"
-        };
+        ),
+
+        Migracao.de(2, "Índices de desempenho",
+            "CREATE INDEX IF NOT EXISTS idx_hospedagem_status ON hospedagem(status);",
+            "CREATE INDEX IF NOT EXISTS idx_hospedagem_cama_periodo ON hospedagem(cama_id, data_entrada, data_saida);",
+            "CREATE INDEX IF NOT EXISTS idx_hospedagem_hospede_status ON hospedagem(hospede_id, status);",
+            "CREATE INDEX IF NOT EXISTS idx_cama_quarto ON cama(quarto_numero);",
+            "CREATE INDEX IF NOT EXISTS idx_hospede_nome ON hospede(nome);"
+        ),
+
+        // Busca de hóspedes (db.BuscaHospedes). "digitos" guarda documento e telefone sem
+        // pontuação, para achar "12345678900" digitado sem pontos e traços.
+        Migracao.de(3, "Busca textual de hóspedes (FTS5)",
+            "CREATE VIRTUAL TABLE IF NOT EXISTS hospede_fts USING fts5("
+            + "nome, documento, telefone, email, digitos, "
+            + "tokenize = 'unicode61 remove_diacritics 2', prefix = '2 3');",
+
+            "CREATE TRIGGER IF NOT EXISTS hospede_fts_ai AFTER INSERT ON hospede BEGIN "
+            + inserirFts("new") + " END;",
+
+            "CREATE TRIGGER IF NOT EXISTS hospede_fts_ad AFTER DELETE ON hospede BEGIN "
+            + "DELETE FROM hospede_fts WHERE rowid = old.id; END;",
+
+            "CREATE TRIGGER IF NOT EXISTS hospede_fts_au AFTER UPDATE ON hospede BEGIN "
+            + "DELETE FROM hospede_fts WHERE rowid = old.id; "
+            + inserirFts("new") + " END;",
+
+            PREENCHER_FTS
+        ),
 
-        try (Connection conn = DriverManager.getConnection(url);
-             Statement stmt = conn.createStatement()) {
+        // Histórico e contratos filtrados por período (ver diagnostico.VerificadorPlanos)
+        Migracao.de(4, "Índice por data de entrada",
+            "CREATE INDEX IF NOT EXISTS idx_hospedagem_entrada ON hospedagem(data_entrada);"
+        )
+    );
+
+    private static String inserirFts(String linha) {
+        return "INSERT INTO hospede_fts (rowid, nome, documento, telefone, email, digitos) VALUES ("
+            + linha + ".id, " + linha + ".nome, " + linha + ".documento, " + linha + ".telefone, " + linha + ".email, "
+            + somenteDigitos(linha + ".documento") + " || ' ' || " + somenteDigitos(linha + ".telefone") + ");";
+    }
+
+    // SQLite não tem regex: remove a pontuação usual de CPF, RG e telefone
+    private static String somenteDigitos(String coluna) {
+        String expr = "COALESCE(" + coluna + ", '')";
+        for (String c : new String[] { ".", "-", "/", "(", ")", " ", "+" }) {
+            expr = "REPLACE(" + expr + ", '" + c + "', '')";
+        }
+        return expr;
+    }
+
+    public static void inicializarBanco() {
+        try (Connection conn = DatabaseConnector.conectar()) {
 
-            for (String sql : sqlStatements) {
-                stmt.executeUpdate(sql);
+            int aplicadas = new MigradorSchema(MIGRACOES).migrar(conn);
+            if (aplicadas > 0) {
+                System.out.println("Banco inicializado com sucesso!");
+            } else {
+                System.out.println("Banco já está na versão mais recente.");
             }
-            System.out.println("Banco inicializado com sucesso!");
 
             criarUsuarioAdminSeNaoExistir(conn);
 
@@ -59,7 +116,7 @@ public class DatabaseInitializer {
         }
     }
 
-    private static void criarUsuarioAdminSeNaoExistir(Connection conn) throws SQLException {
+    static void criarUsuarioAdminSeNaoExistir(Connection conn) throws SQLException {
         String sqlConsulta = "SELECT COUNT(*) FROM usuario WHERE login = ?";
         try (PreparedStatement ps = conn.prepareStatement(sqlConsulta)) {
             ps.setString(1, "admin");
@@ -0,0 +1,391 @@
+package db;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Gera um banco de hotel sintético para testes de carga e dimensionamento:
+ * quartos, camas, hóspedes com nomes, CPFs, celulares e emails brasileiros, e
+ * anos de hospedagens sem sobreposição por cama, com a taxa de ocupação pedida.
+ * Hospedagens que cobrem hoje ficam ativas (e a cama ocupada); as que começam
+ * depois são reservas, até 60 dias à frente.
+ *
+ * O mesmo banco sai da mesma semente e data de referência. As inserções são em
+ * lote, em transações grandes, com os índices secundários criados só no fim.
+ *
+ * Uso (o jar dos benchmarks já traz o driver):
+ * <pre>
+ * mvn -Pbench package
+ * java -cp target/benchmarks.jar db.GeradorDadosSinteticos --destino carga.db \
+ *      --quartos 2000 --camas 4 --hospedes 1000000 --anos 10 --ocupacao 0.8 --semente 42
+ * </pre>
+ * Para usar no sistema, copie o arquivo para db/hotel.db (login admin / 54321).
+ */
+public class GeradorDadosSinteticos {
+
+    /** Tamanho e forma do banco gerado. */
+    public record Configuracao(int quartos, int camasPorQuarto, int hospedes, int anos,
+                               double ocupacao, long semente, LocalDate hoje) {
+
+        public Configuracao {
+            if (quartos < 1 || camasPorQuarto < 1 || hospedes < 1 || anos < 0) {
+                throw new IllegalArgumentException("Quartos, camas e hóspedes devem ser positivos.");
+            }
+            if (ocupacao <= 0 || ocupacao > 1) {
+                throw new IllegalArgumentException("Ocupação deve estar entre 0 e 1.");
+            }
+        }
+
+        public static Configuracao padrao() {
+            return new Configuracao(50, 4, 20_000, 1, 0.85, 42L, LocalDate.now());
+        }
+    }
+
+    private static final String[] PRENOMES_FEMININOS = {
+        "Ana", "Maria", "Francisca", "Antônia", "Adriana", "Juliana", "Márcia", "Fernanda", "Patrícia", "Aline",
+        "Camila", "Amanda", "Bruna", "Jéssica", "Letícia", "Júlia", "Luciana", "Vanessa", "Mariana", "Gabriela",
+        "Beatriz", "Larissa", "Sandra", "Raimunda", "Luana", "Carla", "Débora", "Tatiane", "Renata", "Helena"
+    };
+
+    private static final String[] PRENOMES_MASCULINOS = {
+        "José", "João", "Antônio", "Francisco", "Carlos", "Paulo", "Pedro", "Lucas", "Luiz", "Marcos",
+        "Luís", "Gabriel", "Rafael", "Daniel", "Marcelo", "Bruno", "Eduardo", "Felipe", "Raimundo", "Rodrigo",
+        "Matheus", "Gustavo", "Thiago", "Leonardo", "Diego", "Vinícius", "André", "Fábio", "Sebastião", "Miguel"
+    };
+
+    private static final String[] SOBRENOMES = {
+        "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira", "Lima", "Gomes",
+        "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes", "Soares", "Fernandes", "Vieira", "Barbosa",
+        "Rocha", "Dias", "Nascimento", "Andrade", "Moreira", "Nunes", "Marques", "Machado", "Mendes", "Freitas",
+        "Cardoso", "Ramos", "Gonçalves", "Santana", "Teixeira", "Araújo", "Conceição", "Cavalcanti", "Monteiro", "Moura"
+    };
+
+    private static final int[] DDDS = {
+        11, 11, 11, 12, 13, 15, 16, 19, 21, 21, 22, 24, 27, 31, 31, 32, 34, 41, 43, 44, 47, 48, 51, 51, 54,
+        61, 62, 65, 67, 71, 71, 73, 79, 81, 81, 83, 84, 85, 85, 86, 91, 92, 95, 98
+    };
+
+    private static final String[] DOMINIOS = {
+        "gmail.com", "gmail.com", "gmail.com", "hotmail.com", "outlook.com", "yahoo.com.br", "uol.com.br", "bol.com.br"
+    };
+
+    // Confirmação em lote a cada LOTE linhas e nova transação a cada TRANSACAO linhas
+    private static final int LOTE = 10_000;
+    private static final int TRANSACAO = 1_000_000;
+    private static final int DIAS_DE_RESERVAS = 60;
+
+    public static void main(String[] args) throws Exception {
+        Configuracao padrao = Configuracao.padrao();
+        String destino = null;
+        int quartos = padrao.quartos();
+        int camas = padrao.camasPorQuarto();
+        int hospedes = padrao.hospedes();
+        int anos = padrao.anos();
+        double ocupacao = padrao.ocupacao();
+        long semente = padrao.semente();
+        LocalDate hoje = padrao.hoje();
+        boolean substituir = false;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--destino" -> destino = args[++i];
+                    case "--quartos" -> quartos = Integer.parseInt(args[++i]);
+                    case "--camas" -> camas = Integer.parseInt(args[++i]);
+                    case "--hospedes" -> hospedes = Integer.parseInt(args[++i]);
+                    case "--anos" -> anos = Integer.parseInt(args[++i]);
+                    case "--ocupacao" -> ocupacao = Double.parseDouble(args[++i]);
+                    case "--semente" -> semente = Long.parseLong(args[++i]);
+                    case "--hoje" -> hoje = LocalDate.parse(args[++i]);
+                    case "--substituir" -> substituir = true;
+                    default -> throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+                }
+            }
+            if (destino == null) throw new IllegalArgumentException("Informe --destino <arquivo.db>.");
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Uso: GeradorDadosSinteticos --destino <arquivo.db> [--quartos N] [--camas N] "
+                    + "[--hospedes N] [--anos N] [--ocupacao 0..1] [--semente N] [--hoje aaaa-mm-dd] [--substituir]");
+            System.exit(2);
+            return;
+        }
+
+        File arquivo = new File(destino);
+        if (arquivo.exists()) {
+            if (!substituir) {
+                System.err.println(arquivo + " já existe; use --substituir para recriá-lo.");
+                System.exit(2);
+                return;
+            }
+            apagar(arquivo);
+        }
+
+        Configuracao config = new Configuracao(quartos, camas, hospedes, anos, ocupacao, semente, hoje);
+        long inicio = System.nanoTime();
+        Totais totais = gerar("jdbc:sqlite:" + arquivo.getAbsolutePath(), config);
+        System.out.printf(Locale.ROOT, "%s: %d quartos, %d camas, %d hóspedes, %d hospedagens (%d ativas) em %.1f s%n",
+                arquivo, totais.quartos(), totais.camas(), totais.hospedes(), totais.hospedagens(), totais.ativas(),
+                (System.nanoTime() - inicio) / 1e9);
+    }
+
+    /** O que foi gerado. */
+    public record Totais(int quartos, int camas, int hospedes, long hospedagens, long ativas) {}
+
+    /** Cria o schema e os dados num banco vazio. */
+    public static Totais gerar(String url, Configuracao config) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url)) {
+            try (Statement stmt = conn.createStatement()) {
+                for (String pragma : PerfilArmazenamento.BULK_IMPORT.pragmas()) stmt.execute(pragma);
+            }
+            new MigradorSchema(DatabaseInitializer.MIGRACOES).migrar(conn);
+            DatabaseInitializer.criarUsuarioAdminSeNaoExistir(conn);
+
+            // Índices secundários e a busca textual de uma vez no fim custam bem menos
+            // que mantê-los linha a linha
+            List<String> indices = removerIndices(conn);
+            String gatilhoFts = removerGatilhoFts(conn);
+
+            Random random = new Random(config.semente());
+            conn.setAutoCommit(false);
+            long inicio = System.nanoTime();
+            inserirHospedes(conn, random, config.hospedes());
+            inicio = etapa("hóspedes", inicio);
+            Totais totais = inserirQuartosCamasHospedagens(conn, random, config);
+            conn.commit();
+            inicio = etapa("quartos, camas e hospedagens", inicio);
+            conn.setAutoCommit(true);
+
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : indices) stmt.execute(sql);
+                inicio = etapa("índices", inicio);
+                stmt.execute(DatabaseInitializer.PREENCHER_FTS);
+                stmt.execute(gatilhoFts);
+                inicio = etapa("busca textual", inicio);
+                stmt.execute("ANALYZE");
+                stmt.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+                etapa("estatísticas", inicio);
+            }
+            return totais;
+        }
+    }
+
+    private static long etapa(String nome, long inicio) {
+        long agora = System.nanoTime();
+        System.out.printf(Locale.ROOT, "%s: %.1f s%n", nome, (agora - inicio) / 1e9);
+        return agora;
+    }
+
+    /** Nome completo com prenome(s) do sexo pedido e dois sobrenomes. */
+    public static String nomeAleatorio(Random random, boolean feminino) {
+        String[] prenomes = feminino ? PRENOMES_FEMININOS : PRENOMES_MASCULINOS;
+        StringBuilder nome = new StringBuilder(prenomes[random.nextInt(prenomes.length)]);
+        if (random.nextInt(5) == 0) {
+            String segundo = prenomes[random.nextInt(prenomes.length)];
+            if (!nome.toString().equals(segundo)) nome.append(' ').append(segundo);
+        }
+        return nome.append(' ').append(SOBRENOMES[random.nextInt(SOBRENOMES.length)])
+                   .append(' ').append(SOBRENOMES[random.nextInt(SOBRENOMES.length)])
+                   .toString();
+    }
+
+    /** CPF válido (dígitos verificadores corretos), formatado como 000.000.000-00. */
+    public static String cpfAleatorio(Random random) {
+        int[] d = new int[11];
+        for (int i = 0; i < 9; i++) d[i] = random.nextInt(10);
+        d[9] = digitoCpf(d, 9);
+        d[10] = digitoCpf(d, 10);
+        StringBuilder cpf = new StringBuilder(14);
+        for (int i = 0; i < 11; i++) {
+            if (i == 3 || i == 6) cpf.append('.');
+            if (i == 9) cpf.append('-');
+            cpf.append((char) ('0' + d[i]));
+        }
+        return cpf.toString();
+    }
+
+    private static int digitoCpf(int[] d, int n) {
+        int soma = 0;
+        for (int i = 0; i < n; i++) soma += d[i] * (n + 1 - i);
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+
+    private static String celularAleatorio(Random random) {
+        return String.format("(%d) 9%04d-%04d", DDDS[random.nextInt(DDDS.length)],
+                random.nextInt(10_000), random.nextInt(10_000));
+    }
+
+    private static String emailAleatorio(String nome, int numero, Random random) {
+        String[] partes = semAcentos(nome).toLowerCase(Locale.ROOT).split(" ");
+        String usuario = partes[0] + (random.nextBoolean() ? "." : "") + partes[partes.length - 1];
+        return usuario + numero + "@" + DOMINIOS[random.nextInt(DOMINIOS.length)];
+    }
+
+    private static String semAcentos(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+    }
+
+    private static void inserirHospedes(Connection conn, Random random, int hospedes) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO hospede (id, nome, sexo, documento, telefone, email) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= hospedes; i++) {
+                boolean feminino = random.nextBoolean();
+                String nome = nomeAleatorio(random, feminino);
+                ps.setInt(1, i);
+                ps.setString(2, nome);
+                ps.setString(3, feminino ? "F" : "M");
+                ps.setString(4, cpfAleatorio(random));
+                ps.setString(5, celularAleatorio(random));
+                ps.setString(6, emailAleatorio(nome, i, random));
+                ps.addBatch();
+                if (i % LOTE == 0) ps.executeBatch();
+                if (i % TRANSACAO == 0) {
+                    conn.commit();
+                    System.out.println("  " + i + " hóspedes");
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static Totais inserirQuartosCamasHospedagens(Connection conn, Random random, Configuracao config)
+            throws SQLException {
+        LocalDate hoje = config.hoje();
+        LocalDate limite = hoje.plusDays(DIAS_DE_RESERVAS);
+        // Estadias de 3 a 42 diárias ocupam a cama 23,5 dias em média (contando o dia da
+        // saída); o intervalo médio sai da ocupação: ocupação = estadia / (estadia + intervalo)
+        double intervaloMedio = 23.5 * (1 - config.ocupacao()) / config.ocupacao();
+        BitSet hospedados = new BitSet(config.hospedes() + 1);
+
+        long hospedagens = 0;
+        long ativas = 0;
+        int camaId = 0;
+        try (PreparedStatement psQuarto = conn.prepareStatement("INSERT INTO quarto (numero, status) VALUES (?, ?)");
+             PreparedStatement psCama = conn.prepareStatement(
+                     "INSERT INTO cama (id, descricao, quarto_numero, status) VALUES (?, ?, ?, ?)");
+             PreparedStatement psHosp = conn.prepareStatement(
+                     "INSERT INTO hospedagem (hospede_id, cama_id, data_entrada, data_saida, status) VALUES (?, ?, ?, ?, ?)")) {
+
+            for (int q = 1; q <= config.quartos(); q++) {
+                psQuarto.setInt(1, q);
+                psQuarto.setString(2, "Quarto " + q);
+                psQuarto.addBatch();
+
+                for (int c = 1; c <= config.camasPorQuarto(); c++) {
+                    camaId++;
+                    boolean ocupada = false;
+
+                    LocalDate dia = hoje.minusYears(config.anos()).plusDays(intervalo(random, intervaloMedio));
+                    while (dia.isBefore(limite)) {
+                        LocalDate saida = dia.plusDays(3 + random.nextInt(40));
+                        boolean ativa = !dia.isAfter(hoje) && !saida.isBefore(hoje);
+
+                        // um hóspede tem no máximo uma hospedagem ativa, como no check-in
+                        int hospede = 1 + random.nextInt(config.hospedes());
+                        if (ativa) {
+                            for (int tentativa = 0; hospedados.get(hospede) && tentativa < 20; tentativa++) {
+                                hospede = 1 + random.nextInt(config.hospedes());
+                            }
+                            if (hospedados.get(hospede)) {
+                                hospede = hospedados.nextClearBit(hospede);
+                                if (hospede > config.hospedes()) hospede = hospedados.nextClearBit(1);
+                            }
+                            if (hospede > config.hospedes()) {
+                                // todos já hospedados: a cama fica vaga hoje
+                                dia = hoje.plusDays(1 + intervalo(random, intervaloMedio));
+                                continue;
+                            }
+                            hospedados.set(hospede);
+                        }
+                        ocupada |= ativa;
+
+                        psHosp.setInt(1, hospede);
+                        psHosp.setInt(2, camaId);
+                        psHosp.setString(3, dia.toString());
+                        psHosp.setString(4, saida.toString());
+                        psHosp.setInt(5, ativa ? 1 : 0);
+                        psHosp.addBatch();
+                        hospedagens++;
+                        if (ativa) ativas++;
+                        if (hospedagens % LOTE == 0) psHosp.executeBatch();
+                        if (hospedagens % TRANSACAO == 0) {
+                            conn.commit();
+                            System.out.println("  " + hospedagens + " hospedagens");
+                        }
+
+                        dia = saida.plusDays(1 + intervalo(random, intervaloMedio));
+                    }
+
+                    psCama.setInt(1, camaId);
+                    psCama.setString(2, q + "-" + c);
+                    psCama.setInt(3, q);
+                    psCama.setInt(4, ocupada ? 1 : 0);
+                    psCama.addBatch();
+                }
+                if (q % 1000 == 0) {
+                    psQuarto.executeBatch();
+                    psCama.executeBatch();
+                }
+            }
+            psQuarto.executeBatch();
+            psCama.executeBatch();
+            psHosp.executeBatch();
+        }
+        return new Totais(config.quartos(), camaId, config.hospedes(), hospedagens, ativas);
+    }
+
+    // Dias de intervalo, distribuição geométrica com a média pedida
+    private static long intervalo(Random random, double media) {
+        if (media <= 0) return 0;
+        return (long) Math.floor(Math.log(1 - random.nextDouble()) / Math.log(media / (media + 1)));
+    }
+
+    // Remove os índices criados pelas migrações e devolve o SQL para recriá-los
+    private static List<String> removerIndices(Connection conn) throws SQLException {
+        List<String> nomes = new ArrayList<>();
+        List<String> comandos = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT name, sql FROM sqlite_master WHERE type = 'index' AND sql IS NOT NULL")) {
+            while (rs.next()) {
+                nomes.add(rs.getString(1));
+                comandos.add(rs.getString(2));
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            for (String nome : nomes) stmt.execute("DROP INDEX \"" + nome + "\"");
+        }
+        return comandos;
+    }
+
+    private static String removerGatilhoFts(Connection conn) throws SQLException {
+        String sql;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT sql FROM sqlite_master WHERE type = 'trigger' AND name = 'hospede_fts_ai'")) {
+            if (!rs.next()) throw new SQLException("Gatilho hospede_fts_ai não encontrado.");
+            sql = rs.getString(1);
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TRIGGER hospede_fts_ai");
+        }
+        return sql;
+    }
+
+    private static void apagar(File arquivo) {
+        for (String sufixo : new String[] { "", "-wal", "-shm" }) {
+            new File(arquivo.getPath() + sufixo).delete();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package db;
+
+import java.util.List;
+
+/**
+ * Um passo versionado do schema. Os comandos devem ser idempotentes
+ * (IF NOT EXISTS etc.) para que bancos criados antes do versionamento
+ * também possam ser migrados.
+ */
+public record Migracao(int versao, String descricao, List<String> comandos) {
+
+    public static Migracao de(int versao, String descricao, String... comandos) {
+        return new Migracao(versao, descricao, List.of(comandos));
+    }
+}
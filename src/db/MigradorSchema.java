@@ -0,0 +1,80 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Aplica, em ordem, as migrações ainda não registradas na tabela schema_version.
+ * Cada migração roda em sua própria transação.
+ */
+public class MigradorSchema {
+
+    private static final String CRIAR_TABELA_VERSAO =
+        "CREATE TABLE IF NOT EXISTS schema_version ("
+        + "versao INTEGER PRIMARY KEY, "
+        + "descricao TEXT NOT NULL, "
+        + "aplicada_em TEXT NOT NULL DEFAULT (datetime('now')));";
+
+    private final List<Migracao> migracoes;
+
+    public MigradorSchema(List<Migracao> migracoes) {
+        this.migracoes = migracoes.stream()
+                .sorted(Comparator.comparingInt(Migracao::versao))
+                .toList();
+    }
+
+    public int versaoAtual(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(CRIAR_TABELA_VERSAO);
+            try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(versao), 0) FROM schema_version")) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /** Retorna quantas migrações foram aplicadas nesta execução. */
+    public int migrar(Connection conn) throws SQLException {
+        int atual = versaoAtual(conn);
+        int aplicadas = 0;
+
+        for (Migracao migracao : migracoes) {
+            if (migracao.versao() <= atual) continue;
+
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement();
+                 PreparedStatement psVersao = conn.prepareStatement(
+                         "INSERT INTO schema_version (versao, descricao) VALUES (?, ?)")) {
+
+                for (String sql : migracao.comandos()) {
+                    stmt.executeUpdate(sql);
+                }
+                psVersao.setInt(1, migracao.versao());
+                psVersao.setString(2, migracao.descricao());
+                psVersao.executeUpdate();
+
+                conn.commit();
+                aplicadas++;
+                System.out.println("Migração " + migracao.versao() + " aplicada: " + migracao.descricao());
+            } catch (SQLException e) {
+                conn.rollback();
+                throw new SQLException("Falha na migração " + migracao.versao() + " (" + migracao.descricao() + ")", e);
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+
+        if (aplicadas > 0) {
+            // Atualiza estatísticas do planejador para os novos índices
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA optimize");
+            }
+        }
+        return aplicadas;
+    }
+}
@@ -0,0 +1,68 @@
+package db;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Ajustes de armazenamento do SQLite aplicados em cada conexão do pool.
+ *
+ * Escolha o perfil com -Dhotel.db.perfil=desk|bulk-import|reporting e, se preciso,
+ * sobrescreva valores isolados com -Dhotel.db.synchronous, -Dhotel.db.mmap,
+ * -Dhotel.db.cache e -Dhotel.db.busyTimeout.
+ *
+ * Todos os perfis usam WAL: leitores não bloqueiam o escritor e vice-versa.
+ * Trocar o journal_mode com outras conexões abertas falharia, por isso ele não varia.
+ */
+public record PerfilArmazenamento(
+        String nome,
+        String journalMode,
+        String synchronous,
+        long mmapBytes,
+        int cacheKiB,
+        String tempStore,
+        int busyTimeoutMs) {
+
+    // Balcão: muitas transações curtas, durabilidade garantida pelo WAL + NORMAL
+    public static final PerfilArmazenamento DESK =
+            new PerfilArmazenamento("desk", "WAL", "NORMAL", 256L << 20, 32 * 1024, "MEMORY", 5_000);
+
+    // Carga em massa: sem fsync, cache grande; use apenas em importações que podem ser refeitas
+    public static final PerfilArmazenamento BULK_IMPORT =
+            new PerfilArmazenamento("bulk-import", "WAL", "OFF", 256L << 20, 256 * 1024, "MEMORY", 30_000);
+
+    // Relatórios: leituras longas, mmap e cache maiores
+    public static final PerfilArmazenamento REPORTING =
+            new PerfilArmazenamento("reporting", "WAL", "NORMAL", 1L << 30, 128 * 1024, "MEMORY", 10_000);
+
+    public static final List<PerfilArmazenamento> PREDEFINIDOS = List.of(DESK, BULK_IMPORT, REPORTING);
+
+    public static PerfilArmazenamento porNome(String nome) {
+        for (PerfilArmazenamento perfil : PREDEFINIDOS) {
+            if (perfil.nome.equalsIgnoreCase(nome)) return perfil;
+        }
+        throw new IllegalArgumentException("Perfil de armazenamento desconhecido: " + nome);
+    }
+
+    /** Perfil escolhido pelas propriedades do sistema (padrão: desk). */
+    public static PerfilArmazenamento configurado() {
+        PerfilArmazenamento base = porNome(System.getProperty("hotel.db.perfil", DESK.nome));
+        return new PerfilArmazenamento(
+                base.nome,
+                base.journalMode,
+                System.getProperty("hotel.db.synchronous", base.synchronous).toUpperCase(Locale.ROOT),
+                Long.getLong("hotel.db.mmap", base.mmapBytes),
+                Integer.getInteger("hotel.db.cache", base.cacheKiB),
+                base.tempStore,
+                Integer.getInteger("hotel.db.busyTimeout", base.busyTimeoutMs));
+    }
+
+    public List<String> pragmas() {
+        return List.of(
+                "PRAGMA journal_mode = " + journalMode,
+                "PRAGMA synchronous = " + synchronous,
+                "PRAGMA mmap_size = " + mmapBytes,
+                "PRAGMA cache_size = -" + cacheKiB, // negativo = tamanho em KiB
+                "PRAGMA temp_store = " + tempStore,
+                "PRAGMA busy_timeout = " + busyTimeoutMs);
+    }
+}
@@ -0,0 +1,174 @@
+package diagnostico;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log de consultas lentas das conexões instrumentadas ({@link MetricasSql}):
+ * toda execução com mais de -Dhotel.db.lento.ms (padrão 100) dentro do driver
+ * (executeQuery e os next(); o tempo de quem lê entre as linhas não conta) vai
+ * para o arquivo com duração, linhas, tela, SQL e parâmetros vinculados. Na
+ * primeira vez que um SQL (normalizado) aparece, o EXPLAIN QUERY PLAN dele é
+ * capturado na mesma conexão e entra junto; planos com SCAN sem índice ficam
+ * marcados "[VARREDURA]" para achar com grep.
+ *
+ * A escrita é numa thread própria: quem consultou só enfileira (e, se a fila
+ * encher, a entrada é descartada e contada). O arquivo (-Dhotel.db.lento.arquivo,
+ * padrão consultas-lentas.log) gira ao passar de -Dhotel.db.lento.tamanhoMb
+ * (padrão 5), mantendo 3 anteriores (.1 a .3).
+ */
+public final class ConsultasLentas {
+
+    public static final long LIMIAR_NANOS = Long.getLong("hotel.db.lento.ms", 100) * 1_000_000;
+    public static final String ARQUIVO = System.getProperty("hotel.db.lento.arquivo", "consultas-lentas.log");
+    private static final long TAMANHO_MAXIMO = Long.getLong("hotel.db.lento.tamanhoMb", 5) * 1024 * 1024;
+    private static final int ARQUIVOS_ANTERIORES = 3;
+    private static final int LIMITE_PLANOS = 4096;
+    private static final int TAMANHO_PARAMETRO = 200;
+
+    private static final BlockingQueue<String> fila = new ArrayBlockingQueue<>(1000);
+    private static final Set<String> planosCapturados = ConcurrentHashMap.newKeySet();
+    private static final LongAdder registradas = new LongAdder();
+    private static final LongAdder descartadas = new LongAdder();
+
+    static {
+        Thread escritor = new Thread(ConsultasLentas::escrever, "consultas-lentas-log");
+        escritor.setDaemon(true);
+        escritor.start();
+        // o que ainda estiver na fila ao sair não se perde
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            String resto = fila.poll();
+            if (resto != null) gravar(resto);
+        }, "consultas-lentas-saida"));
+    }
+
+    private ConsultasLentas() {
+    }
+
+    /** Consultas lentas registradas desde o início. */
+    public static long getRegistradas() {
+        return registradas.sum();
+    }
+
+    /** Entradas perdidas porque a fila de escrita estava cheia. */
+    public static long getDescartadas() {
+        return descartadas.sum();
+    }
+
+    static void registrar(Connection conexao, String tela, String sql, Object[] parametros, long nanos, long linhas) {
+        registradas.increment();
+        String normalizado = MetricasSql.normalizar(sql);
+        String plano = null;
+        if (planosCapturados.size() < LIMITE_PLANOS && planosCapturados.add(normalizado)) {
+            plano = explicar(conexao, sql, parametros);
+        }
+
+        StringBuilder entrada = new StringBuilder(512);
+        entrada.append(LocalDateTime.now().withNano(0)).append(' ')
+               .append(String.format(Locale.ROOT, "%.1f ms no driver", nanos / 1e6)).append(", ")
+               .append(linhas).append(" linhas, tela ").append(tela);
+        if (plano != null && varredura(plano)) entrada.append(" [VARREDURA]");
+        entrada.append('\n').append("  SQL: ").append(sql.strip().replaceAll("\\s+", " ")).append('\n');
+        if (parametros.length > 0) entrada.append("  Parâmetros: ").append(formatar(parametros)).append('\n');
+        entrada.append(plano != null ? plano : "  Plano: já registrado na primeira ocorrência\n");
+
+        if (!fila.offer(entrada.toString())) descartadas.increment();
+    }
+
+    // Plano com os mesmos parâmetros (o LIKE e os índices parciais dependem deles), numa árvore indentada
+    private static String explicar(Connection conexao, String sql, Object[] parametros) {
+        StringBuilder plano = new StringBuilder("  Plano:\n");
+        try (PreparedStatement ps = conexao.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            int vinculaveis = Math.min(parametros.length, ps.getParameterMetaData().getParameterCount());
+            for (int i = 0; i < vinculaveis; i++) {
+                ps.setObject(i + 1, parametros[i]);
+            }
+            Map<Integer, Integer> profundidade = new HashMap<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int nivel = profundidade.getOrDefault(rs.getInt("parent"), 0) + 1;
+                    profundidade.put(rs.getInt("id"), nivel);
+                    plano.append("  ".repeat(nivel + 1)).append(rs.getString("detail")).append('\n');
+                }
+            }
+        } catch (SQLException e) {
+            plano.append("    (não foi possível obter o plano: ").append(e.getMessage()).append(")\n");
+        }
+        return plano.toString();
+    }
+
+    // "SCAN tabela" sem índice; "SCAN ... USING (COVERING) INDEX" percorre só o índice
+    private static boolean varredura(String plano) {
+        for (String linha : plano.split("\n")) {
+            String detalhe = linha.strip();
+            if (detalhe.startsWith("SCAN ") && !detalhe.contains(" USING ")) return true;
+        }
+        return false;
+    }
+
+    private static String formatar(Object[] parametros) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < parametros.length; i++) {
+            if (i > 0) sb.append(", ");
+            Object valor = parametros[i];
+            if (valor == null) {
+                sb.append("null");
+            } else if (valor instanceof Number) {
+                sb.append(valor);
+            } else {
+                String texto = String.valueOf(valor);
+                if (texto.length() > TAMANHO_PARAMETRO) texto = texto.substring(0, TAMANHO_PARAMETRO) + "...";
+                sb.append('\'').append(texto).append('\'');
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    private static void escrever() {
+        while (true) {
+            try {
+                gravar(fila.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // Grava a entrada e o que mais estiver na fila num só open/close
+    private static synchronized void gravar(String entrada) {
+        File arquivo = new File(ARQUIVO);
+        try {
+            if (arquivo.length() > TAMANHO_MAXIMO) girar(arquivo);
+            try (Writer out = new FileWriter(arquivo, StandardCharsets.UTF_8, true)) {
+                for (; entrada != null; entrada = fila.poll()) out.write(entrada);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // consultas-lentas.log -> .1 -> .2 -> .3 (o mais antigo sai)
+    private static void girar(File arquivo) {
+        new File(arquivo.getPath() + "." + ARQUIVOS_ANTERIORES).delete();
+        for (int i = ARQUIVOS_ANTERIORES - 1; i >= 1; i--) {
+            new File(arquivo.getPath() + "." + i).renameTo(new File(arquivo.getPath() + "." + (i + 1)));
+        }
+        arquivo.renameTo(new File(arquivo.getPath() + ".1"));
+    }
+}
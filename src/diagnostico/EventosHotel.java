@@ -0,0 +1,119 @@
+package diagnostico;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Eventos do Java Flight Recorder para as operações do hotel, para ver cada
+ * check-in, busca ou exportação ao lado de GC e threads numa gravação (ver
+ * {@link GravacaoJfr}). Sem gravação em andamento, criar e confirmar um evento
+ * não custa quase nada. Datas vão como texto aaaa-mm-dd; nenhum campo leva
+ * nome ou documento de hóspede.
+ *
+ * Uso: {@code evento.begin()}, preencher os campos, {@code evento.commit()}.
+ */
+public final class EventosHotel {
+
+    private EventosHotel() {
+    }
+
+    @Name("hotel.CheckIn")
+    @Label("Check-in")
+    @Category({ "Hotel", "Operações" })
+    @StackTrace(false)
+    public static class CheckIn extends Event {
+        @Label("Hóspede") public int hospedeId;
+        @Label("Cama") public int camaId;
+        @Label("Entrada") public String entrada;
+        @Label("Saída") public String saida;
+        @Label("Hospedagem") public int hospedagemId;
+        @Label("Concluído") public boolean sucesso;
+    }
+
+    @Name("hotel.CheckOut")
+    @Label("Check-out")
+    @Category({ "Hotel", "Operações" })
+    @StackTrace(false)
+    public static class CheckOut extends Event {
+        @Label("Hospedagem") @Description("0 quando é o quarto inteiro") public int hospedagemId;
+        @Label("Quarto") @Description("0 quando é uma hospedagem") public int quarto;
+        @Label("Hospedagens encerradas") public int hospedagens;
+        @Label("Concluído") public boolean sucesso;
+    }
+
+    @Name("hotel.Reserva")
+    @Label("Reserva criada")
+    @Category({ "Hotel", "Operações" })
+    @StackTrace(false)
+    public static class Reserva extends Event {
+        @Label("Hóspede") public int hospedeId;
+        @Label("Cama") public int camaId;
+        @Label("Entrada") public String entrada;
+        @Label("Saída") public String saida;
+        @Label("Reserva") public int reservaId;
+        @Label("Concluído") public boolean sucesso;
+    }
+
+    @Name("hotel.Disponibilidade")
+    @Label("Consulta de camas disponíveis")
+    @Category({ "Hotel", "Consultas" })
+    @StackTrace(false)
+    public static class Disponibilidade extends Event {
+        @Label("Início") public String inicio;
+        @Label("Fim") public String fim;
+        @Label("Camas") public int camas;
+        @Label("Origem") @Description("índice em memória ou banco") public String origem;
+    }
+
+    @Name("hotel.BuscaHospede")
+    @Label("Sugestões de hóspede")
+    @Category({ "Hotel", "Consultas" })
+    @StackTrace(false)
+    public static class BuscaHospede extends Event {
+        @Label("Caracteres digitados") public int caracteres;
+        @Label("Só sem hospedagem ativa") public boolean somenteSemHospedagemAtiva;
+        @Label("Limite") public int limite;
+        @Label("Linhas") public int linhas;
+        @Label("Origem") @Description("índice em memória ou banco") public String origem;
+    }
+
+    @Name("hotel.Relatorio")
+    @Label("Carga de relatório")
+    @Category({ "Hotel", "Relatórios" })
+    @StackTrace(false)
+    public static class Relatorio extends Event {
+        @Label("Relatório") public String relatorio;
+        @Label("Início") public String inicio;
+        @Label("Fim") public String fim;
+        @Label("Linhas") public long linhas;
+    }
+
+    @Name("hotel.Exportacao")
+    @Label("Exportação Excel/PDF")
+    @Category({ "Hotel", "Relatórios" })
+    @StackTrace(false)
+    public static class Exportacao extends Event {
+        @Label("Formato") public String formato;
+        @Label("Arquivo") public String arquivo;
+        @Label("Linhas") public long linhas;
+        @Label("Tamanho") @DataAmount public long bytes;
+        @Label("Concluído") public boolean sucesso;
+    }
+
+    @Name("hotel.Contrato")
+    @Label("Geração de contrato")
+    @Category({ "Hotel", "Contratos" })
+    @StackTrace(false)
+    public static class Contrato extends Event {
+        @Label("Modelo") public String modelo;
+        @Label("Hospedagem") @Description("0 em lote") public int hospedagemId;
+        @Label("Contratos") public long contratos;
+        @Label("Destino") @Description("arquivo, pasta ou zip") public String destino;
+        @Label("Concluído") public boolean sucesso;
+    }
+}
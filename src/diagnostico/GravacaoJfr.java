@@ -0,0 +1,60 @@
+package diagnostico;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * Gravação contínua do Flight Recorder ligada por -Dhotel.jfr=true: perfil
+ * "default" do JDK (baixo custo) mais os {@link EventosHotel}, num buffer
+ * circular em disco limitado por -Dhotel.jfr.tamanhoMb (padrão 100) e
+ * -Dhotel.jfr.minutos (padrão 60). Ao sair, o que estiver no buffer vai para
+ * -Dhotel.jfr.arquivo (padrão hotel.jfr); o diálogo de diagnóstico também
+ * salva uma cópia a qualquer momento.
+ */
+public final class GravacaoJfr {
+
+    public static final boolean ATIVO = Boolean.getBoolean("hotel.jfr");
+    private static final long TAMANHO_MB = Long.getLong("hotel.jfr.tamanhoMb", 100);
+    private static final long MINUTOS = Long.getLong("hotel.jfr.minutos", 60);
+    private static final String ARQUIVO = System.getProperty("hotel.jfr.arquivo", "hotel.jfr");
+
+    private static Recording gravacao;
+
+    private GravacaoJfr() {
+    }
+
+    /** Inicia a gravação se -Dhotel.jfr=true; pode ser chamado mais de uma vez. */
+    public static synchronized void iniciarSeConfigurado() {
+        if (!ATIVO || gravacao != null) return;
+        try {
+            Recording nova = new Recording(Configuration.getConfiguration("default"));
+            nova.setName("hotel");
+            nova.setToDisk(true);
+            nova.setMaxSize(TAMANHO_MB * 1024 * 1024);
+            nova.setMaxAge(Duration.ofMinutes(MINUTOS));
+            nova.setDumpOnExit(true);
+            nova.setDestination(Path.of(ARQUIVO));
+            nova.start();
+            gravacao = nova;
+            System.out.println("Gravação JFR contínua: " + TAMANHO_MB + " MB / " + MINUTOS + " min, salva em "
+                    + Path.of(ARQUIVO).toAbsolutePath() + " ao sair");
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static synchronized boolean gravando() {
+        return gravacao != null;
+    }
+
+    /** Copia o buffer atual para {@code destino} sem parar a gravação. */
+    public static synchronized void salvar(Path destino) throws IOException {
+        if (gravacao == null) throw new IOException("Nenhuma gravação JFR em andamento (-Dhotel.jfr=true).");
+        gravacao.dump(destino);
+    }
+}
@@ -0,0 +1,73 @@
+package diagnostico;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências sem trava: quatro faixas por potência de 2 (erro de
+ * até ~25% nos percentis), de 1 ns a horas, em 2 KB fixos. Pode ser alimentado
+ * por várias threads ao mesmo tempo.
+ */
+public class HistogramaLatencia {
+
+    private static final int FAIXAS = 64 * 4;
+
+    private final AtomicLongArray contagens = new AtomicLongArray(FAIXAS);
+    private final LongAdder contagem = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maximoNanos = new AtomicLong();
+
+    public void registrar(long nanos) {
+        if (nanos < 0) nanos = 0;
+        contagens.incrementAndGet(faixa(nanos));
+        contagem.increment();
+        totalNanos.add(nanos);
+        if (nanos > maximoNanos.get()) maximoNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long contagem() {
+        return contagem.sum();
+    }
+
+    public long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long maximoNanos() {
+        return maximoNanos.get();
+    }
+
+    public long mediaNanos() {
+        long n = contagem();
+        return n == 0 ? 0 : totalNanos() / n;
+    }
+
+    /** Limite superior da faixa onde cai o percentil {@code p} (0 a 1). */
+    public long percentilNanos(double p) {
+        long n = contagem();
+        if (n == 0) return 0;
+        long alvo = Math.max(1, (long) Math.ceil(p * n));
+        long acumulado = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            acumulado += contagens.get(i);
+            if (acumulado >= alvo) return Math.min(limiteSuperior(i), maximoNanos());
+        }
+        return maximoNanos();
+    }
+
+    // Faixas 0..3 são os valores exatos; depois, 4 subfaixas por potência de 2
+    static int faixa(long nanos) {
+        if (nanos < 4) return (int) nanos;
+        int expoente = 63 - Long.numberOfLeadingZeros(nanos);
+        int subfaixa = (int) ((nanos >>> (expoente - 2)) & 3);
+        return expoente * 4 + subfaixa;
+    }
+
+    static long limiteSuperior(int faixa) {
+        if (faixa < 4) return faixa;
+        int expoente = faixa / 4;
+        int subfaixa = faixa % 4;
+        return ((5L + subfaixa) << (expoente - 2)) - 1;
+    }
+}
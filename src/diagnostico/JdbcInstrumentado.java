@@ -0,0 +1,252 @@
+package diagnostico;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Proxies de Connection, Statement e ResultSet que medem cada execução e a
+ * entregam ao {@link MetricasSql}. Uma consulta conta só o tempo dentro do
+ * driver (o executeQuery mais cada next()), registrado no fim da leitura com as
+ * linhas lidas; o que quem lê faz entre um next() e outro (gravar arquivo,
+ * montar tabela) fica de fora. Escritas contam a chamada e as linhas alteradas. Execuções acima do limiar vão para
+ * o {@link ConsultasLentas} com os parâmetros vinculados.
+ */
+final class JdbcInstrumentado {
+
+    private JdbcInstrumentado() {
+    }
+
+    static Connection conexao(Connection real, String tela) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new Conexao(real, tela));
+    }
+
+    private static Object delegar(Object alvo, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class Conexao implements InvocationHandler {
+        final Connection real;
+        final String tela;
+        final List<Comando> abertos = new ArrayList<>();
+
+        Conexao(Connection real, String tela) {
+            this.real = real;
+            this.tela = tela;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            switch (metodo.getName()) {
+                case "prepareStatement", "prepareCall", "createStatement": {
+                    Statement statement = (Statement) delegar(real, metodo, args);
+                    String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                    Comando comando = new Comando(this, statement, sql);
+                    synchronized (abertos) {
+                        abertos.add(comando);
+                    }
+                    Class<?> tipo = statement instanceof CallableStatement ? CallableStatement.class
+                            : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                    return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] { tipo }, comando);
+                }
+                case "close":
+                    // o pool fecha os statements reais direto; as leituras ainda abertas contam aqui
+                    synchronized (abertos) {
+                        for (Comando comando : abertos) comando.encerrarLeitura();
+                        abertos.clear();
+                    }
+                    return delegar(real, metodo, args);
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : real.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || real.isWrapperFor((Class<?>) args[0]);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexaoInstrumentada[" + tela + ", " + real + "]";
+                default:
+                    return delegar(real, metodo, args);
+            }
+        }
+    }
+
+    private static final class Comando implements InvocationHandler {
+        final Conexao conexao;
+        final Statement real;
+        final String sql;
+        Leitura leitura;
+        Object[] parametros = new Object[8];
+        int quantidadeParametros;
+
+        Comando(Conexao conexao, Statement real, String sql) {
+            this.conexao = conexao;
+            this.real = real;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            String nome = metodo.getName();
+            switch (nome) {
+                case "executeQuery": {
+                    encerrarLeitura();
+                    String comando = sqlDe(args);
+                    long inicio = System.nanoTime();
+                    ResultSet rs;
+                    try {
+                        rs = (ResultSet) delegar(real, metodo, args);
+                    } catch (Throwable e) {
+                        medir(comando, System.nanoTime() - inicio, 0);
+                        throw e;
+                    }
+                    leitura = new Leitura(this, comando, System.nanoTime() - inicio, rs);
+                    return Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                            new Class<?>[] { ResultSet.class }, leitura);
+                }
+                case "executeUpdate", "executeLargeUpdate", "execute", "executeBatch", "executeLargeBatch": {
+                    encerrarLeitura();
+                    long inicio = System.nanoTime();
+                    Object resultado = null;
+                    try {
+                        resultado = delegar(real, metodo, args);
+                        return resultado;
+                    } finally {
+                        medir(nome.endsWith("Batch") ? sql : sqlDe(args), System.nanoTime() - inicio,
+                                linhasAlteradas(resultado));
+                    }
+                }
+                case "clearParameters":
+                    quantidadeParametros = 0;
+                    return delegar(real, metodo, args);
+                case "close":
+                    encerrarLeitura();
+                    synchronized (conexao.abertos) {
+                        conexao.abertos.remove(this);
+                    }
+                    return delegar(real, metodo, args);
+                case "getConnection":
+                    return real.getConnection();
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : real.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || real.isWrapperFor((Class<?>) args[0]);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    // setInt(1, x), setString(2, y)...: guarda para o log de consultas lentas
+                    if (args != null && args.length >= 2 && args[0] instanceof Integer indice
+                            && nome.startsWith("set") && real instanceof PreparedStatement) {
+                        encerrarLeitura(); // novos parâmetros: a leitura anterior acabou
+                        guardarParametro(indice, nome.equals("setNull") ? null : args[1]);
+                    }
+                    return delegar(real, metodo, args);
+            }
+        }
+
+        // nanos é só o tempo dentro do driver; é ele que decide o que é lento
+        void medir(String comando, long nanos, long linhas) {
+            MetricasSql.registrar(conexao.tela, comando, nanos, linhas);
+            if (nanos >= ConsultasLentas.LIMIAR_NANOS && comando != null) {
+                ConsultasLentas.registrar(conexao.real, conexao.tela, comando,
+                        Arrays.copyOf(parametros, quantidadeParametros), nanos, linhas);
+            }
+        }
+
+        private void guardarParametro(int indice, Object valor) {
+            if (indice < 1) return;
+            if (indice > parametros.length) parametros = Arrays.copyOf(parametros, Math.max(indice, parametros.length * 2));
+            parametros[indice - 1] = valor;
+            quantidadeParametros = Math.max(quantidadeParametros, indice);
+        }
+
+        private String sqlDe(Object[] args) {
+            return args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+        }
+
+        void encerrarLeitura() {
+            if (leitura != null) {
+                leitura.encerrar();
+                leitura = null;
+            }
+        }
+
+        private static long linhasAlteradas(Object resultado) {
+            if (resultado instanceof Number n) return Math.max(0, n.longValue());
+            long total = 0;
+            if (resultado instanceof int[] contagens) {
+                for (int c : contagens) if (c > 0) total += c;
+            } else if (resultado instanceof long[] contagens) {
+                for (long c : contagens) if (c > 0) total += c;
+            }
+            return total;
+        }
+    }
+
+    private static final class Leitura implements InvocationHandler {
+        final Comando comando;
+        final String sql;
+        final ResultSet real;
+        long nanos;
+        long linhas;
+        boolean encerrada;
+
+        Leitura(Comando comando, String sql, long nanosExecucao, ResultSet real) {
+            this.comando = comando;
+            this.sql = sql;
+            this.nanos = nanosExecucao;
+            this.real = real;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            switch (metodo.getName()) {
+                case "next": {
+                    long inicio = System.nanoTime();
+                    boolean tem = real.next();
+                    nanos += System.nanoTime() - inicio;
+                    if (tem) linhas++;
+                    else encerrar();
+                    return tem;
+                }
+                case "close":
+                    encerrar();
+                    real.close();
+                    return null;
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : real.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || real.isWrapperFor((Class<?>) args[0]);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return delegar(real, metodo, args);
+            }
+        }
+
+        void encerrar() {
+            if (encerrada) return;
+            encerrada = true;
+            comando.medir(sql, nanos, linhas);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package diagnostico;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Latência por SQL e por tela das conexões entregues pelo
+ * {@link db.DatabaseConnector}: histograma de cada SQL normalizado (literais
+ * viram ?), linhas lidas ou alteradas, e o tempo para conseguir a conexão do
+ * pool. A tela é a primeira classe de {@code view} na pilha de quem pediu a
+ * conexão (ou a primeira classe fora das camadas de banco, para rotinas de
+ * fundo como os índices em memória).
+ *
+ * Ligado por padrão; -Dhotel.db.metricas=false desliga e
+ * -Dhotel.db.metricas.arquivo=caminho grava o relatório ao sair. O custo é um
+ * proxy por chamada JDBC e uma entrada no histograma por execução.
+ */
+public final class MetricasSql {
+
+    public static final boolean ATIVO = !"false".equalsIgnoreCase(System.getProperty("hotel.db.metricas"));
+
+    /** Nome usado no lugar do SQL para o tempo de aquisição de conexão. */
+    public static final String AQUISICAO = "(aquisição de conexão)";
+
+    private static final int LIMITE_NORMALIZADAS = 4096;
+
+    private static final Pattern LISTA_PARAMETROS = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+
+    private static final StackWalker PILHA = StackWalker.getInstance();
+
+    private static final Map<Chave, Estatistica> estatisticas = new ConcurrentHashMap<>();
+    private static final Map<String, String> normalizadas = new ConcurrentHashMap<>();
+
+    private record Chave(String tela, String sql) {}
+
+    private static final class Estatistica {
+        final HistogramaLatencia latencia = new HistogramaLatencia();
+        final LongAdder linhas = new LongAdder();
+    }
+
+    /** Uma linha do relatório. Tempos em milissegundos. */
+    public record LinhaMetrica(String tela, String sql, long execucoes, long linhas, double totalMs,
+                               double mediaMs, double p50Ms, double p95Ms, double p99Ms, double maximoMs) {}
+
+    static {
+        String arquivo = System.getProperty("hotel.db.metricas.arquivo");
+        if (ATIVO && arquivo != null && !arquivo.isBlank()) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    salvar(new File(arquivo));
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }, "metricas-sql-relatorio"));
+        }
+    }
+
+    private MetricasSql() {
+    }
+
+    /**
+     * Embrulha uma conexão recém-emprestada para medir o que ela executa e
+     * registra quanto se esperou por ela. {@code tela} vem de {@link #telaChamadora()},
+     * a mesma que o pool guarda para o aviso de vazamento.
+     */
+    public static Connection instrumentar(Connection conn, String tela, long aquisicaoNanos) {
+        registrar(tela, AQUISICAO, aquisicaoNanos, 0);
+        return JdbcInstrumentado.conexao(conn, tela);
+    }
+
+    static void registrar(String tela, String sql, long nanos, long linhas) {
+        String normalizado = sql == null ? "(lote)" : AQUISICAO.equals(sql) ? sql : normalizar(sql);
+        Estatistica e = estatisticas.computeIfAbsent(new Chave(tela, normalizado), k -> new Estatistica());
+        e.latencia.registrar(nanos);
+        e.linhas.add(linhas);
+    }
+
+    /** Espaços colapsados, literais de texto e número trocados por ?, listas IN (?, ?, ...) como (?...). */
+    public static String normalizar(String sql) {
+        String pronto = normalizadas.get(sql);
+        if (pronto != null) return pronto;
+
+        StringBuilder sb = new StringBuilder(sql.length());
+        int n = sql.length();
+        for (int i = 0; i < n; i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                // 'texto', com '' escapado
+                for (i++; i < n; i++) {
+                    if (sql.charAt(i) != '\'') continue;
+                    if (i + 1 < n && sql.charAt(i + 1) == '\'') i++;
+                    else break;
+                }
+                sb.append('?');
+            } else if (Character.isDigit(c) && (sb.length() == 0 || !parteDeNome(sb.charAt(sb.length() - 1)))) {
+                while (i + 1 < n && (Character.isDigit(sql.charAt(i + 1)) || sql.charAt(i + 1) == '.')) i++;
+                sb.append('?');
+            } else if (Character.isWhitespace(c)) {
+                if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ' ') sb.append(' ');
+            } else {
+                sb.append(c);
+            }
+        }
+        String normalizado = LISTA_PARAMETROS.matcher(sb.toString().trim()).replaceAll("(?...)");
+        if (normalizadas.size() < LIMITE_NORMALIZADAS) normalizadas.put(sql, normalizado);
+        return normalizado;
+    }
+
+    private static boolean parteDeNome(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    /** Tela (classe de view) ou primeira classe de fora da infraestrutura na pilha atual. */
+    public static String telaChamadora() {
+        return PILHA.walk(frames -> {
+            String fora = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                String classe = frame.getClassName();
+                if (classe.startsWith("view.")) return nomeSimples(classe);
+                if (fora == null && !infraestrutura(classe)) fora = nomeSimples(classe);
+            }
+            return fora != null ? fora : "(desconhecida)";
+        });
+    }
+
+    static boolean infraestrutura(String classe) {
+        return classe.startsWith("diagnostico.") || classe.startsWith("db.") || classe.startsWith("service.")
+                || classe.startsWith("controller.ExecutorBusca") || classe.startsWith("java.")
+                || classe.startsWith("javax.") || classe.startsWith("jdk.") || classe.startsWith("sun.");
+    }
+
+    static String nomeSimples(String classe) {
+        int ponto = classe.lastIndexOf('.');
+        int dolar = classe.indexOf('$', ponto + 1);
+        return classe.substring(ponto + 1, dolar > 0 ? dolar : classe.length());
+    }
+
+    /** Fotografia atual, do maior tempo total para o menor. */
+    public static List<LinhaMetrica> linhas() {
+        List<LinhaMetrica> linhas = new ArrayList<>();
+        estatisticas.forEach((chave, e) -> {
+            HistogramaLatencia h = e.latencia;
+            long execucoes = h.contagem();
+            if (execucoes == 0) return;
+            linhas.add(new LinhaMetrica(chave.tela(), chave.sql(), execucoes, e.linhas.sum(),
+                    ms(h.totalNanos()), ms(h.mediaNanos()), ms(h.percentilNanos(0.50)),
+                    ms(h.percentilNanos(0.95)), ms(h.percentilNanos(0.99)), ms(h.maximoNanos())));
+        });
+        linhas.sort(Comparator.comparingDouble(LinhaMetrica::totalMs).reversed());
+        return linhas;
+    }
+
+    public static void zerar() {
+        estatisticas.clear();
+    }
+
+    /** Grava o relatório como texto separado por tabulação (abre em planilha). */
+    public static void salvar(File arquivo) throws IOException {
+        try (PrintWriter out = new PrintWriter(arquivo, StandardCharsets.UTF_8)) {
+            out.println("# Métricas SQL em " + LocalDateTime.now().withNano(0)
+                    + (ATIVO ? "" : " (desligadas: -Dhotel.db.metricas=false)"));
+            out.println("tela\tsql\texecucoes\tlinhas\ttotal_ms\tmedia_ms\tp50_ms\tp95_ms\tp99_ms\tmax_ms");
+            for (LinhaMetrica l : linhas()) {
+                out.println(String.format(Locale.ROOT, "%s\t%s\t%d\t%d\t%.3f\t%.3f\t%.3f\t%.3f\t%.3f\t%.3f",
+                        l.tela(), l.sql().replace('\t', ' '), l.execucoes(), l.linhas(), l.totalMs(),
+                        l.mediaMs(), l.p50Ms(), l.p95Ms(), l.p99Ms(), l.maximoMs()));
+            }
+        }
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,263 @@
+package diagnostico;
+
+import java.awt.AWTEvent;
+import java.awt.Component;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.awt.Window;
+import java.awt.event.InvocationEvent;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.swing.AbstractButton;
+
+/**
+ * Vigia da Event Dispatch Thread. Uma {@link EventQueue} própria mede cada
+ * evento despachado; uma thread de amostragem percebe quando um despacho passa
+ * do limiar, captura a pilha da EDT naquele momento e, quando o evento termina,
+ * registra o travamento (duração, tela, evento e pilha) no log e na memória
+ * para o diálogo de diagnóstico.
+ *
+ * A mesma thread posta um evento vazio a cada 100 ms e
+ * mede quanto ele esperou na fila: é o atraso que o atendente sente ao clicar.
+ *
+ * O log é escrito por uma thread própria, como em {@link ConsultasLentas}: a EDT
+ * só enfileira a entrada (fila cheia descarta).
+ *
+ * -Dhotel.edt.limiar=ms (padrão 200), -Dhotel.edt.log=arquivo (padrão
+ * edt-travamentos.log), -Dhotel.edt.monitor=false desliga.
+ */
+public final class MonitorEDT {
+
+    public static final boolean ATIVO = !"false".equalsIgnoreCase(System.getProperty("hotel.edt.monitor"));
+    public static final long LIMIAR_MS = Long.getLong("hotel.edt.limiar", 200);
+    public static final String ARQUIVO_LOG = System.getProperty("hotel.edt.log", "edt-travamentos.log");
+
+    private static final long PERIODO_SONDA_MS = 100;
+    private static final int TRAVAMENTOS_GUARDADOS = 200;
+    // Janela "recente" do atraso: troca de histograma a cada minuto
+    private static final long JANELA_MS = 60_000;
+
+    /** Um despacho que passou do limiar. */
+    public record Travamento(LocalDateTime inicio, long duracaoMs, String tela, String evento, String pilha) {}
+
+    private static volatile HistogramaLatencia despachos = new HistogramaLatencia();
+    private static volatile HistogramaLatencia atraso = new HistogramaLatencia();
+    private static volatile HistogramaLatencia atrasoJanelaAnterior = new HistogramaLatencia();
+    private static final Deque<Travamento> travamentos = new ArrayDeque<>();
+
+    private static final BlockingQueue<String> log = new ArrayBlockingQueue<>(100);
+    private static final FilaMonitorada FILA = new FilaMonitorada();
+    private static boolean instalado = false;
+
+    private MonitorEDT() {
+    }
+
+    /** Troca a fila de eventos do AWT pela monitorada e inicia a amostragem. Pode ser chamado mais de uma vez. */
+    public static synchronized void instalar() {
+        if (!ATIVO || instalado) return;
+        instalado = true;
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(FILA);
+
+        Thread amostrador = new Thread(MonitorEDT::amostrar, "monitor-edt");
+        amostrador.setDaemon(true);
+        amostrador.start();
+
+        Thread escritor = new Thread(MonitorEDT::escrever, "monitor-edt-log");
+        escritor.setDaemon(true);
+        escritor.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            String resto = log.poll();
+            if (resto != null) gravar(resto);
+        }, "monitor-edt-saida"));
+    }
+
+    /** Duração de cada evento despachado desde o início (ou desde {@link #zerar()}). */
+    public static HistogramaLatencia getDespachos() {
+        return despachos;
+    }
+
+    /** Espera na fila da sonda no último minuto completo. */
+    public static HistogramaLatencia getAtrasoRecente() {
+        return atrasoJanelaAnterior;
+    }
+
+    /** Travamentos mais recentes primeiro. */
+    public static List<Travamento> getTravamentos() {
+        synchronized (travamentos) {
+            return new ArrayList<>(travamentos);
+        }
+    }
+
+    public static void zerar() {
+        synchronized (travamentos) {
+            travamentos.clear();
+        }
+        despachos = new HistogramaLatencia();
+    }
+
+    private static void amostrar() {
+        long limiarNanos = LIMIAR_MS * 1_000_000;
+        long proximaSonda = 0;
+        long proximaJanela = System.currentTimeMillis() + JANELA_MS;
+        AtomicLong sondaPostada = new AtomicLong();
+        while (true) {
+            try {
+                Thread.sleep(Math.max(10, Math.min(PERIODO_SONDA_MS, LIMIAR_MS / 4)));
+            } catch (InterruptedException e) {
+                return;
+            }
+            long agora = System.nanoTime();
+
+            // Despacho em andamento há mais que o limiar: guarda a primeira pilha vista
+            FilaMonitorada.Despacho atual = FILA.atual;
+            if (atual != null && atual.pilha == null && agora - atual.inicio > limiarNanos) {
+                atual.pilha = atual.thread.getStackTrace();
+            }
+
+            // Uma sonda por vez: com a EDT travada, a espera dela cresce até a fila andar.
+            // Sem janela aberta não sonda, senão a fila nunca esvazia e o AWT não encerra
+            if (agora >= proximaSonda && haJanelaAberta() && sondaPostada.compareAndSet(0, agora)) {
+                proximaSonda = agora + PERIODO_SONDA_MS * 1_000_000;
+                EventQueue.invokeLater(() -> atraso.registrar(System.nanoTime() - sondaPostada.getAndSet(0)));
+            }
+
+            if (System.currentTimeMillis() >= proximaJanela) {
+                proximaJanela += JANELA_MS;
+                atrasoJanelaAnterior = atraso;
+                atraso = new HistogramaLatencia();
+            }
+        }
+    }
+
+    private static boolean haJanelaAberta() {
+        for (Window janela : Window.getWindows()) {
+            if (janela.isDisplayable()) return true;
+        }
+        return false;
+    }
+
+    private static void registrarTravamento(FilaMonitorada.Despacho despacho, long duracaoNanos) {
+        StackTraceElement[] pilha = despacho.pilha;
+        String tela = telaDoEvento(despacho.evento);
+        if (tela == null) tela = telaDaPilha(pilha);
+        Travamento travamento = new Travamento(despacho.horario, duracaoNanos / 1_000_000, tela,
+                descrever(despacho.evento), formatar(pilha));
+
+        synchronized (travamentos) {
+            travamentos.addFirst(travamento);
+            if (travamentos.size() > TRAVAMENTOS_GUARDADOS) travamentos.removeLast();
+        }
+        log.offer(String.format("%s EDT travada %d ms em %s (%s)%n%s%n", travamento.inicio(),
+                travamento.duracaoMs(), travamento.tela(), travamento.evento(), travamento.pilha()));
+    }
+
+    private static void escrever() {
+        while (true) {
+            try {
+                gravar(log.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // Grava a entrada e o que mais estiver na fila num só open/close
+    private static synchronized void gravar(String entrada) {
+        try (Writer out = new FileWriter(ARQUIVO_LOG, StandardCharsets.UTF_8, true)) {
+            for (; entrada != null; entrada = log.poll()) out.write(entrada);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Painel ou diálogo (classe de view) que contém o componente que originou o evento
+    private static String telaDoEvento(AWTEvent evento) {
+        if (!(evento.getSource() instanceof Component componente)) return null;
+        for (Component c = componente; c != null; c = c.getParent()) {
+            if (c.getClass().getName().startsWith("view.")) return MetricasSql.nomeSimples(c.getClass().getName());
+        }
+        return null;
+    }
+
+    private static String telaDaPilha(StackTraceElement[] pilha) {
+        if (pilha == null) return "(desconhecida)";
+        String fora = null;
+        for (StackTraceElement frame : pilha) {
+            String classe = frame.getClassName();
+            if (classe.startsWith("view.")) return MetricasSql.nomeSimples(classe);
+            if (fora == null && !MetricasSql.infraestrutura(classe)) fora = MetricasSql.nomeSimples(classe);
+        }
+        return fora != null ? fora : "(desconhecida)";
+    }
+
+    // Tipo do evento e, num botão ou item de menu, o texto dele: o clique que travou
+    private static String descrever(AWTEvent evento) {
+        if (evento instanceof InvocationEvent) return "invokeLater";
+        String nome = evento.paramString();
+        int virgula = nome.indexOf(',');
+        String descricao = virgula > 0 ? nome.substring(0, virgula) : nome;
+        if (evento.getSource() instanceof AbstractButton botao && botao.getText() != null) {
+            descricao += " em \"" + botao.getText() + "\"";
+        }
+        return descricao;
+    }
+
+    private static String formatar(StackTraceElement[] pilha) {
+        if (pilha == null) return "\t(pilha não capturada: terminou antes da amostragem)";
+        StringBuilder sb = new StringBuilder();
+        for (StackTraceElement frame : pilha) {
+            sb.append("\tat ").append(frame).append('\n');
+            // abaixo disso é só o laço de eventos do AWT
+            if (frame.getClassName().startsWith("java.awt.EventDispatchThread")) break;
+        }
+        return sb.toString().stripTrailing();
+    }
+
+    private static final class FilaMonitorada extends EventQueue {
+
+        static final class Despacho {
+            final AWTEvent evento;
+            final Thread thread = Thread.currentThread();
+            final long inicio = System.nanoTime();
+            final LocalDateTime horario = LocalDateTime.now();
+            volatile StackTraceElement[] pilha;
+            // abriu um diálogo modal: a EDT continuou despachando dentro deste evento
+            volatile boolean aninhou;
+
+            Despacho(AWTEvent evento) {
+                this.evento = evento;
+            }
+        }
+
+        volatile Despacho atual;
+
+        @Override
+        protected void dispatchEvent(AWTEvent evento) {
+            Despacho anterior = atual;
+            if (anterior != null) anterior.aninhou = true;
+            Despacho despacho = new Despacho(evento);
+            atual = despacho;
+            try {
+                super.dispatchEvent(evento);
+            } finally {
+                atual = anterior;
+                if (!despacho.aninhou) {
+                    long duracao = System.nanoTime() - despacho.inicio;
+                    despachos.registrar(duracao);
+                    if (duracao > LIMIAR_MS * 1_000_000) registrarTravamento(despacho, duracao);
+                }
+            }
+        }
+    }
+}
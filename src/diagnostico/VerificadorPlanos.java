@@ -0,0 +1,396 @@
+package diagnostico;
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import controller.FonteLinhas;
+import controller.LoteContratos;
+import db.DatabaseInitializer;
+import db.GeradorDadosSinteticos;
+import db.MigradorSchema;
+import model.OcupacaoQuarto;
+import service.FiltroHistorico;
+import service.HotelService;
+import service.LinhaHistorico;
+
+/**
+ * Verificação de planos de consulta, rodada no build (fase test, ver pom.xml):
+ * gera um banco sintético com as migrações e o ANALYZE, percorre os caminhos
+ * das telas (início, check-in, check-out, reserva, quarto, relatórios e
+ * contratos) pelo {@link HotelService} e demais classes que elas usam, guarda
+ * cada SQL executado com os parâmetros e roda o EXPLAIN QUERY PLAN dele.
+ *
+ * Falha (código de saída 1) quando um plano percorre hospedagem ou hospede
+ * inteira ("SCAN"), a não ser que o caminho declare a varredura como esperada
+ * para aquele SQL (um padrão do comando, não o caminho todo), com o motivo:
+ * listas completas por natureza, ou consultas com LIMIT. Outro SQL que o mesmo
+ * caminho passe a executar continua sendo conferido.
+ *
+ * Uso: {@code mvn test} (pular com -Dplanos.skip=true), ou direto, contra uma
+ * cópia do banco real: {@code java -cp ... diagnostico.VerificadorPlanos --banco copia.db}.
+ * O banco informado é alterado (check-in, reserva, check-out de teste).
+ */
+public final class VerificadorPlanos {
+
+    private static final Set<String> PALAVRAS_SQL = Set.of("ON", "WHERE", "JOIN", "LEFT", "INNER", "CROSS",
+            "SET", "ORDER", "GROUP", "LIMIT", "VALUES", "USING", "AND", "OR");
+    private static final Pattern TABELA_ALIAS =
+            Pattern.compile("\\b(hospedagem|hospede)\\b(?:\\s+(?:AS\\s+)?(\\w+))?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern VARREDURA = Pattern.compile("^SCAN (\\w+)");
+    // Mesmo tamanho de página da tela do histórico
+    private static final int PAGINA_HISTORICO = 200;
+
+    @FunctionalInterface
+    private interface Acao {
+        void executar() throws Exception;
+    }
+
+    /** Varredura aceita de uma tabela, só nos SQLs em que o padrão é encontrado. */
+    private record Isencao(String tabela, Pattern sql, String motivo) {}
+
+    /** Um caminho de tela e as varreduras que ele pode fazer. */
+    private record Caminho(String nome, Acao acao, List<Isencao> isencoes) {}
+
+    /** SQL executado por um caminho, com os últimos parâmetros vinculados. */
+    private record Execucao(String sql, Object[] parametros) {}
+
+    private final String url;
+    private final List<Caminho> caminhos = new ArrayList<>();
+    private Map<String, Object[]> capturadas = new LinkedHashMap<>();
+
+    private VerificadorPlanos(String url) {
+        this.url = url;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String banco = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--banco") && i + 1 < args.length) banco = args[++i];
+            else throw new IllegalArgumentException("Uso: VerificadorPlanos [--banco arquivo.db]");
+        }
+
+        File temporario = null;
+        if (banco == null) {
+            temporario = File.createTempFile("planos-", ".db");
+            temporario.delete();
+            banco = temporario.getPath();
+            // Pequeno para o build, mas com proporções de um hotel real para o ANALYZE
+            GeradorDadosSinteticos.gerar("jdbc:sqlite:" + banco, new GeradorDadosSinteticos.Configuracao(
+                    40, 4, 5_000, 2, 0.8, 42L, LocalDate.now()));
+        } else {
+            // Cópia do banco real: versão atual do schema e estatísticas novas
+            try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + banco);
+                 Statement st = conn.createStatement()) {
+                new MigradorSchema(DatabaseInitializer.MIGRACOES).migrar(conn);
+                st.execute("ANALYZE");
+            }
+        }
+
+        int falhas;
+        try {
+            falhas = new VerificadorPlanos("jdbc:sqlite:" + banco).verificar();
+        } finally {
+            if (temporario != null) {
+                for (String sufixo : new String[]{"", "-wal", "-shm", "-journal"}) {
+                    new File(temporario.getPath() + sufixo).delete();
+                }
+            }
+        }
+        if (falhas > 0) {
+            System.out.println(falhas + " consulta(s) com varredura completa de hospedagem ou hospede.");
+            System.exit(1);
+        }
+        System.out.println("Planos de consulta OK.");
+    }
+
+    private int verificar() throws Exception {
+        registrarCaminhos();
+        int falhas = 0;
+        try (Connection conn = DriverManager.getConnection(url)) {
+            for (Caminho caminho : caminhos) {
+                capturadas = new LinkedHashMap<>();
+                caminho.acao().executar();
+                System.out.println("== " + caminho.nome());
+                for (Map.Entry<String, Object[]> e : capturadas.entrySet()) {
+                    falhas += conferir(conn, caminho, new Execucao(e.getKey(), e.getValue()));
+                }
+            }
+        }
+        return falhas;
+    }
+
+    private void registrarCaminhos() throws Exception {
+        Callable<Connection> conexoes = () -> capturar(DriverManager.getConnection(url));
+        HotelService servico = new HotelService(conexoes);
+        LocalDate hoje = LocalDate.now();
+        String nome = primeiroNome();
+
+        caminho("InicioPanel: quadro de ocupação", () -> {
+            try (Connection conn = conexoes.call()) {
+                OcupacaoQuarto.carregarTodos(conn);
+            }
+        });
+
+        caminho("CheckInPanel: camas livres", servico::camasDisponiveis);
+        caminho("CheckInPanel: sugestões de hóspede", () -> servico.buscarHospedes(nome, true, 50));
+        caminho("CheckInPanel: sugestões sem texto", () -> servico.buscarHospedes("", true, 50),
+                isencao("hospede", "FROM hospede ho WHERE 1=1 .*ORDER BY ho\\.id DESC LIMIT \\?$",
+                        "mais recentes com LIMIT, em ordem de id"));
+        caminho("CheckInPanel: hospedagens ativas", () -> servico.hospedagensAtivas(null));
+        caminho("CheckInPanel: check-in", () -> {
+            int[] livres = hospedeECamaLivres();
+            servico.realizarCheckIn(livres[0], livres[1], hoje, hoje.plusDays(3));
+        });
+
+        caminho("CheckOutPanel: busca de hospedagens ativas", () -> servico.hospedagensAtivas(nome));
+        caminho("EditCheckOutDialog: hospedagem", () -> servico.buscarHospedagem(hospedagemAtiva()));
+        caminho("CheckOutPanel: check-out", () -> servico.realizarCheckOut(hospedagemAtiva()));
+
+        caminho("ReservaPanel: camas disponíveis no período",
+                () -> servico.camasDisponiveis(hoje.plusDays(10), hoje.plusDays(15)));
+        caminho("ReservaPanel: hóspedes sem hospedagem ativa", servico::hospedesSemHospedagemAtiva,
+                isencao("hospede", "^SELECT id, nome FROM hospede WHERE id NOT IN \\(.*\\) ORDER BY nome$",
+                        "lista todos os hóspedes para o combo, por nome"));
+        caminho("ReservaPanel: reserva", () -> {
+            int[] livres = hospedeECamaLivres();
+            servico.reservar(livres[0], livres[1], hoje.plusDays(70), hoje.plusDays(72));
+        });
+        caminho("ReservaPanel: reservas futuras", servico::reservasFuturas);
+        caminho("EditReservaDialog: check-in da reserva", () -> servico.realizarCheckInDaReserva(reservaFutura()));
+        caminho("ProjecaoVagasDialog: camas livres por dia", () -> servico.camasLivresPorDia(hoje, 30));
+
+        caminho("QuartoDialog: hóspedes do quarto", () -> servico.hospedagensAtivasDoQuarto(1));
+        caminho("QuartoDialog: liberar quarto", () -> servico.liberarQuarto(2));
+
+        caminho("Relatório de camas vagas", servico::relatorioCamasVagas);
+        caminho("Relatório de hóspedes hospedados", servico::relatorioHospedesHospedados);
+        FiltroHistorico semFiltro = new FiltroHistorico(null, null, null, null);
+        caminho("Histórico: sem filtro", () -> historico(servico, semFiltro),
+                isencao("hospedagem", "WHERE 1=1 ORDER BY hos\\.id DESC LIMIT \\?$",
+                        "primeira página com LIMIT na ordem do id"),
+                isencao("hospedagem", "^SELECT COUNT\\(\\*\\), .* WHERE 1=1$",
+                        "os totais sem filtro contam todas as hospedagens"));
+        caminho("Histórico: pular para uma página distante", () -> servico.historicoIdNaPosicao(semFiltro, 0, 1000),
+                isencao("hospedagem", "^SELECT hos\\.id .* WHERE 1=1 ORDER BY hos\\.id DESC LIMIT 1 OFFSET \\?$",
+                        "OFFSET pela chave primária, só ao arrastar a barra de rolagem"));
+        caminho("Histórico: período", () -> historico(servico,
+                new FiltroHistorico(hoje.minusMonths(1), hoje, null, null)));
+        caminho("Histórico: nome", () -> historico(servico, new FiltroHistorico(null, null, null, nome)));
+        caminho("Histórico: período e nome", () -> historico(servico,
+                new FiltroHistorico(hoje.minusMonths(1), hoje, null, nome)));
+        caminho("Histórico: exportação", () -> {
+            try (FonteLinhas fonte = servico.relatorioHistorico(semFiltro)) {
+                fonte.proxima();
+            }
+        }, isencao("hospedagem", "WHERE 1=1 ORDER BY hos\\.id DESC$", "a exportação grava todas as hospedagens"));
+
+        caminho("ContratosLoteDialog: contagem do período",
+                () -> servico.contarEntradasNoPeriodo(hoje.minusDays(7), hoje));
+        caminho("ContratosLoteDialog: contratos do período", () -> {
+            try (FonteLinhas fonte = LoteContratos.porPeriodo(conexoes, hoje.minusDays(7), hoje)) {
+                fonte.proxima();
+            }
+        });
+    }
+
+    private void caminho(String nome, Acao acao, Isencao... isencoes) {
+        caminhos.add(new Caminho(nome, acao, List.of(isencoes)));
+    }
+
+    // padraoSql é procurado (regex) no SQL com os espaços normalizados
+    private static Isencao isencao(String tabela, String padraoSql, String motivo) {
+        return new Isencao(tabela, Pattern.compile(padraoSql, Pattern.CASE_INSENSITIVE), motivo);
+    }
+
+    // Como a tela: primeira página, a seguinte pela chave e os totais
+    private static void historico(HotelService servico, FiltroHistorico filtro) throws Exception {
+        List<LinhaHistorico> pagina = servico.historicoPagina(filtro, 0, PAGINA_HISTORICO);
+        if (!pagina.isEmpty()) {
+            servico.historicoPagina(filtro, pagina.get(pagina.size() - 1).id(), PAGINA_HISTORICO);
+        }
+        servico.totaisHistorico(filtro);
+    }
+
+    private int conferir(Connection conn, Caminho caminho, Execucao execucao) throws SQLException {
+        String sql = execucao.sql().strip().replaceAll("\\s+", " ");
+        List<String> plano = explicar(conn, execucao);
+        Map<String, String> aliases = aliases(sql);
+
+        String varrida = null;
+        for (String linha : plano) {
+            Matcher m = VARREDURA.matcher(linha.strip());
+            if (m.find() && aliases.containsKey(m.group(1).toLowerCase(Locale.ROOT))) {
+                varrida = aliases.get(m.group(1).toLowerCase(Locale.ROOT));
+                break;
+            }
+        }
+
+        Isencao isencao = null;
+        if (varrida != null) {
+            for (Isencao i : caminho.isencoes()) {
+                if (i.tabela().equals(varrida) && i.sql().matcher(sql).find()) {
+                    isencao = i;
+                    break;
+                }
+            }
+        }
+
+        String situacao;
+        int falha = 0;
+        if (varrida == null) {
+            situacao = "ok";
+        } else if (isencao != null) {
+            situacao = "varredura de " + varrida + " esperada: " + isencao.motivo();
+        } else {
+            situacao = "FALHA: varredura completa de " + varrida;
+            falha = 1;
+        }
+        System.out.println("  [" + situacao + "] " + sql);
+        if (falha > 0 || varrida != null) {
+            for (String linha : plano) System.out.println("      " + linha);
+        }
+        return falha;
+    }
+
+    // Plano indentado pela árvore (parent/id), com os parâmetros da execução
+    private static List<String> explicar(Connection conn, Execucao execucao) throws SQLException {
+        List<String> plano = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement("EXPLAIN QUERY PLAN " + execucao.sql())) {
+            Object[] parametros = execucao.parametros();
+            int vinculaveis = Math.min(parametros.length, ps.getParameterMetaData().getParameterCount());
+            for (int i = 0; i < vinculaveis; i++) ps.setObject(i + 1, parametros[i]);
+            Map<Integer, Integer> profundidade = new HashMap<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int nivel = profundidade.getOrDefault(rs.getInt("parent"), 0) + 1;
+                    profundidade.put(rs.getInt("id"), nivel);
+                    plano.add("  ".repeat(nivel - 1) + rs.getString("detail"));
+                }
+            }
+        }
+        return plano;
+    }
+
+    // Nome ou apelido que o plano usa -> tabela vigiada ("hos" -> hospedagem)
+    private static Map<String, String> aliases(String sql) {
+        Map<String, String> aliases = new HashMap<>();
+        Matcher m = TABELA_ALIAS.matcher(sql);
+        while (m.find()) {
+            String tabela = m.group(1).toLowerCase(Locale.ROOT);
+            aliases.put(tabela, tabela);
+            String alias = m.group(2);
+            if (alias != null && !PALAVRAS_SQL.contains(alias.toUpperCase(Locale.ROOT))) {
+                aliases.put(alias.toLowerCase(Locale.ROOT), tabela);
+            }
+        }
+        return aliases;
+    }
+
+    /* ===== Dados para os caminhos de escrita ===== */
+
+    private String primeiroNome() throws SQLException {
+        String nome = consultarTexto("SELECT nome FROM hospede ORDER BY id LIMIT 1");
+        return nome == null ? "Silva" : nome.split(" ")[0];
+    }
+
+    private int[] hospedeECamaLivres() throws SQLException {
+        String hospede = consultarTexto("SELECT id FROM hospede ho WHERE NOT EXISTS "
+                + "(SELECT 1 FROM hospedagem h WHERE h.hospede_id = ho.id AND h.status = 1) LIMIT 1");
+        String cama = consultarTexto("SELECT id FROM cama WHERE status = 0 LIMIT 1");
+        if (hospede == null || cama == null) throw new SQLException("Banco sem hóspede ou cama livre para o teste.");
+        return new int[]{Integer.parseInt(hospede), Integer.parseInt(cama)};
+    }
+
+    private int hospedagemAtiva() throws SQLException {
+        String id = consultarTexto("SELECT id FROM hospedagem WHERE status = 1 ORDER BY id DESC LIMIT 1");
+        if (id == null) throw new SQLException("Banco sem hospedagem ativa para o teste.");
+        return Integer.parseInt(id);
+    }
+
+    private int reservaFutura() throws SQLException {
+        String id = consultarTexto("SELECT id FROM hospedagem WHERE status = 0 AND data_entrada > date('now') "
+                + "ORDER BY id DESC LIMIT 1");
+        if (id == null) throw new SQLException("Banco sem reserva futura para o teste.");
+        return Integer.parseInt(id);
+    }
+
+    // Fora da captura: não entra na verificação
+    private String consultarTexto(String sql) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url);
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    /* ===== Captura ===== */
+
+    private Connection capturar(Connection real) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, metodo, args) -> {
+                    Object resultado = invocar(real, metodo, args);
+                    String nome = metodo.getName();
+                    if ((nome.equals("prepareStatement") || nome.equals("prepareCall")) && args[0] instanceof String sql) {
+                        Class<?> tipo = nome.equals("prepareCall") ? CallableStatement.class : PreparedStatement.class;
+                        return comando(resultado, tipo, sql);
+                    }
+                    if (nome.equals("createStatement")) return comando(resultado, Statement.class, null);
+                    return resultado;
+                });
+    }
+
+    private Object comando(Object real, Class<?> tipo, String sql) {
+        Object[][] parametros = {new Object[0]};
+        InvocationHandler handler = (proxy, metodo, args) -> {
+            String nome = metodo.getName();
+            if (nome.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer indice) {
+                if (parametros[0].length < indice) parametros[0] = Arrays.copyOf(parametros[0], indice);
+                parametros[0][indice - 1] = nome.equals("setNull") ? null : args[1];
+            } else if (nome.equals("clearParameters")) {
+                parametros[0] = new Object[0];
+            } else if (nome.startsWith("execute") || nome.equals("addBatch")) {
+                String executado = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+                if (executado != null && relevante(executado)) {
+                    capturadas.put(executado, parametros[0].clone());
+                }
+            }
+            return invocar(real, metodo, args);
+        };
+        return Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, handler);
+    }
+
+    // Só o que toca tabelas; last_insert_rowid, PRAGMA e afins ficam de fora
+    private static boolean relevante(String sql) {
+        return TABELA_ALIAS.matcher(sql).find() || sql.toUpperCase(Locale.ROOT).contains(" FROM ");
+    }
+
+    private static Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
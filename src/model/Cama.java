@@ -4,6 +4,7 @@ public class Cama {
 	
 	private int id;
 	private String descricao;
+	private int quartoNumero;
 	
 	//Constructors
 	
@@ -16,6 +17,12 @@ public class Cama {
 		this.descricao = desc;
 	}
 	
+	public Cama(int id, String desc, int quartoNumero) {
+		this.id = id;
+		this.descricao = desc;
+		this.quartoNumero = quartoNumero;
+	}
+	
 	
 	//Getters and Setters
 	
@@ -34,6 +41,14 @@ public class Cama {
 	public void setDescricao(String descricao) {
 		this.descricao = descricao;
 	}
+
+	public int getQuartoNumero() {
+		return quartoNumero;
+	}
+
+	public void setQuartoNumero(int quartoNumero) {
+		this.quartoNumero = quartoNumero;
+	}
 	
 	
 	@Override
@@ -2,7 +2,10 @@ package model;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
 
+import cache.NotificadorAlteracoes;
 import db.DatabaseConnector;
 
 public class Hospede {
@@ -84,6 +87,14 @@ public class Hospede {
             stmt.setString(5, email);
 
             stmt.executeUpdate();
+            // o driver do SQLite não implementa getGeneratedKeys
+            try (Statement st = conn.createStatement();
+                 ResultSet keys = st.executeQuery("SELECT last_insert_rowid()")) {
+                if (keys.next()) {
+                    id = keys.getInt(1);
+                    NotificadorAlteracoes.hospedeAlterado(id);
+                }
+            }
             System.out.println("Hóspede inserido com sucesso.");
 
         } catch (Exception e) {
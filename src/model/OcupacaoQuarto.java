@@ -0,0 +1,80 @@
+package model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Situação de um quarto para o quadro de ocupação da tela inicial:
+ * hóspedes com hospedagem ativa e a data de saída mais próxima.
+ */
+public class OcupacaoQuarto {
+
+    // Uma linha por quarto vazio e uma por hóspede ativo, já ordenadas por quarto
+    private static final String SQL_SNAPSHOT =
+        "SELECT q.numero, o.nome, o.data_saida " +
+        "FROM quarto q " +
+        "LEFT JOIN ( " +
+        "    SELECT c.quarto_numero, h.nome, res.data_saida " +
+        "    FROM hospedagem res " +
+        "    JOIN cama c ON res.cama_id = c.id " +
+        "    JOIN hospede h ON res.hospede_id = h.id " +
+        "    WHERE res.status = 1 " +
+        ") o ON o.quarto_numero = q.numero " +
+        "ORDER BY q.numero";
+
+    private final int numero;
+    private final List<String> hospedes = new ArrayList<>();
+    private LocalDate dataDesocupacao;
+
+    public OcupacaoQuarto(int numero) {
+        this.numero = numero;
+    }
+
+    public int getNumero() {
+        return numero;
+    }
+
+    public List<String> getHospedes() {
+        return hospedes;
+    }
+
+    public LocalDate getDataDesocupacao() {
+        return dataDesocupacao;
+    }
+
+    /** Monta a ocupação de todos os quartos com uma única consulta, em uma passada. */
+    public static List<OcupacaoQuarto> carregarTodos(Connection conn) throws SQLException {
+        List<OcupacaoQuarto> quartos = new ArrayList<>();
+
+        try (PreparedStatement ps = conn.prepareStatement(SQL_SNAPSHOT);
+             ResultSet rs = ps.executeQuery()) {
+
+            OcupacaoQuarto atual = null;
+            while (rs.next()) {
+                int numero = rs.getInt(1);
+                if (atual == null || atual.numero != numero) {
+                    atual = new OcupacaoQuarto(numero);
+                    quartos.add(atual);
+                }
+
+                String nome = rs.getString(2);
+                if (nome == null) continue; // quarto sem hóspedes ativos
+                atual.hospedes.add(nome);
+
+                String dataSaidaStr = rs.getString(3);
+                if (dataSaidaStr != null && !dataSaidaStr.isEmpty()) {
+                    LocalDate data = LocalDate.parse(dataSaidaStr); // ISO yyyy-MM-dd
+                    if (atual.dataDesocupacao == null || data.isBefore(atual.dataDesocupacao)) {
+                        atual.dataDesocupacao = data;
+                    }
+                }
+            }
+        }
+        return quartos;
+    }
+}
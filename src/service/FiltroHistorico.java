@@ -0,0 +1,10 @@
+package service;
+
+import java.time.LocalDate;
+
+/**
+ * Filtros do histórico de hospedagens; campo null não filtra. {@code busca} é o
+ * texto digitado (nome, documento, contato), com a mesma regra do autocomplete.
+ */
+public record FiltroHistorico(LocalDate dataInicio, LocalDate dataFim, String sexo, String busca) {
+}
@@ -0,0 +1,100 @@
+package service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import controller.FonteLinhas;
+import model.Cama;
+import model.Hospede;
+
+/**
+ * Acesso aos dados usado pelo {@link HotelService}. Cada operação de escrita é
+ * uma transação completa; as regras de negócio que dependem do estado do banco
+ * (cama ainda livre, hóspede já hospedado) são conferidas dentro dela e recusadas
+ * com {@link OperacaoRecusada}.
+ *
+ * A implementação do sistema é {@link HotelRepositorySqlite}.
+ */
+public interface HotelRepository {
+
+    /* ===== Escrita ===== */
+
+    /** Ocupa a cama e grava a hospedagem ativa; retorna a hospedagem já com os dados do contrato. */
+    LinhaHospedagem registrarCheckIn(int hospedeId, int camaId, LocalDate entrada, LocalDate saida) throws Exception;
+
+    /**
+     * Check-in de uma reserva: ocupa a cama e ativa a hospedagem, com as mesmas
+     * regras de {@link #registrarCheckIn}; null se a reserva não existe mais ou já foi ativada.
+     */
+    LinhaHospedagem registrarCheckInDaReserva(int reservaId) throws Exception;
+
+    /** Grava a reserva (hospedagem com status 0) e retorna o id. */
+    int registrarReserva(int hospedeId, int camaId, LocalDate entrada, LocalDate saida) throws Exception;
+
+    /** Encerra a hospedagem ativa na data e libera a cama; false se ela não existe ou já foi encerrada. */
+    boolean registrarCheckOut(int hospedagemId, LocalDate data) throws Exception;
+
+    /** Encerra as hospedagens ativas do quarto na data e libera as camas; retorna quantas encerrou. */
+    int liberarQuarto(int numeroQuarto, LocalDate data) throws Exception;
+
+    /* ===== Consultas ===== */
+
+    /** Camas sem ninguém hospedado agora, por descrição. */
+    List<Cama> camasLivres() throws Exception;
+
+    /** Camas sem nenhuma hospedagem (ativa, encerrada ou reserva) sobrepondo o período, por descrição. */
+    List<Cama> camasSemHospedagemNoPeriodo(LocalDate inicio, LocalDate fim) throws Exception;
+
+    /** Camas sem hospedagem em cada dia: {@code livres[i]} é o total do dia {@code inicio + i}. */
+    int[] camasLivresPorDia(LocalDate inicio, int dias) throws Exception;
+
+    /** Mesma regra de {@link db.BuscaHospedes#buscar}: mais relevantes primeiro, termo vazio lista os mais recentes. */
+    List<Hospede> buscarHospedes(String termo, boolean somenteSemHospedagemAtiva, int limite) throws Exception;
+
+    /** Todos os hóspedes sem hospedagem ativa, por nome. */
+    List<Hospede> hospedesSemHospedagemAtiva() throws Exception;
+
+    /** Hospedagens ativas, mais novas primeiro; {@code termo} filtra pelo hóspede (null ou vazio: todas). */
+    List<LinhaHospedagem> hospedagensAtivas(String termo) throws Exception;
+
+    List<LinhaHospedagem> hospedagensAtivasDoQuarto(int numeroQuarto) throws Exception;
+
+    /** Reservas com entrada depois de {@code hoje}, pela data de entrada. */
+    List<LinhaHospedagem> reservasFuturas(LocalDate hoje) throws Exception;
+
+    /** null se a hospedagem não existe. */
+    LinhaHospedagem buscarHospedagem(int hospedagemId) throws Exception;
+
+    /* ===== Relatórios ===== */
+
+    /** Hóspedes com hospedagem ativa (nome, documento, telefone e email). */
+    List<Hospede> hospedesHospedados() throws Exception;
+
+    /**
+     * Histórico filtrado, mais novo primeiro, com as colunas de
+     * {@link #COLUNAS_HISTORICO} e as datas em ISO. Lido aos poucos: serve à
+     * tela e à exportação de milhões de linhas.
+     */
+    FonteLinhas historico(FiltroHistorico filtro) throws Exception;
+
+    /**
+     * Uma página do histórico na mesma ordem: até {@code limite} hospedagens com id
+     * menor que {@code antesDoId} (0 começa das mais novas). Paginação por chave,
+     * o custo não cresce com a página.
+     */
+    List<LinhaHistorico> historicoPagina(FiltroHistorico filtro, int antesDoId, int limite) throws Exception;
+
+    /**
+     * Id da hospedagem {@code deslocamento} posições depois de {@code antesDoId}
+     * (0: do começo) na ordem do histórico, para pular a uma página distante; 0 se
+     * não houver.
+     */
+    int historicoIdNaPosicao(FiltroHistorico filtro, int antesDoId, int deslocamento) throws Exception;
+
+    TotaisHistorico totaisHistorico(FiltroHistorico filtro) throws Exception;
+
+    /** Hospedagens com entrada no período (inclusive), as que o lote de contratos gera. */
+    int contarEntradasNoPeriodo(LocalDate inicio, LocalDate fim) throws Exception;
+
+    String[] COLUNAS_HISTORICO = {"Nome", "Sexo", "Documento", "Telefone", "Email", "Data Entrada", "Data Saída"};
+}
@@ -0,0 +1,493 @@
+package service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import controller.FonteLinhas;
+import db.BuscaHospedes;
+import model.Cama;
+import model.Hospede;
+
+/**
+ * {@link HotelRepository} sobre o banco SQLite. As conexões vêm de quem cria o
+ * repositório (o pool do sistema, um banco de teste, a conexão cancelável de uma
+ * busca) e cada método fecha a sua.
+ */
+public class HotelRepositorySqlite implements HotelRepository {
+
+    private static final String SQL_OCUPA_CAMA =
+            "UPDATE cama SET status = 1 WHERE id = ? AND status = 0";
+    private static final String SQL_HOSPEDE_ATIVO =
+            "SELECT 1 FROM hospedagem WHERE hospede_id = ? AND status = 1 LIMIT 1";
+    private static final String SQL_RESERVA =
+            "SELECT hospede_id, cama_id FROM hospedagem WHERE id = ? AND status = 0";
+    private static final String SQL_INSERE_HOSPEDAGEM =
+            "INSERT INTO hospedagem (hospede_id, cama_id, data_entrada, data_saida, status) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String SELECT_HOSPEDAGEM =
+            "SELECT h.id, ho.nome, ho.documento, ho.email, ho.telefone, c.descricao, c.quarto_numero, " +
+            "h.data_entrada, h.data_saida " +
+            "FROM hospedagem h " +
+            "JOIN hospede ho ON ho.id = h.hospede_id " +
+            "JOIN cama c ON c.id = h.cama_id ";
+
+    private static final String FROM_HISTORICO =
+            "FROM hospede h JOIN hospedagem hos ON hos.hospede_id = h.id ";
+
+    private static final String SELECT_HISTORICO =
+            "SELECT h.nome, h.sexo, h.documento, h.telefone, h.email, hos.data_entrada, hos.data_saida " +
+            FROM_HISTORICO;
+
+    private static final String SELECT_PAGINA_HISTORICO =
+            "SELECT hos.id, h.nome, h.sexo, h.documento, h.telefone, h.email, hos.data_entrada, hos.data_saida " +
+            FROM_HISTORICO;
+
+    private static final String SELECT_TOTAIS_HISTORICO =
+            "SELECT COUNT(*), " +
+            "COALESCE(SUM(julianday(hos.data_saida) - julianday(hos.data_entrada)), 0) " +
+            "FROM hospedagem hos JOIN hospede h ON h.id = hos.hospede_id ";
+
+    private final Callable<Connection> conexoes;
+
+    public HotelRepositorySqlite(Callable<Connection> conexoes) {
+        this.conexoes = conexoes;
+    }
+
+    /* ===== Escrita ===== */
+
+    @Override
+    public LinhaHospedagem registrarCheckIn(int hospedeId, int camaId, LocalDate entrada, LocalDate saida) throws Exception {
+        return emTransacao(conn -> {
+            // A escrita vem primeiro: a transação já pega a trava de escrita e ninguém
+            // ocupa a mesma cama entre a verificação e o INSERT
+            try (PreparedStatement ps = conn.prepareStatement(SQL_OCUPA_CAMA)) {
+                ps.setInt(1, camaId);
+                if (ps.executeUpdate() == 0) {
+                    throw new OperacaoRecusada("A cama selecionada não está mais disponível.");
+                }
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(SQL_HOSPEDE_ATIVO)) {
+                ps.setInt(1, hospedeId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) throw new OperacaoRecusada("Este hóspede já possui hospedagem ativa.");
+                }
+            }
+
+            int id = inserirHospedagem(conn, hospedeId, camaId, entrada, saida, 1);
+            LinhaHospedagem hospedagem = buscarHospedagem(conn, id);
+            if (hospedagem == null) throw new SQLException("Hóspede ou cama não encontrados para o contrato.");
+            return hospedagem;
+        });
+    }
+
+    @Override
+    public LinhaHospedagem registrarCheckInDaReserva(int reservaId) throws Exception {
+        return emTransacao(conn -> {
+            int hospedeId;
+            int camaId;
+            try (PreparedStatement ps = conn.prepareStatement(SQL_RESERVA)) {
+                ps.setInt(1, reservaId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) return null;
+                    hospedeId = rs.getInt(1);
+                    camaId = rs.getInt(2);
+                }
+            }
+
+            // Mesmas regras e mesma ordem do check-in pelo formulário
+            try (PreparedStatement ps = conn.prepareStatement(SQL_OCUPA_CAMA)) {
+                ps.setInt(1, camaId);
+                if (ps.executeUpdate() == 0) {
+                    throw new OperacaoRecusada("A cama desta reserva está ocupada.");
+                }
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(SQL_HOSPEDE_ATIVO)) {
+                ps.setInt(1, hospedeId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) throw new OperacaoRecusada("Este hóspede já possui hospedagem ativa.");
+                }
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE hospedagem SET status = 1 WHERE id = ? AND status = 0")) {
+                ps.setInt(1, reservaId);
+                ps.executeUpdate();
+            }
+            return buscarHospedagem(conn, reservaId);
+        });
+    }
+
+    @Override
+    public int registrarReserva(int hospedeId, int camaId, LocalDate entrada, LocalDate saida) throws Exception {
+        try (Connection conn = conexoes.call()) {
+            return inserirHospedagem(conn, hospedeId, camaId, entrada, saida, 0);
+        }
+    }
+
+    @Override
+    public boolean registrarCheckOut(int hospedagemId, LocalDate data) throws Exception {
+        return emTransacao(conn -> {
+            try (PreparedStatement psHospedagem = conn.prepareStatement(
+                         "UPDATE hospedagem SET status = 0, data_saida = ? WHERE id = ? AND status = 1");
+                 PreparedStatement psCama = conn.prepareStatement(
+                         "UPDATE cama SET status = 0 WHERE id = (SELECT cama_id FROM hospedagem WHERE id = ?)")) {
+                psHospedagem.setString(1, data.toString());
+                psHospedagem.setInt(2, hospedagemId);
+                // já encerrada (outro terminal) ou removida: a cama pode ser de outra hospedagem agora
+                if (psHospedagem.executeUpdate() == 0) return false;
+
+                psCama.setInt(1, hospedagemId);
+                psCama.executeUpdate();
+                return true;
+            }
+        });
+    }
+
+    @Override
+    public int liberarQuarto(int numeroQuarto, LocalDate data) throws Exception {
+        return emTransacao(conn -> {
+            try (PreparedStatement psHospedagem = conn.prepareStatement(
+                         "UPDATE hospedagem SET status = 0, data_saida = ? " +
+                         "WHERE cama_id IN (SELECT id FROM cama WHERE quarto_numero = ?) AND status = 1");
+                 PreparedStatement psCamas = conn.prepareStatement(
+                         "UPDATE cama SET status = 0 WHERE quarto_numero = ?")) {
+                psHospedagem.setString(1, data.toString());
+                psHospedagem.setInt(2, numeroQuarto);
+                int encerradas = psHospedagem.executeUpdate();
+
+                psCamas.setInt(1, numeroQuarto);
+                psCamas.executeUpdate();
+                return encerradas;
+            }
+        });
+    }
+
+    private static int inserirHospedagem(Connection conn, int hospedeId, int camaId, LocalDate entrada,
+                                         LocalDate saida, int status) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SQL_INSERE_HOSPEDAGEM)) {
+            ps.setInt(1, hospedeId);
+            ps.setInt(2, camaId);
+            ps.setString(3, entrada.toString());
+            ps.setString(4, saida.toString());
+            ps.setInt(5, status);
+            if (ps.executeUpdate() == 0) {
+                throw new SQLException("Falha ao inserir hospedagem, nenhuma linha afetada.");
+            }
+        }
+        // o driver do SQLite não implementa getGeneratedKeys; mesma conexão, mesma transação
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT last_insert_rowid()")) {
+            if (!rs.next()) throw new SQLException("Falha ao obter ID gerado da hospedagem.");
+            return rs.getInt(1);
+        }
+    }
+
+    /* ===== Consultas ===== */
+
+    @Override
+    public List<Cama> camasLivres() throws Exception {
+        return camas("SELECT id, descricao, quarto_numero FROM cama WHERE status = 0 ORDER BY descricao");
+    }
+
+    @Override
+    public List<Cama> camasSemHospedagemNoPeriodo(LocalDate inicio, LocalDate fim) throws Exception {
+        return camas("SELECT id, descricao, quarto_numero FROM cama c WHERE NOT EXISTS (" +
+                     "SELECT 1 FROM hospedagem h WHERE h.cama_id = c.id " +
+                     "AND h.data_entrada <= ? AND h.data_saida >= ?) ORDER BY descricao",
+                     fim.toString(), inicio.toString());
+    }
+
+    @Override
+    public int[] camasLivresPorDia(LocalDate inicio, int dias) throws Exception {
+        long primeiroDia = inicio.toEpochDay();
+        int[] livres = new int[dias];
+        // Dias ocupados de cada cama: hospedagens sobrepostas na mesma cama contam uma vez
+        Map<Integer, BitSet> ocupacao = new HashMap<>();
+        try (Connection conn = conexoes.call()) {
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM cama")) {
+                Arrays.fill(livres, rs.next() ? rs.getInt(1) : 0);
+            }
+            // Cama a cama, como camasSemHospedagemNoPeriodo: cada uma é uma faixa de
+            // idx_hospedagem_cama_periodo, em vez de todo o histórico anterior ao fim
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT h.cama_id, h.data_entrada, h.data_saida FROM cama c " +
+                    "CROSS JOIN hospedagem h ON h.cama_id = c.id " +
+                    "WHERE h.data_entrada <= ? AND h.data_saida >= ?")) {
+                ps.setString(1, inicio.plusDays(dias - 1L).toString());
+                ps.setString(2, inicio.toString());
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int de = (int) Math.max(0, LocalDate.parse(rs.getString(2)).toEpochDay() - primeiroDia);
+                        int ate = (int) Math.min(dias - 1L, LocalDate.parse(rs.getString(3)).toEpochDay() - primeiroDia);
+                        ocupacao.computeIfAbsent(rs.getInt(1), cama -> new BitSet(dias)).set(de, ate + 1);
+                    }
+                }
+            }
+        }
+        for (BitSet dia : ocupacao.values()) {
+            for (int i = dia.nextSetBit(0); i >= 0; i = dia.nextSetBit(i + 1)) livres[i]--;
+        }
+        return livres;
+    }
+
+    @Override
+    public List<Hospede> buscarHospedes(String termo, boolean somenteSemHospedagemAtiva, int limite) throws Exception {
+        try (Connection conn = conexoes.call()) {
+            return BuscaHospedes.buscar(conn, termo, somenteSemHospedagemAtiva, limite);
+        }
+    }
+
+    @Override
+    public List<Hospede> hospedesSemHospedagemAtiva() throws Exception {
+        String sql = "SELECT id, nome FROM hospede " +
+                     "WHERE id NOT IN (SELECT hospede_id FROM hospedagem WHERE status = 1) " +
+                     "ORDER BY nome";
+        List<Hospede> hospedes = new ArrayList<>();
+        try (Connection conn = conexoes.call();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                Hospede h = new Hospede();
+                h.setId(rs.getInt(1));
+                h.setNome(rs.getString(2));
+                hospedes.add(h);
+            }
+        }
+        return hospedes;
+    }
+
+    @Override
+    public List<LinhaHospedagem> hospedagensAtivas(String termo) throws Exception {
+        String expressao = BuscaHospedes.expressao(termo);
+        String sql = SELECT_HOSPEDAGEM + "WHERE h.status = 1 "
+                + (expressao != null ? "AND " + BuscaHospedes.filtroPorId("ho.id") + " " : "")
+                + "ORDER BY h.id DESC";
+        return hospedagens(sql, expressao != null ? new Object[]{expressao} : new Object[0]);
+    }
+
+    @Override
+    public List<LinhaHospedagem> hospedagensAtivasDoQuarto(int numeroQuarto) throws Exception {
+        return hospedagens(SELECT_HOSPEDAGEM + "WHERE c.quarto_numero = ? AND h.status = 1", numeroQuarto);
+    }
+
+    @Override
+    public List<LinhaHospedagem> reservasFuturas(LocalDate hoje) throws Exception {
+        return hospedagens(SELECT_HOSPEDAGEM + "WHERE h.status = 0 AND h.data_entrada > ? ORDER BY h.data_entrada",
+                           hoje.toString());
+    }
+
+    @Override
+    public LinhaHospedagem buscarHospedagem(int hospedagemId) throws Exception {
+        try (Connection conn = conexoes.call()) {
+            return buscarHospedagem(conn, hospedagemId);
+        }
+    }
+
+    private static LinhaHospedagem buscarHospedagem(Connection conn, int hospedagemId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SELECT_HOSPEDAGEM + "WHERE h.id = ?")) {
+            ps.setInt(1, hospedagemId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? lerHospedagem(rs) : null;
+            }
+        }
+    }
+
+    /* ===== Relatórios ===== */
+
+    @Override
+    public List<Hospede> hospedesHospedados() throws Exception {
+        String sql = "SELECT h.id, h.nome, h.sexo, h.documento, h.telefone, h.email " +
+                     "FROM hospede h " +
+                     "JOIN hospedagem hos ON hos.hospede_id = h.id " +
+                     "WHERE hos.status = 1";
+        List<Hospede> hospedes = new ArrayList<>();
+        try (Connection conn = conexoes.call();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                Hospede h = new Hospede(rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getString(5), rs.getString(6));
+                h.setId(rs.getInt(1));
+                hospedes.add(h);
+            }
+        }
+        return hospedes;
+    }
+
+    @Override
+    public FonteLinhas historico(FiltroHistorico filtro) throws Exception {
+        return FonteLinhas.daConsulta(conexoes, SELECT_HISTORICO + where(filtro) + "ORDER BY hos.id DESC",
+                stmt -> vincular(stmt, filtro), COLUNAS_HISTORICO);
+    }
+
+    @Override
+    public List<LinhaHistorico> historicoPagina(FiltroHistorico filtro, int antesDoId, int limite) throws Exception {
+        String sql = SELECT_PAGINA_HISTORICO + where(filtro) + (antesDoId > 0 ? "AND hos.id < ? " : "")
+                + "ORDER BY hos.id DESC LIMIT ?";
+        List<LinhaHistorico> linhas = new ArrayList<>();
+        try (Connection conn = conexoes.call();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            int i = vincular(ps, filtro);
+            if (antesDoId > 0) ps.setInt(i++, antesDoId);
+            ps.setInt(i, limite);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    linhas.add(new LinhaHistorico(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                            rs.getString(5), rs.getString(6), data(rs.getString(7)), data(rs.getString(8))));
+                }
+            }
+        }
+        return linhas;
+    }
+
+    @Override
+    public int historicoIdNaPosicao(FiltroHistorico filtro, int antesDoId, int deslocamento) throws Exception {
+        // Só o id, andando pela chave primária: não monta as linhas puladas
+        String sql = "SELECT hos.id " + FROM_HISTORICO + where(filtro) + (antesDoId > 0 ? "AND hos.id < ? " : "")
+                + "ORDER BY hos.id DESC LIMIT 1 OFFSET ?";
+        try (Connection conn = conexoes.call();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            int i = vincular(ps, filtro);
+            if (antesDoId > 0) ps.setInt(i++, antesDoId);
+            ps.setInt(i, deslocamento);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    @Override
+    public TotaisHistorico totaisHistorico(FiltroHistorico filtro) throws Exception {
+        try (Connection conn = conexoes.call();
+             PreparedStatement ps = conn.prepareStatement(SELECT_TOTAIS_HISTORICO + where(filtro))) {
+            vincular(ps, filtro);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? new TotaisHistorico(rs.getInt(1), rs.getInt(2)) : new TotaisHistorico(0, 0);
+            }
+        }
+    }
+
+    @Override
+    public int contarEntradasNoPeriodo(LocalDate inicio, LocalDate fim) throws Exception {
+        try (Connection conn = conexoes.call();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT COUNT(*) FROM hospedagem WHERE data_entrada BETWEEN ? AND ?")) {
+            ps.setString(1, inicio.toString());
+            ps.setString(2, fim.toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    // A mesma cláusula serve às linhas e aos totais
+    private static String where(FiltroHistorico filtro) {
+        StringBuilder where = new StringBuilder("WHERE 1=1 ");
+        if (filtro.dataInicio() != null) {
+            where.append("AND hos.data_entrada >= ? ");
+        }
+        if (filtro.dataFim() != null) {
+            // A entrada nunca passa da saída: com a entrada limitada dos dois lados o
+            // SQLite usa idx_hospedagem_entrada em vez de percorrer tudo na ordem do id
+            where.append("AND hos.data_saida <= ? AND hos.data_entrada <= ? ");
+        }
+        if (filtro.sexo() != null) {
+            where.append("AND h.sexo = ? ");
+        }
+        if (BuscaHospedes.expressao(filtro.busca()) != null) {
+            where.append("AND ").append(BuscaHospedes.filtroPorId("h.id")).append(" ");
+        }
+        return where.toString();
+    }
+
+    // Retorna o índice do próximo parâmetro, para quem acrescenta outros depois do filtro
+    private static int vincular(PreparedStatement stmt, FiltroHistorico filtro) throws SQLException {
+        int paramIndex = 1;
+        if (filtro.dataInicio() != null) {
+            stmt.setString(paramIndex++, filtro.dataInicio().toString());
+        }
+        if (filtro.dataFim() != null) {
+            stmt.setString(paramIndex++, filtro.dataFim().toString());
+            stmt.setString(paramIndex++, filtro.dataFim().toString());
+        }
+        if (filtro.sexo() != null) {
+            stmt.setString(paramIndex++, filtro.sexo());
+        }
+        String expressao = BuscaHospedes.expressao(filtro.busca());
+        if (expressao != null) {
+            stmt.setString(paramIndex++, expressao);
+        }
+        return paramIndex;
+    }
+
+    /* ===== Auxiliares ===== */
+
+    @FunctionalInterface
+    private interface Transacao<T> {
+        T executar(Connection conn) throws Exception;
+    }
+
+    private <T> T emTransacao(Transacao<T> transacao) throws Exception {
+        try (Connection conn = conexoes.call()) {
+            conn.setAutoCommit(false);
+            try {
+                T resultado = transacao.executar(conn);
+                conn.commit();
+                return resultado;
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private List<Cama> camas(String sql, Object... parametros) throws Exception {
+        List<Cama> camas = new ArrayList<>();
+        try (Connection conn = conexoes.call();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.length; i++) ps.setObject(i + 1, parametros[i]);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) camas.add(new Cama(rs.getInt(1), rs.getString(2), rs.getInt(3)));
+            }
+        }
+        return camas;
+    }
+
+    private List<LinhaHospedagem> hospedagens(String sql, Object... parametros) throws Exception {
+        List<LinhaHospedagem> linhas = new ArrayList<>();
+        try (Connection conn = conexoes.call();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.length; i++) ps.setObject(i + 1, parametros[i]);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) linhas.add(lerHospedagem(rs));
+            }
+        }
+        return linhas;
+    }
+
+    private static LinhaHospedagem lerHospedagem(ResultSet rs) throws SQLException {
+        return new LinhaHospedagem(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                rs.getString(5), rs.getString(6), rs.getInt(7),
+                data(rs.getString(8)), data(rs.getString(9)));
+    }
+
+    private static LocalDate data(String iso) {
+        return iso == null || iso.isEmpty() ? null : LocalDate.parse(iso);
+    }
+}
@@ -0,0 +1,363 @@
+package service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import cache.DisponibilidadeCamas;
+import cache.IndiceHospedes;
+import cache.NotificadorAlteracoes;
+import controller.FonteLinhas;
+import controller.GerarContrato;
+import db.BuscaHospedes;
+import db.DatabaseConnector;
+import diagnostico.EventosHotel;
+import model.Cama;
+import model.Hospede;
+
+/**
+ * Operações do hotel sem tela: check-in, check-out, reservas, liberar quarto,
+ * camas disponíveis, busca de hóspedes e relatórios. As telas só validam o
+ * formulário e chamam daqui (fora da EDT); benchmarks e rotinas em lote usam o
+ * mesmo código sobre outro banco.
+ *
+ * {@link #getInstancia()} é o serviço do sistema: usa os índices em memória
+ * ({@link IndiceHospedes}, {@link DisponibilidadeCamas}) quando estão prontos e
+ * os avisa pelo {@link NotificadorAlteracoes} depois de cada escrita. Um serviço
+ * criado sobre outro repositório não usa nem avisa os índices, que são do banco
+ * do sistema.
+ */
+public class HotelService {
+
+    /** Hospedagem criada e os dados para o contrato e para a tela. */
+    public record CheckInRealizado(LinhaHospedagem hospedagem, Map<String, String> dadosContrato) {}
+
+    private static final HotelService INSTANCIA =
+            new HotelService(new HotelRepositorySqlite(DatabaseConnector::conectar), true);
+
+    private final HotelRepository repositorio;
+    private final boolean indicesDoSistema;
+
+    public HotelService(HotelRepository repositorio) {
+        this(repositorio, false);
+    }
+
+    /** Serviço sobre um banco SQLite qualquer, sem os índices em memória. */
+    public HotelService(Callable<Connection> conexoes) {
+        this(new HotelRepositorySqlite(conexoes), false);
+    }
+
+    private HotelService(HotelRepository repositorio, boolean indicesDoSistema) {
+        this.repositorio = repositorio;
+        this.indicesDoSistema = indicesDoSistema;
+    }
+
+    public static HotelService getInstancia() {
+        return INSTANCIA;
+    }
+
+    /**
+     * O mesmo serviço lendo por outras conexões do mesmo banco, como a conexão
+     * cancelável de uma {@link controller.ExecutorBusca}.
+     */
+    public HotelService comConexoes(Callable<Connection> conexoes) {
+        return new HotelService(new HotelRepositorySqlite(conexoes), indicesDoSistema);
+    }
+
+    /* ===== Operações ===== */
+
+    public CheckInRealizado realizarCheckIn(int hospedeId, int camaId, LocalDate entrada, LocalDate saida) throws Exception {
+        EventosHotel.CheckIn evento = new EventosHotel.CheckIn();
+        evento.begin();
+        evento.hospedeId = hospedeId;
+        evento.camaId = camaId;
+        evento.entrada = entrada.toString();
+        evento.saida = saida.toString();
+        try {
+            if (saida.isBefore(entrada)) {
+                throw new OperacaoRecusada("Saída não pode ser anterior à entrada.");
+            }
+            LinhaHospedagem hospedagem = repositorio.registrarCheckIn(hospedeId, camaId, entrada, saida);
+            if (indicesDoSistema) NotificadorAlteracoes.hospedagemAlterada(hospedagem.id());
+            evento.hospedagemId = hospedagem.id();
+            evento.sucesso = true;
+
+            Map<String, String> dados = GerarContrato.dadosContrato(hospedagem.id(), hospedagem.hospede(),
+                    hospedagem.documento(), hospedagem.telefone(), hospedagem.email(), entrada, saida, String.valueOf(hospedagem.quarto()));
+            return new CheckInRealizado(hospedagem, dados);
+        } finally {
+            evento.commit();
+        }
+    }
+
+    /**
+     * Check-in de uma reserva na cama e datas reservadas, com as regras do check-in
+     * ({@link OperacaoRecusada} se a cama está ocupada ou o hóspede já está hospedado);
+     * null se a reserva não existe mais ou já foi ativada.
+     */
+    public LinhaHospedagem realizarCheckInDaReserva(int reservaId) throws Exception {
+        EventosHotel.CheckIn evento = new EventosHotel.CheckIn();
+        evento.begin();
+        evento.hospedagemId = reservaId;
+        try {
+            LinhaHospedagem hospedagem = repositorio.registrarCheckInDaReserva(reservaId);
+            if (hospedagem != null) {
+                if (indicesDoSistema) NotificadorAlteracoes.hospedagemAlterada(reservaId);
+                evento.entrada = hospedagem.entrada().toString();
+                evento.saida = hospedagem.saida().toString();
+                evento.sucesso = true;
+            }
+            return hospedagem;
+        } finally {
+            evento.commit();
+        }
+    }
+
+    /** Check-out com a data de hoje; false se a hospedagem não existe mais ou já foi encerrada. */
+    public boolean realizarCheckOut(int hospedagemId) throws Exception {
+        EventosHotel.CheckOut evento = new EventosHotel.CheckOut();
+        evento.begin();
+        evento.hospedagemId = hospedagemId;
+        try {
+            boolean encerrada = repositorio.registrarCheckOut(hospedagemId, LocalDate.now());
+            if (encerrada && indicesDoSistema) NotificadorAlteracoes.hospedagemAlterada(hospedagemId);
+            evento.hospedagens = encerrada ? 1 : 0;
+            evento.sucesso = true;
+            return encerrada;
+        } finally {
+            evento.commit();
+        }
+    }
+
+    /** Grava a reserva e retorna o id. */
+    public int reservar(int hospedeId, int camaId, LocalDate entrada, LocalDate saida) throws Exception {
+        EventosHotel.Reserva evento = new EventosHotel.Reserva();
+        evento.begin();
+        evento.hospedeId = hospedeId;
+        evento.camaId = camaId;
+        evento.entrada = entrada.toString();
+        evento.saida = saida.toString();
+        try {
+            if (!saida.isAfter(entrada)) {
+                throw new OperacaoRecusada("Datas inválidas.");
+            }
+            int id = repositorio.registrarReserva(hospedeId, camaId, entrada, saida);
+            if (indicesDoSistema) NotificadorAlteracoes.hospedagemAlterada(id);
+            evento.reservaId = id;
+            evento.sucesso = true;
+            return id;
+        } finally {
+            evento.commit();
+        }
+    }
+
+    /** Check-out de todas as camas do quarto com a data de hoje; retorna quantas hospedagens encerrou. */
+    public int liberarQuarto(int numeroQuarto) throws Exception {
+        EventosHotel.CheckOut evento = new EventosHotel.CheckOut();
+        evento.begin();
+        evento.quarto = numeroQuarto;
+        try {
+            int encerradas = repositorio.liberarQuarto(numeroQuarto, LocalDate.now());
+            if (indicesDoSistema) NotificadorAlteracoes.hospedagensAlteradas();
+            evento.hospedagens = encerradas;
+            evento.sucesso = true;
+            return encerradas;
+        } finally {
+            evento.commit();
+        }
+    }
+
+    /* ===== Consultas ===== */
+
+    /** Camas livres agora (para o check-in), por descrição. */
+    public List<Cama> camasDisponiveis() throws Exception {
+        EventosHotel.Disponibilidade evento = new EventosHotel.Disponibilidade();
+        evento.begin();
+        List<Cama> camas = repositorio.camasLivres();
+        if (evento.shouldCommit()) {
+            evento.inicio = evento.fim = LocalDate.now().toString();
+            evento.camas = camas.size();
+            evento.origem = "banco";
+            evento.commit();
+        }
+        return camas;
+    }
+
+    /** Camas sem nenhuma hospedagem sobrepondo o período (para reservas), por descrição. */
+    public List<Cama> camasDisponiveis(LocalDate inicio, LocalDate fim) throws Exception {
+        if (fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("Data fim não pode ser anterior à data início.");
+        }
+        EventosHotel.Disponibilidade evento = new EventosHotel.Disponibilidade();
+        evento.begin();
+        List<Cama> camas = indicesDoSistema
+                ? DisponibilidadeCamas.getInstancia().camasDisponiveis(inicio, fim)
+                : repositorio.camasSemHospedagemNoPeriodo(inicio, fim);
+        if (evento.shouldCommit()) {
+            evento.inicio = inicio.toString();
+            evento.fim = fim.toString();
+            evento.camas = camas.size();
+            evento.origem = indicesDoSistema ? "índice" : "banco";
+            evento.commit();
+        }
+        return camas;
+    }
+
+    /**
+     * Camas livres em cada dia a partir de {@code inicio} ({@code livres[i]} é o dia
+     * {@code inicio + i}), para a projeção de vagas.
+     */
+    public int[] camasLivresPorDia(LocalDate inicio, int dias) throws Exception {
+        EventosHotel.Disponibilidade evento = new EventosHotel.Disponibilidade();
+        evento.begin();
+        int[] livres = indicesDoSistema
+                ? DisponibilidadeCamas.getInstancia().camasLivresPorDia(inicio, dias)
+                : repositorio.camasLivresPorDia(inicio, dias);
+        if (evento.shouldCommit()) {
+            evento.inicio = inicio.toString();
+            evento.fim = inicio.plusDays(dias - 1L).toString();
+            evento.camas = Arrays.stream(livres).min().orElse(0); // o dia mais cheio
+            evento.origem = indicesDoSistema ? "índice" : "banco";
+            evento.commit();
+        }
+        return livres;
+    }
+
+    /**
+     * Hóspedes que casam com o que foi digitado no nome, documento, telefone ou
+     * email. Com o índice em memória pronto, vem dele, sem ir ao banco, dos mais
+     * recentes para os mais antigos (só id, nome e documento preenchidos); antes
+     * disso, da busca FTS, mais relevantes primeiro ({@link BuscaHospedes}).
+     */
+    public List<Hospede> buscarHospedes(String termo, boolean somenteSemHospedagemAtiva, int limite) throws Exception {
+        EventosHotel.BuscaHospede evento = new EventosHotel.BuscaHospede();
+        evento.begin();
+        List<Hospede> hospedes;
+        String origem = "banco";
+        IndiceHospedes indice = indicesDoSistema ? IndiceHospedes.getInstancia() : null;
+        if (indice != null && indice.pronto()) {
+            hospedes = new ArrayList<>();
+            for (IndiceHospedes.Sugestao s : indice.buscar(termo, somenteSemHospedagemAtiva, limite)) {
+                Hospede h = new Hospede(s.nome(), null, s.documento(), null, null);
+                h.setId(s.id());
+                hospedes.add(h);
+            }
+            origem = "índice";
+        } else {
+            hospedes = repositorio.buscarHospedes(termo, somenteSemHospedagemAtiva, limite);
+        }
+        if (evento.shouldCommit()) {
+            evento.caracteres = termo == null ? 0 : termo.length();
+            evento.somenteSemHospedagemAtiva = somenteSemHospedagemAtiva;
+            evento.limite = limite;
+            evento.linhas = hospedes.size();
+            evento.origem = origem;
+            evento.commit();
+        }
+        return hospedes;
+    }
+
+    public List<Hospede> hospedesSemHospedagemAtiva() throws Exception {
+        return repositorio.hospedesSemHospedagemAtiva();
+    }
+
+    public List<LinhaHospedagem> hospedagensAtivas(String termo) throws Exception {
+        return repositorio.hospedagensAtivas(termo);
+    }
+
+    public List<LinhaHospedagem> hospedagensAtivasDoQuarto(int numeroQuarto) throws Exception {
+        return repositorio.hospedagensAtivasDoQuarto(numeroQuarto);
+    }
+
+    public List<LinhaHospedagem> reservasFuturas() throws Exception {
+        return repositorio.reservasFuturas(LocalDate.now());
+    }
+
+    public LinhaHospedagem buscarHospedagem(int hospedagemId) throws Exception {
+        return repositorio.buscarHospedagem(hospedagemId);
+    }
+
+    /* ===== Relatórios ===== */
+
+    public List<Cama> relatorioCamasVagas() throws Exception {
+        EventosHotel.Relatorio evento = new EventosHotel.Relatorio();
+        evento.begin();
+        List<Cama> camas = repositorio.camasLivres();
+        evento.relatorio = "Camas vagas";
+        evento.linhas = camas.size();
+        evento.commit();
+        return camas;
+    }
+
+    public List<Hospede> relatorioHospedesHospedados() throws Exception {
+        EventosHotel.Relatorio evento = new EventosHotel.Relatorio();
+        evento.begin();
+        List<Hospede> hospedes = repositorio.hospedesHospedados();
+        evento.relatorio = "Hóspedes hospedados";
+        evento.linhas = hospedes.size();
+        evento.commit();
+        return hospedes;
+    }
+
+    /**
+     * Colunas em {@link HotelRepository#COLUNAS_HISTORICO}; feche a fonte depois
+     * de ler. O evento do relatório vai até o close(), com as linhas lidas.
+     */
+    public FonteLinhas relatorioHistorico(FiltroHistorico filtro) throws Exception {
+        EventosHotel.Relatorio evento = new EventosHotel.Relatorio();
+        evento.begin();
+        FonteLinhas fonte = repositorio.historico(filtro);
+        evento.relatorio = "Histórico de hospedagens";
+        evento.inicio = filtro.dataInicio() != null ? filtro.dataInicio().toString() : null;
+        evento.fim = filtro.dataFim() != null ? filtro.dataFim().toString() : null;
+        return new FonteLinhas() {
+            private boolean fechada;
+            @Override public String[] colunas() { return fonte.colunas(); }
+            @Override public Object valor(int coluna) throws Exception { return fonte.valor(coluna); }
+            @Override public boolean proxima() throws Exception {
+                boolean tem = fonte.proxima();
+                if (tem) evento.linhas++;
+                return tem;
+            }
+            @Override public void close() throws SQLException {
+                try {
+                    fonte.close();
+                } finally {
+                    if (!fechada) evento.commit();
+                    fechada = true;
+                }
+            }
+        };
+    }
+
+    /** Página do histórico para a tela; ver {@link HotelRepository#historicoPagina}. */
+    public List<LinhaHistorico> historicoPagina(FiltroHistorico filtro, int antesDoId, int limite) throws Exception {
+        EventosHotel.Relatorio evento = new EventosHotel.Relatorio();
+        evento.begin();
+        List<LinhaHistorico> linhas = repositorio.historicoPagina(filtro, antesDoId, limite);
+        evento.relatorio = "Histórico de hospedagens (página)";
+        evento.inicio = filtro.dataInicio() != null ? filtro.dataInicio().toString() : null;
+        evento.fim = filtro.dataFim() != null ? filtro.dataFim().toString() : null;
+        evento.linhas = linhas.size();
+        evento.commit();
+        return linhas;
+    }
+
+    public int historicoIdNaPosicao(FiltroHistorico filtro, int antesDoId, int deslocamento) throws Exception {
+        return repositorio.historicoIdNaPosicao(filtro, antesDoId, deslocamento);
+    }
+
+    public TotaisHistorico totaisHistorico(FiltroHistorico filtro) throws Exception {
+        return repositorio.totaisHistorico(filtro);
+    }
+
+    /** Quantos contratos o lote por período vai gerar. */
+    public int contarEntradasNoPeriodo(LocalDate inicio, LocalDate fim) throws Exception {
+        return repositorio.contarEntradasNoPeriodo(inicio, fim);
+    }
+}
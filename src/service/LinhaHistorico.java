@@ -0,0 +1,8 @@
+package service;
+
+import java.time.LocalDate;
+
+/** Uma hospedagem do histórico como a tela mostra; {@code id} é a chave da paginação. */
+public record LinhaHistorico(int id, String nome, String sexo, String documento, String telefone, String email,
+                             LocalDate entrada, LocalDate saida) {
+}
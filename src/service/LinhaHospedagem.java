@@ -0,0 +1,11 @@
+package service;
+
+import java.time.LocalDate;
+
+/**
+ * Uma hospedagem (ativa, encerrada ou reserva) com o que as telas e o contrato
+ * mostram do hóspede e da cama.
+ */
+public record LinhaHospedagem(int id, String hospede, String documento, String email, String telefone,
+                              String cama, int quarto, LocalDate entrada, LocalDate saida) {
+}
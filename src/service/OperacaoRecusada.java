@@ -0,0 +1,10 @@
+package service;
+
+/** A operação não pode ser feita (regra de negócio, não erro de banco); a mensagem vai para o usuário. */
+public class OperacaoRecusada extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    public OperacaoRecusada(String mensagem) {
+        super(mensagem);
+    }
+}
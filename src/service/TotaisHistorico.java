@@ -0,0 +1,5 @@
+package service;
+
+/** Totais do histórico filtrado: hospedagens e diárias (saída menos entrada). */
+public record TotaisHistorico(int hospedagens, int diarias) {
+}
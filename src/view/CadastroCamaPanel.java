@@ -6,6 +6,7 @@ import javax.swing.JLabel;
 import javax.swing.JTextField;
 import javax.swing.table.DefaultTableModel;
 
+import cache.NotificadorAlteracoes;
 import db.DatabaseConnector;
 import view.dialogs.EditCamaDialog;
 
@@ -139,6 +140,7 @@ public class CadastroCamaPanel extends JPanel {
             stmt.setString(1, descricao);
             stmt.setInt(2, numeroQuarto);
             stmt.executeUpdate();
+            NotificadorAlteracoes.camasAlteradas();
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -6,6 +6,7 @@ import javax.swing.JLabel;
 import javax.swing.JTextField;
 import javax.swing.table.DefaultTableModel;
 
+import db.BuscaHospedes;
 import db.DatabaseConnector;
 
 import java.awt.Cursor;
@@ -20,6 +21,9 @@ import javax.swing.JButton;
 import javax.swing.JTable;
 import javax.swing.JComboBox;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 import model.Hospede;
 import view.dialogs.EditHospedeDialog;
@@ -27,10 +31,13 @@ import view.dialogs.EditHospedeDialog;
 public class CadastroHospedePanel extends JPanel {
     private static final long serialVersionUID = 1L;
 
+    private static final int LIMITE_BUSCA = 500;
+
     private JTextField txtNome;
     private JTextField txtDocumento;
     private JTextField txtTelefone;
     private JTextField txtEmail;
+    private JTextField txtBusca;
 
     private JTable table;
     private JComboBox<String> comboBoxSexo = new JComboBox<>();
@@ -85,6 +92,24 @@ public class CadastroHospedePanel extends JPanel {
         btnSalvar.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
         add(btnSalvar);
 
+        // -------- BUSCA (nome, documento, telefone ou email) --------
+        JLabel lblBusca = new JLabel("Buscar:");
+        lblBusca.setBounds(520, 197, 60, 25);
+        add(lblBusca);
+
+        txtBusca = new JTextField();
+        txtBusca.setBounds(579, 197, 170, 25);
+        add(txtBusca);
+
+        // Debounce igual ao do autocomplete do check-in
+        Timer timerBusca = new Timer(250, e -> atualizarTabela());
+        timerBusca.setRepeats(false);
+        txtBusca.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { timerBusca.restart(); }
+            @Override public void removeUpdate(DocumentEvent e) { timerBusca.restart(); }
+            @Override public void changedUpdate(DocumentEvent e) { timerBusca.restart(); }
+        });
+
         // -------- TABELA --------
         // Incluí a coluna "ID" (oculta) para sabermos qual registro abrir no diálogo.
         String[] colunas = { "ID", "Nome", "Sexo", "Documento", "Telefone", "Email" };
@@ -173,6 +198,19 @@ public class CadastroHospedePanel extends JPanel {
         DefaultTableModel modelo = (DefaultTableModel) table.getModel();
         modelo.setRowCount(0); // limpa as linhas existentes
 
+        String termo = txtBusca.getText();
+        if (BuscaHospedes.expressao(termo) != null) {
+            try (Connection conn = DatabaseConnector.conectar()) {
+                for (Hospede h : BuscaHospedes.buscar(conn, termo, false, LIMITE_BUSCA)) {
+                    modelo.addRow(new Object[] { h.getId(), h.getNome(), mapSexoToLabel(h.getSexo()),
+                            h.getDocumento(), h.getWhatsapp(), h.getEmail() });
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            return;
+        }
+
         String sql = "SELECT id, nome, sexo, documento, telefone, email FROM hospede ORDER BY id DESC";
 
         try (Connection conn = DatabaseConnector.conectar();
@@ -14,26 +14,28 @@ import javax.swing.text.JTextComponent;
 import javax.swing.event.PopupMenuEvent;
 import javax.swing.event.PopupMenuListener;
 
-import db.DatabaseConnector;
+import db.BuscaHospedes;
 import view.dialogs.EditCheckInDialog;
 
 import java.awt.Cursor;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.Statement;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.Date;
-import java.util.Map;
-import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Pattern;
 
 import com.toedter.calendar.JDateChooser;
 
+import controller.ExecutorBusca;
 import controller.GerarContrato;
+import model.Cama;
+import model.Hospede;
+import service.HotelService;
+import service.LinhaHospedagem;
+import service.OperacaoRecusada;
 
 public class CheckInPanel extends JPanel {
     private static final long serialVersionUID = 1L;
@@ -44,6 +46,7 @@ public class CheckInPanel extends JPanel {
 
     private JDateChooser dcEntrada;
     private JDateChooser dcSaida;
+    private JButton btnCheckIn;
 
     private JTable table;
     private JTextField txtFiltroCheckins; // filtro da tabela
@@ -52,8 +55,9 @@ public class CheckInPanel extends JPanel {
     // Controle do loop do auto-complete
     private boolean internalUpdate = false;
     private String lastQuery = "";
+    private final ExecutorBusca<DefaultComboBoxModel<Item>> buscaHospedes = new ExecutorBusca<>("hospedes-checkin");
+    private final HotelService servico = HotelService.getInstancia();
 
-    private final DateTimeFormatter ISO = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private final DateTimeFormatter FRIENDLY = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
     private final Runnable onAfterCheckIn;
@@ -109,7 +113,7 @@ public class CheckInPanel extends JPanel {
         add(dcSaida);
         applyAutoSlashFilter(dcSaida);
 
-        JButton btnCheckIn = new JButton("Check-in");
+        btnCheckIn = new JButton("Check-in");
         btnCheckIn.setBounds(453, 175, 120, 30);
         btnCheckIn.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
         add(btnCheckIn);
@@ -177,14 +181,7 @@ public class CheckInPanel extends JPanel {
             if ("date".equals(evt.getPropertyName())) ajustarSaidaPadrao30dias();
         });
 
-        btnCheckIn.addActionListener(e -> {
-			try {
-				realizarCheckInAcao();
-			} catch (Exception e1) {
-				// TODO Auto-generated catch block
-				e1.printStackTrace();
-			}
-		});
+        btnCheckIn.addActionListener(e -> realizarCheckInAcao());
 
         // Duplo clique para editar
         table.addMouseListener(new java.awt.event.MouseAdapter() {
@@ -295,32 +292,13 @@ public class CheckInPanel extends JPanel {
             return;
         }
 
-        DefaultComboBoxModel<Item> model = new DefaultComboBoxModel<>();
-        String like = "%" + termo + "%";
-
-        // **Somente hóspedes sem hospedagem ativa (status = 1)**
-        String sql =
-            "SELECT ho.id, ho.nome " +
-            "FROM hospede ho " +
-            "WHERE ho.nome LIKE ? " +
-            "  AND NOT EXISTS ( " +
-            "      SELECT 1 FROM hospedagem h " +
-            "       WHERE h.hospede_id = ho.id AND h.status = 1 " +
-            "  ) " +
-            "ORDER BY ho.id DESC, ho.nome ASC";
-
-        try (Connection conn = DatabaseConnector.conectar();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, like);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    model.addElement(new Item(rs.getInt("id"), rs.getString("nome")));
-                }
-            }
-        } catch (Exception ex) {
-            ex.printStackTrace();
-        }
+        // Fora da EDT; se o usuário continuar digitando, esta busca é cancelada
+        final String consulta = termo;
+        buscaHospedes.buscar(execucao -> sugestoesHospede(consulta, execucao),
+                             model -> aplicarSugestoesHospede(consulta, model));
+    }
 
+    private void aplicarSugestoesHospede(String termo, DefaultComboBoxModel<Item> model) {
         JTextComponent editor = (JTextComponent) comboHospede.getEditor().getEditorComponent();
         String typed = editor.getText(); // preserva o que foi digitado
 
@@ -341,63 +319,14 @@ public class CheckInPanel extends JPanel {
     }
 
     /* ===== Fluxo de check-in ===== */
-    private int realizarCheckInAcao(int hospedeId, int camaId, String dataEntradaISO, String dataSaidaISO) throws Exception {
-        String insertHosp =
-            "INSERT INTO hospedagem (hospede_id, cama_id, data_entrada, data_saida, status) " +
-            "VALUES (?, ?, ?, ?, 1)";
-        String ocupaCama  = "UPDATE cama SET status = 1 WHERE id = ?";
-
-        try (Connection conn = DatabaseConnector.conectar()) {
-            conn.setAutoCommit(false);
-            try (PreparedStatement ps1 = conn.prepareStatement(insertHosp, Statement.RETURN_GENERATED_KEYS);
-                 PreparedStatement ps2 = conn.prepareStatement(ocupaCama)) {
-
-                ps1.setInt(1, hospedeId);
-                ps1.setInt(2, camaId);
-                ps1.setString(3, dataEntradaISO);
-                ps1.setString(4, dataSaidaISO);
-                int affectedRows = ps1.executeUpdate();
-
-                if (affectedRows == 0) {
-                    throw new Exception("Falha ao inserir hospedagem, nenhuma linha afetada.");
-                }
-
-                int idHospedagem;
-                try (ResultSet generatedKeys = ps1.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        idHospedagem = generatedKeys.getInt(1);
-                    } else {
-                        throw new Exception("Falha ao obter ID gerado da hospedagem.");
-                    }
-                }
-
-                ps2.setInt(1, camaId);
-                ps2.executeUpdate();
-
-                conn.commit();
-                return idHospedagem;
-
-            } catch (Exception e) {
-                conn.rollback();
-                throw e;
-            }
-        }
-    }
-
-    private void realizarCheckInAcao() throws Exception {
+    // Validação da tela na EDT; banco (uma transação) fora dela, e o contrato em segundo plano
+    private void realizarCheckInAcao() {
         Item hospede = (Item) comboHospede.getSelectedItem();
         if (hospede == null) {
             JOptionPane.showMessageDialog(this, "Selecione um hóspede na lista (digite para buscar e escolha).", "Atenção", JOptionPane.WARNING_MESSAGE);
             return;
         }
 
-        if (hasHospedagemAtiva(hospede.id)) {
-            JOptionPane.showMessageDialog(this, "Este hóspede já possui hospedagem ativa.", "Atenção", JOptionPane.WARNING_MESSAGE);
-            lastQuery = ((JTextComponent) comboHospede.getEditor().getEditorComponent()).getText().trim();
-            atualizarSugestoesHospede(lastQuery);
-            return;
-        }
-
         Item cama = (Item) comboCama.getSelectedItem();
         if (cama == null) {
             JOptionPane.showMessageDialog(this, "Selecione uma cama disponível.", "Atenção", JOptionPane.WARNING_MESSAGE);
@@ -425,17 +354,43 @@ public class CheckInPanel extends JPanel {
             return;
         }
 
-        int idHospedagem;
-        try {
-            idHospedagem = realizarCheckIn(hospede.id, cama.id, ISO.format(entrada), ISO.format(saida));
-        } catch (Exception e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Erro ao inserir hospedagem.", "Erro", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
+        btnCheckIn.setEnabled(false);
+        new SwingWorker<HotelService.CheckInRealizado, Void>() {
+            @Override
+            protected HotelService.CheckInRealizado doInBackground() throws Exception {
+                return servico.realizarCheckIn(hospede.id, cama.id, entrada, saida);
+            }
 
-        atualizarTabela();
-        carregarCamasDisponiveis();
+            @Override
+            protected void done() {
+                btnCheckIn.setEnabled(true);
+                try {
+                    concluirCheckIn(get(), cama, entrada, saida);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof OperacaoRecusada recusado) {
+                        JOptionPane.showMessageDialog(CheckInPanel.this, recusado.getMessage(), "Atenção", JOptionPane.WARNING_MESSAGE);
+                        // a lista mudou desde que foi carregada
+                        carregarCamasDisponiveis();
+                        lastQuery = ((JTextComponent) comboHospede.getEditor().getEditorComponent()).getText().trim();
+                        atualizarSugestoesHospede(lastQuery);
+                    } else {
+                        e.getCause().printStackTrace();
+                        JOptionPane.showMessageDialog(CheckInPanel.this, "Erro ao inserir hospedagem.", "Erro", JOptionPane.ERROR_MESSAGE);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+    }
+
+    // Atualiza a tela com o que já se sabe, sem recarregar tabela e camas do banco
+    private void concluirCheckIn(HotelService.CheckInRealizado resultado, Item cama, LocalDate entrada, LocalDate saida) {
+        DefaultTableModel modelo = (DefaultTableModel) table.getModel();
+        LinhaHospedagem h = resultado.hospedagem();
+        modelo.insertRow(0, new Object[] { h.id(), h.hospede(), h.email(), h.telefone(), cama.label,
+                FRIENDLY.format(entrada), FRIENDLY.format(saida) });
+        comboCama.removeItem(cama);
 
         lastQuery = "";
         String termo = ((JTextComponent) comboHospede.getEditor().getEditorComponent()).getText().trim();
@@ -452,192 +407,38 @@ public class CheckInPanel extends JPanel {
         }
 
         // === GERAR CONTRATO ===
-        String nome = "", documento = "", telefone = "", email = "", numeroQuarto = "";
-
-        try (Connection conn = DatabaseConnector.conectar()) {
-            // dados do hóspede
-            try (PreparedStatement ps = conn.prepareStatement("SELECT nome, documento, telefone, email FROM hospede WHERE id = ?")) {
-                ps.setInt(1, hospede.id);
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) {
-                        nome = rs.getString("nome");
-                        documento = rs.getString("documento");
-                        telefone = rs.getString("telefone");
-                        email = rs.getString("email");
-                    }
-                }
-            }
-
-            // número do quarto via cama
-            try (PreparedStatement ps = conn.prepareStatement("SELECT quarto_numero FROM cama WHERE id = ?")) {
-                ps.setInt(1, cama.id);
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) {
-                        numeroQuarto = String.valueOf(rs.getInt("quarto_numero"));
-                    }
-                }
-            }
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Erro ao buscar dados para o contrato.", "Erro", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
-
-        System.out.println("Nome: " + nome);
-        System.out.println("Documento: " + documento);
-        System.out.println("Email: " + email);
-        System.out.println("Telefone: " + telefone);
-        System.out.println("Quarto: " + numeroQuarto);
-        System.out.println("Data Saída: " + FRIENDLY.format(saida));
-
-        Map<String, String> dadosContrato = new HashMap<>();
-        dadosContrato.put("{{reserva_id}}", String.valueOf(idHospedagem));
-        dadosContrato.put("{{ano}}", String.valueOf(LocalDate.now().getYear()));
-        dadosContrato.put("{{nome}}", nome);
-        dadosContrato.put("{{documento}}", documento);
-        dadosContrato.put("{{telefone}}", telefone);
-        dadosContrato.put("{{email}}", email);
-        dadosContrato.put("{{data_entrada}}", FRIENDLY.format(entrada));
-        dadosContrato.put("{{data_saida}}", FRIENDLY.format(saida));
-        dadosContrato.put("{{quarto}}", numeroQuarto);
-
-        GerarContrato.gerarComDialogo(this, "modelos/modelo_reserva.docx", dadosContrato);
+        GerarContrato.gerarComDialogo(this, GerarContrato.MODELO_RESERVA, resultado.dadosContrato());
     }
 
-
-
-    // Confirma se há hospedagem ativa para o hóspede
-    private boolean hasHospedagemAtiva(int hospedeId) {
-        String sql = "SELECT 1 FROM hospedagem WHERE hospede_id = ? AND status = 1 LIMIT 1";
-        try (Connection conn = DatabaseConnector.conectar();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, hospedeId);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next();
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Erro ao verificar hospedagem ativa.", "Erro", JOptionPane.ERROR_MESSAGE);
-            // Em caso de erro, melhor evitar o check-in por segurança
-            return true;
-        }
-    }
-
-    private void buscarHospedesPorNome(String filtro) {
-        // (Se for reutilizar, manter a mesma regra: apenas sem hospedagem ativa)
+    // **Somente hóspedes sem hospedagem ativa (status = 1)**: índice em memória,
+    // ou o banco (pela conexão cancelável da busca) enquanto o índice ainda está carregando
+    private DefaultComboBoxModel<Item> sugestoesHospede(String termo, ExecutorBusca.Execucao execucao) throws Exception {
         DefaultComboBoxModel<Item> model = new DefaultComboBoxModel<>();
-        String sql =
-            "SELECT ho.id, ho.nome " +
-            "FROM hospede ho " +
-            "WHERE ho.nome LIKE ? " +
-            "  AND NOT EXISTS ( " +
-            "      SELECT 1 FROM hospedagem h " +
-            "       WHERE h.hospede_id = ho.id AND h.status = 1 " +
-            "  ) " +
-            "ORDER BY ho.id DESC, ho.nome ASC";
-        try (Connection conn = DatabaseConnector.conectar();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, "%" + filtro + "%");
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) model.addElement(new Item(rs.getInt("id"), rs.getString("nome")));
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+        List<Hospede> hospedes = servico.comConexoes(execucao.conexoes())
+                .buscarHospedes(termo, true, BuscaHospedes.LIMITE_SUGESTOES);
+        for (Hospede h : hospedes) {
+            model.addElement(new Item(h.getId(), h.getNome()));
         }
-        comboHospede.setModel(model);
+        return model;
     }
 
     private void carregarCamasDisponiveis() {
         comboCama.removeAllItems();
-        String sql = "SELECT id, descricao FROM cama WHERE status = 0 ORDER BY descricao";
-        try (Connection conn = DatabaseConnector.conectar();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) comboCama.addItem(new Item(rs.getInt("id"), rs.getString("descricao")));
+        try {
+            for (Cama cama : servico.camasDisponiveis()) comboCama.addItem(new Item(cama.getId(), cama.getDescricao()));
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
-    private int realizarCheckIn(int hospedeId, int camaId, String dataEntradaISO, String dataSaidaISO) throws Exception {
-        String insertHosp =
-            "INSERT INTO hospedagem (hospede_id, cama_id, data_entrada, data_saida, status) " +
-            "VALUES (?, ?, ?, ?, 1)";
-        String ocupaCama  = "UPDATE cama SET status = 1 WHERE id = ?";
-
-        try (Connection conn = DatabaseConnector.conectar()) {
-            conn.setAutoCommit(false);
-            try (PreparedStatement ps1 = conn.prepareStatement(insertHosp);
-                 PreparedStatement ps2 = conn.prepareStatement(ocupaCama);
-                 Statement stmt = conn.createStatement()) {
-
-                ps1.setInt(1, hospedeId);
-                ps1.setInt(2, camaId);
-                ps1.setString(3, dataEntradaISO);
-                ps1.setString(4, dataSaidaISO);
-                int affectedRows = ps1.executeUpdate();
-
-                if (affectedRows == 0) {
-                    throw new Exception("Falha ao inserir hospedagem, nenhuma linha afetada.");
-                }
-
-                // Pega o último ID inserido na conexão atual SQLite
-                int idHospedagem = -1;
-                try (ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
-                    if (rs.next()) {
-                        idHospedagem = rs.getInt(1);
-                    }
-                }
-
-                if (idHospedagem == -1) {
-                    throw new Exception("Falha ao obter ID gerado da hospedagem.");
-                }
-
-                ps2.setInt(1, camaId);
-                ps2.executeUpdate();
-
-                conn.commit();
-                return idHospedagem;
-
-            } catch (Exception e) {
-                conn.rollback();
-                throw e;
-            }
-        }
-    }
-
-
-
     private void atualizarTabela() {
         DefaultTableModel modelo = (DefaultTableModel) table.getModel();
         modelo.setRowCount(0);
 
-        String sql =
-            "SELECT h.id, ho.nome AS hospede, ho.email, ho.telefone, c.descricao AS cama, h.data_entrada, h.data_saida " +
-            "FROM hospedagem h " +
-            "JOIN hospede ho ON ho.id = h.hospede_id " +
-            "JOIN cama c ON c.id = h.cama_id " +
-            "WHERE h.status = 1 " +
-            "ORDER BY h.id DESC";
-
-        try (Connection conn = DatabaseConnector.conectar();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                int id = rs.getInt("id");
-                String hospede = rs.getString("hospede");
-                String email = rs.getString("email");
-                String telefone = rs.getString("telefone");
-                String cama = rs.getString("cama");
-                String entradaISO = rs.getString("data_entrada");
-                String saidaISO = rs.getString("data_saida");
-
-                String entradaFriendly = isoToFriendly(entradaISO);
-                String saidaFriendly = isoToFriendly(saidaISO);
-
-                modelo.addRow(new Object[] { id, hospede, email, telefone, cama, entradaFriendly, saidaFriendly });
+        try {
+            for (LinhaHospedagem h : servico.hospedagensAtivas(null)) {
+                modelo.addRow(new Object[] { h.id(), h.hospede(), h.email(), h.telefone(), h.cama(),
+                        formatarData(h.entrada()), formatarData(h.saida()) });
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -672,14 +473,8 @@ public class CheckInPanel extends JPanel {
         chooser.setDate(d);
     }
 
-    private String isoToFriendly(String iso) {
-        if (iso == null) return "";
-        try {
-            LocalDate d = LocalDate.parse(iso, ISO);
-            return FRIENDLY.format(d);
-        } catch (DateTimeParseException e) {
-            return iso;
-        }
+    private String formatarData(LocalDate data) {
+        return data != null ? FRIENDLY.format(data) : "";
     }
 
     private JTextComponent editor(JDateChooser chooser) {
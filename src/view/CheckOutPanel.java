@@ -7,10 +7,12 @@ import javax.swing.event.DocumentEvent;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.regex.Pattern;
-import db.DatabaseConnector;
+import java.util.ArrayList;
+import java.util.List;
+import controller.ExecutorBusca;
+import service.HotelService;
+import service.LinhaHospedagem;
 import view.dialogs.EditCheckOutDialog;
-import java.sql.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
@@ -19,6 +21,8 @@ public class CheckOutPanel extends JPanel {
     private JTable table;
     private JTextField txtFiltro;
     private TableRowSorter<DefaultTableModel> sorter;
+    private final ExecutorBusca<List<Object[]>> busca = new ExecutorBusca<>("checkout");
+    private final HotelService servico = HotelService.getInstancia();
 
     public CheckOutPanel() {
         setLayout(null);
@@ -87,16 +91,13 @@ public class CheckOutPanel extends JPanel {
         table.getColumnModel().getColumn(5).setPreferredWidth(100);
         table.getColumnModel().getColumn(6).setPreferredWidth(100);
 
-        // Filtro por nome
+        // Filtro por hóspede (nome, documento, telefone ou email), no banco e fora da EDT
+        Timer timerFiltro = new Timer(250, e -> atualizarTabela());
+        timerFiltro.setRepeats(false);
         txtFiltro.getDocument().addDocumentListener(new DocumentListener() {
-            private void filtrar() {
-                String t = txtFiltro.getText().trim();
-                sorter.setRowFilter(t.isEmpty() ? null : RowFilter.regexFilter("(?i)" + Pattern.quote(t), 1));
-            }
-
-            public void insertUpdate(DocumentEvent e) { filtrar(); }
-            public void removeUpdate(DocumentEvent e)  { filtrar(); }
-            public void changedUpdate(DocumentEvent e) { filtrar(); }
+            public void insertUpdate(DocumentEvent e) { timerFiltro.restart(); }
+            public void removeUpdate(DocumentEvent e)  { timerFiltro.restart(); }
+            public void changedUpdate(DocumentEvent e) { timerFiltro.restart(); }
         });
 
         // Duplo clique para editar
@@ -120,40 +121,28 @@ public class CheckOutPanel extends JPanel {
     }
 
     private void atualizarTabela() {
-        DefaultTableModel modelo = (DefaultTableModel) table.getModel();
-        modelo.setRowCount(0);
-
-        String sql = """
-            SELECT h.id, ho.nome AS hospede, ho.email, ho.telefone,
-                   c.descricao AS cama, h.data_entrada, h.data_saida
-            FROM hospedagem h
-            JOIN hospede ho ON ho.id = h.hospede_id
-            JOIN cama c ON c.id = h.cama_id
-            WHERE h.status = 1
-            ORDER BY h.id DESC
-        """;
+        String filtro = txtFiltro.getText();
+        busca.buscar(execucao -> carregarHospedagensAtivas(servico.comConexoes(execucao.conexoes()), filtro), linhas -> {
+            DefaultTableModel modelo = (DefaultTableModel) table.getModel();
+            modelo.setRowCount(0);
+            for (Object[] linha : linhas) modelo.addRow(linha);
+        });
+    }
 
+    private static List<Object[]> carregarHospedagensAtivas(HotelService servico, String filtro) throws Exception {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-
-        try (Connection conn = DatabaseConnector.conectar();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) {
-                String entradaFormatada = LocalDate.parse(rs.getString("data_entrada")).format(formatter);
-                String saidaFormatada = LocalDate.parse(rs.getString("data_saida")).format(formatter);
-
-                modelo.addRow(new Object[] {
-                    rs.getInt("id"),
-                    rs.getString("hospede"),
-                    rs.getString("email"),
-                    rs.getString("telefone"),
-                    rs.getString("cama"),
-                    entradaFormatada,
-                    saidaFormatada
-                });
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+        List<Object[]> linhas = new ArrayList<>();
+        for (LinhaHospedagem h : servico.hospedagensAtivas(filtro)) {
+            linhas.add(new Object[] {
+                h.id(),
+                h.hospede(),
+                h.email(),
+                h.telefone(),
+                h.cama(),
+                h.entrada().format(formatter),
+                h.saida().format(formatter)
+            });
         }
+        return linhas;
     }
 }
@@ -3,7 +3,7 @@ package view;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
-import java.sql.*;
+import java.sql.Connection;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -11,6 +11,7 @@ import java.util.List;
 import java.awt.event.*;
 
 import db.DatabaseConnector;
+import model.OcupacaoQuarto;
 import view.dialogs.QuartoDialog;
 
 public class InicioPanel extends JPanel {
@@ -19,7 +20,7 @@ public class InicioPanel extends JPanel {
 
     private final JPanel contentPanel;
     private final JTextField searchField;
-    private final List<QuartoInfo> todosQuartos = new ArrayList<>();
+    private final List<OcupacaoQuarto> todosQuartos = new ArrayList<>();
     private int colunas = 5;
 
     public InicioPanel() {
@@ -66,17 +67,7 @@ public class InicioPanel extends JPanel {
         contentPanel.removeAll();
 
         try (Connection conn = DatabaseConnector.conectar()) {
-            String sqlQuartos = "SELECT numero FROM quarto ORDER BY numero";
-            try (PreparedStatement ps = conn.prepareStatement(sqlQuartos);
-                 ResultSet rs = ps.executeQuery()) {
-
-                while (rs.next()) {
-                    int numeroQuarto = rs.getInt("numero");
-                    QuartoInfo quartoInfo = new QuartoInfo(numeroQuarto);
-                    carregarHospedesDoQuarto(quartoInfo, conn);
-                    todosQuartos.add(quartoInfo);
-                }
-            }
+            todosQuartos.addAll(OcupacaoQuarto.carregarTodos(conn));
         } catch (Exception e) {
             e.printStackTrace();
             JOptionPane.showMessageDialog(this, "Erro ao carregar quartos.", "Erro", JOptionPane.ERROR_MESSAGE);
@@ -99,10 +90,10 @@ public class InicioPanel extends JPanel {
         int larguraBotao = Math.max(100, larguraPainel / colunas - 10); // largura mínima 100
         int alturaBotao = (int)(larguraBotao * 1.15);
 
-        for (QuartoInfo quarto : todosQuartos) {
+        for (OcupacaoQuarto quarto : todosQuartos) {
             boolean corresponde = termo.isEmpty()
-                    || String.valueOf(quarto.numero).contains(termo)
-                    || quarto.hospedes.stream().anyMatch(nome -> nome.toLowerCase().contains(termo));
+                    || String.valueOf(quarto.getNumero()).contains(termo)
+                    || quarto.getHospedes().stream().anyMatch(nome -> nome.toLowerCase().contains(termo));
 
             if (!corresponde) continue;
 
@@ -150,17 +141,17 @@ public class InicioPanel extends JPanel {
         filtrarQuartos();
     }
 
-    private JButton criarBotaoQuarto(QuartoInfo quartoInfo) {
+    private JButton criarBotaoQuarto(OcupacaoQuarto quarto) {
         StringBuilder sb = new StringBuilder();
-        sb.append("<b>Quarto ").append(quartoInfo.numero).append("</b><br><br>");
-        if (quartoInfo.hospedes.isEmpty()) {
+        sb.append("<b>Quarto ").append(quarto.getNumero()).append("</b><br><br>");
+        if (quarto.getHospedes().isEmpty()) {
             sb.append("Vazio");
         } else {
-            for (String nome : quartoInfo.hospedes) {
+            for (String nome : quarto.getHospedes()) {
                 sb.append(nome).append("<br>");
             }
-            if (quartoInfo.dataDesocupacao != null) {
-                sb.append("<br>Desocupa em ").append(quartoInfo.dataDesocupacao.format(DISPLAY_DATE_FORMATTER));
+            if (quarto.getDataDesocupacao() != null) {
+                sb.append("<br>Desocupa em ").append(quarto.getDataDesocupacao().format(DISPLAY_DATE_FORMATTER));
             }
         }
 
@@ -169,12 +160,12 @@ public class InicioPanel extends JPanel {
         btn.setVerticalAlignment(SwingConstants.CENTER);
         btn.setCursor(new Cursor(Cursor.HAND_CURSOR));
 
-        if (quartoInfo.dataDesocupacao != null) {
+        if (quarto.getDataDesocupacao() != null) {
             LocalDate hoje = LocalDate.now();
-            if (quartoInfo.dataDesocupacao.isBefore(hoje)) {
+            if (quarto.getDataDesocupacao().isBefore(hoje)) {
                 btn.setBackground(Color.RED);
                 btn.setForeground(Color.WHITE);
-            } else if (!quartoInfo.dataDesocupacao.isAfter(hoje.plusDays(28))) {
+            } else if (!quarto.getDataDesocupacao().isAfter(hoje.plusDays(28))) {
                 btn.setBackground(Color.YELLOW);
                 btn.setForeground(Color.BLACK);
             } else {
@@ -186,45 +177,9 @@ public class InicioPanel extends JPanel {
         }
 
         btn.addActionListener(e ->
-            new QuartoDialog(SwingUtilities.getWindowAncestor(InicioPanel.this), quartoInfo.numero).setVisible(true)
+            new QuartoDialog(SwingUtilities.getWindowAncestor(InicioPanel.this), quarto.getNumero()).setVisible(true)
         );
 
         return btn;
     }
-
-    private void carregarHospedesDoQuarto(QuartoInfo quartoInfo, Connection conn) throws SQLException {
-        String sql = "SELECT h.nome, res.data_saida " +
-                "FROM hospedagem res " +
-                "JOIN cama c ON res.cama_id = c.id " +
-                "JOIN hospede h ON res.hospede_id = h.id " +
-                "WHERE c.quarto_numero = ? AND res.status = 1";
-
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, quartoInfo.numero);
-            try (ResultSet rs = ps.executeQuery()) {
-                List<String> nomes = new ArrayList<>();
-                LocalDate dataMaisProxima = null;
-
-                while (rs.next()) {
-                    nomes.add(rs.getString("nome"));
-                    String dataSaidaStr = rs.getString("data_saida");
-                    if (dataSaidaStr != null && !dataSaidaStr.isEmpty()) {
-                        LocalDate data = LocalDate.parse(dataSaidaStr, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-                        if (dataMaisProxima == null || data.isBefore(dataMaisProxima)) {
-                            dataMaisProxima = data;
-                        }
-                    }
-                }
-                quartoInfo.hospedes = nomes;
-                quartoInfo.dataDesocupacao = dataMaisProxima;
-            }
-        }
-    }
-
-    private static class QuartoInfo {
-        int numero;
-        List<String> hospedes = new ArrayList<>();
-        LocalDate dataDesocupacao;
-        QuartoInfo(int numero) { this.numero = numero; }
-    }
 }
@@ -9,16 +9,15 @@ import javax.swing.text.DocumentFilter;
 import javax.swing.text.JTextComponent;
 
 import com.toedter.calendar.JDateChooser;
-import db.DatabaseConnector;
 import model.Cama;
 import model.Hospede;
+import service.HotelService;
+import service.LinhaHospedagem;
 import view.dialogs.EditReservaDialog; // <-- Import do diálogo
-import view.dialogs.ProjecaoVagasDialog;
 
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.sql.*;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
@@ -36,10 +35,9 @@ public class ReservaPanel extends JPanel {
     private JTable tabelaReservas;
     private DefaultTableModel modeloTabela;
 
-    private ProjecaoVagasDialog projecaoVagasDialog;
+    private final HotelService servico = HotelService.getInstancia();
 
     public ReservaPanel() throws Exception {
-        projecaoVagasDialog = new ProjecaoVagasDialog(null);
         setLayout(new BorderLayout());
 
         // Painel superior (formulário)
@@ -128,7 +126,7 @@ public class ReservaPanel extends JPanel {
             }
 
             try {
-                List<Cama> camas = projecaoVagasDialog.getCamasDisponiveis(entrada, saida);
+                List<Cama> camas = servico.camasDisponiveis(entrada, saida);
 
                 if (camas.isEmpty()) {
                     JOptionPane.showMessageDialog(this, "Nenhuma cama disponível para o período informado.", "Info", JOptionPane.INFORMATION_MESSAGE);
@@ -195,27 +193,14 @@ public class ReservaPanel extends JPanel {
     }
 
     private void criarReserva(int hospedeId, int camaId, LocalDate entrada, LocalDate saida) throws Exception {
-        String sql = "INSERT INTO hospedagem (hospede_id, cama_id, data_entrada, data_saida, status) VALUES (?, ?, ?, ?, 0)";
-        try (Connection conn = DatabaseConnector.conectar();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setInt(1, hospedeId);
-            ps.setInt(2, camaId);
-            ps.setString(3, entrada.toString());
-            ps.setString(4, saida.toString());
-
-            int rows = ps.executeUpdate();
-            if (rows > 0) {
-                JOptionPane.showMessageDialog(this, "Reserva criada com sucesso.", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-                comboCamas.removeAllItems();
-                btnCriarReserva.setEnabled(false);
-                carregarHospedesSemHospedagemAtiva();
-                carregarReservasFuturas();
-            } else {
-                JOptionPane.showMessageDialog(this, "Falha ao criar reserva.", "Erro", JOptionPane.ERROR_MESSAGE);
-            }
-
-        } catch (SQLException ex) {
+        try {
+            servico.reservar(hospedeId, camaId, entrada, saida);
+            JOptionPane.showMessageDialog(this, "Reserva criada com sucesso.", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
+            comboCamas.removeAllItems();
+            btnCriarReserva.setEnabled(false);
+            carregarHospedesSemHospedagemAtiva();
+            carregarReservasFuturas();
+        } catch (Exception ex) {
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Erro ao criar reserva: " + ex.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
         }
@@ -223,65 +208,26 @@ public class ReservaPanel extends JPanel {
 
     private void carregarHospedesSemHospedagemAtiva() throws Exception {
         comboHospedes.removeAllItems();
-        String sql = """
-            SELECT * FROM hospede
-            WHERE id NOT IN (
-                SELECT hospede_id FROM hospedagem WHERE status = 1
-            )
-            ORDER BY nome
-        """;
-        try (Connection conn = DatabaseConnector.conectar();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                Hospede h = new Hospede();
-                h.setId(rs.getInt("id"));
-                h.setNome(rs.getString("nome"));
+        try {
+            for (Hospede h : servico.hospedesSemHospedagemAtiva()) {
                 comboHospedes.addItem(h);
             }
-
-        } catch (SQLException e) {
+        } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
     private void carregarReservasFuturas() throws Exception {
         modeloTabela.setRowCount(0);
-        String sql = """
-            SELECT h.id,
-                   hos.nome AS hospede,
-                   hos.email,
-                   hos.telefone,
-                   c.descricao AS cama,
-                   h.data_entrada,
-                   h.data_saida
-            FROM hospedagem h
-            JOIN hospede hos ON h.hospede_id = hos.id
-            JOIN cama c ON h.cama_id = c.id
-            WHERE h.status = 0 AND date(h.data_entrada) > date('now')
-            ORDER BY h.data_entrada
-        """;
-
-        try (Connection conn = DatabaseConnector.conectar();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
+        try {
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
-            while (rs.next()) {
-                int id = rs.getInt("id");
-                String hospede = rs.getString("hospede");
-                String email = rs.getString("email");
-                String telefone = rs.getString("telefone");
-                String cama = rs.getString("cama");
-                String entrada = LocalDate.parse(rs.getString("data_entrada")).format(formatter);
-                String saida = LocalDate.parse(rs.getString("data_saida")).format(formatter);
-
-                modeloTabela.addRow(new Object[]{id, hospede, email, telefone, cama, entrada, saida});
+            for (LinhaHospedagem h : servico.reservasFuturas()) {
+                String entrada = h.entrada().format(formatter);
+                String saida = h.saida().format(formatter);
+                modeloTabela.addRow(new Object[]{h.id(), h.hospede(), h.email(), h.telefone(), h.cama(), entrada, saida});
             }
-
-        } catch (SQLException e) {
+        } catch (Exception e) {
             e.printStackTrace();
         }
     }
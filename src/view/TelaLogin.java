@@ -10,7 +10,13 @@ import javax.swing.UIManager;
 
 import com.formdev.flatlaf.FlatLightLaf;
 
+import cache.DisponibilidadeCamas;
+import cache.IndiceHospedes;
+import controller.GerarContrato;
+import controller.ModeloContrato;
 import db.DatabaseInitializer;
+import diagnostico.GravacaoJfr;
+import diagnostico.MonitorEDT;
 import model.Sessao;
 import model.Usuario;
 import javax.swing.JTextField;
@@ -32,10 +38,15 @@ public class TelaLogin {
 	    } catch (Exception e) {
 	        e.printStackTrace();
 	    }
+		MonitorEDT.instalar();
+		GravacaoJfr.iniciarSeConfigurado();
 
 		EventQueue.invokeLater(() -> {
 			// Garante que o banco e o usuário admin já estão prontos
 			DatabaseInitializer.inicializarBanco();
+			DisponibilidadeCamas.getInstancia().precarregar();
+			IndiceHospedes.getInstancia().precarregar();
+			ModeloContrato.precarregar(GerarContrato.MODELO_RESERVA);
 
 			TelaLogin window = new TelaLogin();
 			window.frame.setVisible(true);
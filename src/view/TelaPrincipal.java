@@ -20,8 +20,14 @@ import javax.swing.border.EmptyBorder;
 
 import com.formdev.flatlaf.FlatLightLaf;
 
+import controller.GerenciadorExportacoes;
 import db.DatabaseInitializer;
+import diagnostico.GravacaoJfr;
+import diagnostico.MonitorEDT;
 import model.Sessao;
+import view.dialogs.ContratosLoteDialog;
+import view.dialogs.DiagnosticoDialog;
+import view.dialogs.ExportacoesDialog;
 
 public class TelaPrincipal {
 
@@ -37,6 +43,8 @@ public class TelaPrincipal {
             } catch (Exception e) {
                 e.printStackTrace();
             }
+            MonitorEDT.instalar();
+            GravacaoJfr.iniciarSeConfigurado();
 
             EventQueue.invokeLater(() -> {
                 try {
@@ -121,6 +129,10 @@ public class TelaPrincipal {
         });
         menuHospedagem.add(itemReserva);
 
+        JMenuItem itemContratosLote = criarItem("Contratos em Lote");
+        itemContratosLote.addActionListener(e -> new ContratosLoteDialog(frame).setVisible(true));
+        menuHospedagem.add(itemContratosLote);
+
         menuBar.add(menuHospedagem);
 
         // Menu Relatórios
@@ -134,12 +146,29 @@ public class TelaPrincipal {
         });
         menuBar.add(menuRelatorios);
 
+        // Menu Exportações (mostra quantas estão em andamento)
+        JMenu menuExportacoes = criarMenu("Exportações");
+        menuExportacoes.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                new ExportacoesDialog(frame).setVisible(true);
+            }
+        });
+        GerenciadorExportacoes.INSTANCIA.addOuvinte(() -> {
+            int emAndamento = GerenciadorExportacoes.INSTANCIA.getEmAndamento();
+            menuExportacoes.setText(emAndamento > 0 ? "Exportações (" + emAndamento + ")" : "Exportações");
+        });
+        menuBar.add(menuExportacoes);
+
         // Menu Usuário
         JMenu menuUsuario = criarMenu("Usuário");
         JMenuItem itemCriarUsuario = criarItem("Criar Usuário");
         itemCriarUsuario.addActionListener(e -> abrirCadastroUsuario());
         menuUsuario.add(itemCriarUsuario);
         menuUsuario.add(criarItem("Alterar Senha"));
+        JMenuItem itemDiagnostico = criarItem("Diagnóstico");
+        itemDiagnostico.addActionListener(e -> new DiagnosticoDialog(frame).setVisible(true));
+        menuUsuario.add(itemDiagnostico);
         JMenuItem itemSair = criarItem("Sair");
         itemSair.addActionListener(e -> frame.dispose());
         menuUsuario.add(itemSair);
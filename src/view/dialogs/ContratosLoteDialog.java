@@ -0,0 +1,208 @@
+package view.dialogs;
+
+import javax.swing.*;
+
+import com.toedter.calendar.JDateChooser;
+import controller.GerarContrato;
+import controller.GerenciadorExportacoes;
+import controller.LoteContratos;
+import db.DatabaseConnector;
+import service.HotelService;
+
+import java.awt.*;
+import java.io.File;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/** Gera os contratos de várias hospedagens em segundo plano (acompanhe em Exportações). */
+public class ContratosLoteDialog extends JDialog {
+
+    private static final int MAX_IDS = 10_000;
+
+    private JRadioButton rbPeriodo;
+    private JRadioButton rbIds;
+    private JDateChooser txtDataInicio;
+    private JDateChooser txtDataFim;
+    private JTextField txtIds;
+    private JRadioButton rbZip;
+
+    public ContratosLoteDialog(JFrame parent) {
+        super(parent, "Contratos em Lote", true);
+        setSize(520, 260);
+        setLocationRelativeTo(parent);
+        setLayout(new BorderLayout());
+
+        JPanel painel = new JPanel(new GridBagLayout());
+        painel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(4, 4, 4, 4);
+        gbc.anchor = GridBagConstraints.WEST;
+
+        rbPeriodo = new JRadioButton("Entradas no período:", true);
+        rbIds = new JRadioButton("Hospedagens nº:");
+        ButtonGroup grupoSelecao = new ButtonGroup();
+        grupoSelecao.add(rbPeriodo);
+        grupoSelecao.add(rbIds);
+
+        txtDataInicio = new JDateChooser(new Date());
+        txtDataInicio.setDateFormatString("dd/MM/yyyy");
+        txtDataFim = new JDateChooser(new Date());
+        txtDataFim.setDateFormatString("dd/MM/yyyy");
+        JPanel painelDatas = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        painelDatas.add(txtDataInicio);
+        painelDatas.add(new JLabel("a"));
+        painelDatas.add(txtDataFim);
+
+        txtIds = new JTextField(22);
+        txtIds.setToolTipText("Ex.: 120, 121, 130-145");
+
+        gbc.gridx = 0; gbc.gridy = 0; painel.add(rbPeriodo, gbc);
+        gbc.gridx = 1; painel.add(painelDatas, gbc);
+        gbc.gridx = 0; gbc.gridy = 1; painel.add(rbIds, gbc);
+        gbc.gridx = 1; painel.add(txtIds, gbc);
+
+        JRadioButton rbPasta = new JRadioButton("Um arquivo por contrato (pasta)", true);
+        rbZip = new JRadioButton("Um arquivo .zip");
+        ButtonGroup grupoSaida = new ButtonGroup();
+        grupoSaida.add(rbPasta);
+        grupoSaida.add(rbZip);
+        gbc.gridx = 0; gbc.gridy = 2; painel.add(new JLabel("Salvar como:"), gbc);
+        JPanel painelSaida = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        painelSaida.add(rbPasta);
+        painelSaida.add(rbZip);
+        gbc.gridx = 1; painel.add(painelSaida, gbc);
+
+        add(painel, BorderLayout.CENTER);
+
+        JPanel painelBotoes = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton btnGerar = new JButton("Gerar");
+        JButton btnCancelar = new JButton("Cancelar");
+        btnGerar.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        btnCancelar.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        painelBotoes.add(btnGerar);
+        painelBotoes.add(btnCancelar);
+        add(painelBotoes, BorderLayout.SOUTH);
+
+        txtIds.addFocusListener(new java.awt.event.FocusAdapter() {
+            @Override
+            public void focusGained(java.awt.event.FocusEvent e) {
+                rbIds.setSelected(true);
+            }
+        });
+        btnGerar.addActionListener(e -> gerar());
+        btnCancelar.addActionListener(e -> dispose());
+    }
+
+    private void gerar() {
+        List<Integer> ids = null;
+        LocalDate inicio = null;
+        LocalDate fim = null;
+        long total;
+
+        if (rbIds.isSelected()) {
+            try {
+                ids = lerIds(txtIds.getText());
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Números inválidos. Use, por exemplo: 120, 121, 130-145", "Erro", JOptionPane.ERROR_MESSAGE);
+                return;
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(this, ex.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            if (ids.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Informe ao menos uma hospedagem.", "Erro", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            total = ids.size();
+        } else {
+            if (txtDataInicio.getDate() == null || txtDataFim.getDate() == null) {
+                JOptionPane.showMessageDialog(this, "Informe o período.", "Erro", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            inicio = txtDataInicio.getDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+            fim = txtDataFim.getDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+            total = contarNoPeriodo(inicio, fim);
+            if (total == 0) {
+                JOptionPane.showMessageDialog(this, "Nenhuma hospedagem com entrada nesse período.");
+                return;
+            }
+        }
+
+        File destino = escolherDestino();
+        if (destino == null) return;
+
+        final List<Integer> idsSelecionados = ids;
+        final LocalDate dataInicio = inicio;
+        final LocalDate dataFim = fim;
+        GerenciadorExportacoes.Origem origem = () -> idsSelecionados != null
+                ? LoteContratos.porIds(DatabaseConnector::conectar, idsSelecionados)
+                : LoteContratos.porPeriodo(DatabaseConnector::conectar, dataInicio, dataFim);
+        GerenciadorExportacoes.Destino gravacao = rbZip.isSelected()
+                ? (fonte, arquivo) -> LoteContratos.gerarZip(GerarContrato.MODELO_RESERVA, fonte, arquivo)
+                : (fonte, arquivo) -> LoteContratos.gerarEmPasta(GerarContrato.MODELO_RESERVA, fonte, arquivo);
+
+        GerenciadorExportacoes.INSTANCIA
+                .enviar("Contratos em lote (" + total + ")", destino, total, origem, gravacao)
+                .avisarAoTerminar(getOwner(), "Contratos gerados em:\n" + destino.getAbsolutePath(), "Erro ao gerar contratos.");
+
+        JOptionPane.showMessageDialog(this, "Geração iniciada. Acompanhe o andamento em Exportações.");
+        dispose();
+    }
+
+    private File escolherDestino() {
+        JFileChooser fileChooser = new JFileChooser();
+        if (rbZip.isSelected()) {
+            fileChooser.setDialogTitle("Salvar contratos como...");
+            fileChooser.setSelectedFile(new File("contratos.zip"));
+            if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return null;
+            File arquivo = fileChooser.getSelectedFile();
+            if (!arquivo.getName().toLowerCase().endsWith(".zip")) {
+                arquivo = new File(arquivo.getAbsolutePath() + ".zip");
+            }
+            return arquivo;
+        }
+        fileChooser.setDialogTitle("Pasta dos contratos");
+        fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return null;
+        return fileChooser.getSelectedFile();
+    }
+
+    // "120, 121, 130-145"; faixa invertida ou ids demais (um zero a mais no fim da faixa) é erro de digitação
+    private static List<Integer> lerIds(String texto) {
+        List<Integer> ids = new ArrayList<>();
+        for (String parte : texto.split("[,;\\s]+")) {
+            if (parte.isEmpty()) continue;
+            int traco = parte.indexOf('-');
+            if (traco > 0) {
+                int de = Integer.parseInt(parte.substring(0, traco));
+                int ate = Integer.parseInt(parte.substring(traco + 1));
+                if (ate < de) {
+                    throw new IllegalArgumentException("Faixa invertida: " + parte + ". Use o menor número primeiro.");
+                }
+                if ((long) ate - de + 1 + ids.size() > MAX_IDS) {
+                    throw new IllegalArgumentException("No máximo " + MAX_IDS + " hospedagens por lote (faixa " + parte
+                            + "). Para mais, gere por período.");
+                }
+                for (long id = de; id <= ate; id++) ids.add((int) id);
+            } else {
+                if (ids.size() >= MAX_IDS) {
+                    throw new IllegalArgumentException("No máximo " + MAX_IDS + " hospedagens por lote. Para mais, gere por período.");
+                }
+                ids.add(Integer.parseInt(parte));
+            }
+        }
+        return ids;
+    }
+
+    private long contarNoPeriodo(LocalDate inicio, LocalDate fim) {
+        try {
+            return HotelService.getInstancia().contarEntradasNoPeriodo(inicio, fim);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return -1; // sem estimativa; o lote roda do mesmo jeito
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package view.dialogs;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.DefaultTableModel;
+
+import db.ConnectionPool;
+import db.DatabaseConnector;
+import diagnostico.ConsultasLentas;
+import diagnostico.GravacaoJfr;
+import diagnostico.HistogramaLatencia;
+import diagnostico.MetricasSql;
+import diagnostico.MonitorEDT;
+
+import java.awt.*;
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Latência do banco por tela e por SQL ({@link MetricasSql}) e travamentos da
+ * interface ({@link MonitorEDT}), atualizados a cada 2 segundos.
+ */
+public class DiagnosticoDialog extends JDialog {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final DateTimeFormatter HORARIO = DateTimeFormatter.ofPattern("dd/MM HH:mm:ss");
+    private static final DateTimeFormatter ARQUIVO_JFR = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Timer timerAtualizacao = new Timer(2000, e -> atualizar());
+    private final JLabel lblPool = new JLabel();
+    private final DefaultTableModel modelo;
+    private final JLabel lblInterface = new JLabel();
+    private final DefaultTableModel modeloTravamentos;
+    private final JTextArea txtPilha = new JTextArea();
+    private List<MonitorEDT.Travamento> travamentos = List.of();
+
+    public DiagnosticoDialog(JFrame parent) {
+        super(parent, "Diagnóstico", false);
+        setSize(1100, 480);
+        setLocationRelativeTo(parent);
+        setLayout(new BorderLayout());
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+
+        String[] colunas = {"Tela", "SQL", "Execuções", "Linhas", "Total (ms)", "Média (ms)",
+                "p50 (ms)", "p95 (ms)", "p99 (ms)", "Máx (ms)"};
+        modelo = new DefaultTableModel(colunas, 0) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+            @Override
+            public Class<?> getColumnClass(int column) {
+                return column < 2 ? String.class : column < 4 ? Long.class : Double.class;
+            }
+        };
+        JTable tabela = new JTable(modelo);
+        tabela.setAutoCreateRowSorter(true);
+        tabela.getColumnModel().getColumn(1).setPreferredWidth(420);
+        tabela.setDefaultRenderer(Double.class, new DefaultTableCellRenderer() {
+            private static final long serialVersionUID = 1L;
+            {
+                setHorizontalAlignment(SwingConstants.RIGHT);
+            }
+            @Override
+            protected void setValue(Object value) {
+                setText(value == null ? "" : String.format("%.3f", (Double) value));
+            }
+        });
+
+        lblPool.setBorder(BorderFactory.createEmptyBorder(6, 8, 6, 8));
+        JPanel painelBanco = new JPanel(new BorderLayout());
+        painelBanco.add(lblPool, BorderLayout.NORTH);
+        painelBanco.add(new JScrollPane(tabela), BorderLayout.CENTER);
+
+        // Interface: um travamento por linha, a pilha do selecionado embaixo
+        modeloTravamentos = new DefaultTableModel(new String[]{"Horário", "Duração (ms)", "Tela", "Evento"}, 0) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable tabelaTravamentos = new JTable(modeloTravamentos);
+        tabelaTravamentos.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        tabelaTravamentos.getSelectionModel().addListSelectionListener(e -> {
+            int linha = tabelaTravamentos.getSelectedRow();
+            txtPilha.setText(linha >= 0 && linha < travamentos.size() ? travamentos.get(linha).pilha() : "");
+            txtPilha.setCaretPosition(0);
+        });
+        txtPilha.setEditable(false);
+        txtPilha.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+
+        lblInterface.setBorder(BorderFactory.createEmptyBorder(6, 8, 6, 8));
+        JSplitPane divisao = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JScrollPane(tabelaTravamentos), new JScrollPane(txtPilha));
+        divisao.setResizeWeight(0.5);
+        JPanel painelInterface = new JPanel(new BorderLayout());
+        painelInterface.add(lblInterface, BorderLayout.NORTH);
+        painelInterface.add(divisao, BorderLayout.CENTER);
+
+        JTabbedPane abas = new JTabbedPane();
+        abas.addTab("Banco", painelBanco);
+        abas.addTab("Interface", painelInterface);
+        add(abas, BorderLayout.CENTER);
+
+        JPanel painelBotoes = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton btnZerar = new JButton("Zerar");
+        JButton btnSalvar = new JButton("Salvar em arquivo");
+        JButton btnJfr = new JButton("Salvar gravação JFR");
+        btnJfr.setEnabled(GravacaoJfr.gravando());
+        btnJfr.setToolTipText(GravacaoJfr.gravando() ? null : "Inicie o sistema com -Dhotel.jfr=true");
+        JButton btnFechar = new JButton("Fechar");
+        painelBotoes.add(btnZerar);
+        painelBotoes.add(btnSalvar);
+        painelBotoes.add(btnJfr);
+        painelBotoes.add(btnFechar);
+        add(painelBotoes, BorderLayout.SOUTH);
+
+        btnZerar.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        btnSalvar.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        btnJfr.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        btnFechar.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+
+        btnZerar.addActionListener(e -> {
+            MetricasSql.zerar();
+            MonitorEDT.zerar();
+            travamentos = List.of();
+            atualizar();
+        });
+        btnSalvar.addActionListener(e -> salvar());
+        btnJfr.addActionListener(e -> salvarJfr(btnJfr));
+        btnFechar.addActionListener(e -> dispose());
+
+        timerAtualizacao.start();
+        atualizar();
+    }
+
+    @Override
+    public void dispose() {
+        timerAtualizacao.stop();
+        super.dispose();
+    }
+
+    private void atualizar() {
+        ConnectionPool.MetricasPool pool = DatabaseConnector.getMetricasPool();
+        String situacao = MetricasSql.ATIVO ? "" : "Métricas desligadas (-Dhotel.db.metricas=false). ";
+        lblPool.setText(situacao + (pool != null ? pool.toString() : "Pool ainda não criado.")
+                + (MetricasSql.ATIVO ? String.format("  |  Consultas lentas (> %d ms): %d, log em %s",
+                        ConsultasLentas.LIMIAR_NANOS / 1_000_000, ConsultasLentas.getRegistradas(),
+                        ConsultasLentas.ARQUIVO) : ""));
+
+        modelo.setRowCount(0);
+        for (MetricasSql.LinhaMetrica l : MetricasSql.linhas()) {
+            modelo.addRow(new Object[]{
+                    l.tela(), l.sql(), l.execucoes(), l.linhas(), l.totalMs(), l.mediaMs(),
+                    l.p50Ms(), l.p95Ms(), l.p99Ms(), l.maximoMs()
+            });
+        }
+
+        atualizarInterface();
+    }
+
+    private void atualizarInterface() {
+        if (!MonitorEDT.ATIVO) {
+            lblInterface.setText("Monitor da interface desligado (-Dhotel.edt.monitor=false).");
+            return;
+        }
+        HistogramaLatencia despachos = MonitorEDT.getDespachos();
+        HistogramaLatencia atraso = MonitorEDT.getAtrasoRecente();
+        lblInterface.setText(String.format(
+                "Eventos: %d, p50 %.1f ms, p99 %.1f ms, máx %.0f ms  |  Atraso no último minuto: p50 %.1f ms, "
+                + "p99 %.1f ms, máx %.0f ms  |  Travamentos acima de %d ms (log em %s)",
+                despachos.contagem(), ms(despachos.percentilNanos(0.50)), ms(despachos.percentilNanos(0.99)),
+                ms(despachos.maximoNanos()), ms(atraso.percentilNanos(0.50)), ms(atraso.percentilNanos(0.99)),
+                ms(atraso.maximoNanos()), MonitorEDT.LIMIAR_MS, MonitorEDT.ARQUIVO_LOG));
+
+        // Só redesenha a lista se chegou travamento novo, para não perder a seleção
+        List<MonitorEDT.Travamento> atuais = MonitorEDT.getTravamentos();
+        if (atuais.equals(travamentos)) return;
+        travamentos = atuais;
+        modeloTravamentos.setRowCount(0);
+        for (MonitorEDT.Travamento t : travamentos) {
+            modeloTravamentos.addRow(new Object[]{
+                    t.inicio().format(HORARIO), t.duracaoMs(), t.tela(), t.evento()
+            });
+        }
+        txtPilha.setText("");
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+
+    // O dump pode ter dezenas de MB: grava fora da EDT, com o botão desligado até terminar
+    private void salvarJfr(JButton botao) {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Salvar gravação JFR");
+        fileChooser.setSelectedFile(new File("hotel-" + LocalDateTime.now().format(ARQUIVO_JFR) + ".jfr"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        File arquivo = fileChooser.getSelectedFile();
+        botao.setEnabled(false);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                GravacaoJfr.salvar(arquivo.toPath());
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                botao.setEnabled(true);
+                try {
+                    get();
+                    JOptionPane.showMessageDialog(DiagnosticoDialog.this, "Gravação salva em " + arquivo.getAbsolutePath()
+                            + "\nAbra no JDK Mission Control ou com: jfr print --events hotel.* arquivo.jfr");
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                    JOptionPane.showMessageDialog(DiagnosticoDialog.this, "Erro ao salvar gravação: " + e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+    }
+
+    private void salvar() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Salvar métricas do banco");
+        fileChooser.setSelectedFile(new File("metricas-sql.tsv"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        File arquivo = fileChooser.getSelectedFile();
+        try {
+            MetricasSql.salvar(arquivo);
+            JOptionPane.showMessageDialog(this, "Métricas salvas em " + arquivo.getAbsolutePath());
+        } catch (Exception e) {
+            e.printStackTrace();
+            JOptionPane.showMessageDialog(this, "Erro ao salvar métricas: " + e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package view.dialogs;
 
+import cache.NotificadorAlteracoes;
 import db.DatabaseConnector;
 
 import javax.swing.*;
@@ -141,6 +142,7 @@ public class EditCamaDialog extends JDialog {
             ps.setInt(4, idCama);
 
             int n = ps.executeUpdate();
+            NotificadorAlteracoes.camasAlteradas();
             if (n > 0) {
                 JOptionPane.showMessageDialog(this, "Cama atualizada com sucesso.", "OK", JOptionPane.INFORMATION_MESSAGE);
                 dispose();
@@ -162,6 +164,7 @@ public class EditCamaDialog extends JDialog {
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, idCama);
             int n = ps.executeUpdate();
+            NotificadorAlteracoes.camasAlteradas();
             if (n > 0) {
                 JOptionPane.showMessageDialog(this, "Cama excluída.", "OK", JOptionPane.INFORMATION_MESSAGE);
                 dispose();
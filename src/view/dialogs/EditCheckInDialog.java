@@ -18,6 +18,7 @@ import java.util.Date;
 
 import com.toedter.calendar.JDateChooser;
 
+import cache.NotificadorAlteracoes;
 import db.DatabaseConnector;
 
 public class EditCheckInDialog extends JDialog {
@@ -295,6 +296,7 @@ public class EditCheckInDialog extends JDialog {
                 psOcupa.executeUpdate();
 
                 conn.commit();
+                NotificadorAlteracoes.hospedagemAlterada(idCheckIn);
                 JOptionPane.showMessageDialog(this, "Check-in atualizado com sucesso.", "OK", JOptionPane.INFORMATION_MESSAGE);
                 dispose();
             } catch (Exception ex) {
@@ -330,6 +332,7 @@ public class EditCheckInDialog extends JDialog {
                 int deleted = psDelHosp.executeUpdate();
 
                 conn.commit();
+                NotificadorAlteracoes.hospedagemAlterada(idCheckIn);
                 if (deleted > 0) {
                     JOptionPane.showMessageDialog(this, "Check-in excluído.", "OK", JOptionPane.INFORMATION_MESSAGE);
                     dispose();
@@ -2,9 +2,8 @@ package view.dialogs;
 
 import javax.swing.*;
 import java.awt.*;
-import java.sql.*;
-import java.time.LocalDate;
-import db.DatabaseConnector;
+import service.HotelService;
+import service.LinhaHospedagem;
 
 public class EditCheckOutDialog extends JDialog {
 
@@ -40,56 +39,28 @@ public class EditCheckOutDialog extends JDialog {
 
     private String carregarNomeHospede(int hospedagemId) {
         String nome = "";
-        String sql = "SELECT h.nome FROM hospede h " +
-                     "JOIN hospedagem res ON h.id = res.hospede_id " +
-                     "WHERE res.id = ?";
-
-        try (Connection conn = DatabaseConnector.conectar();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, hospedagemId);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    nome = rs.getString("nome");
-                }
+        try {
+            LinhaHospedagem hospedagem = HotelService.getInstancia().buscarHospedagem(hospedagemId);
+            if (hospedagem != null && hospedagem.hospede() != null) {
+                nome = hospedagem.hospede();
             }
-        } catch (SQLException e) {
+        } catch (Exception e) {
             e.printStackTrace();
-        } catch (Exception e1) {
-			// TODO Auto-generated catch block
-			e1.printStackTrace();
-		}
+        }
         return nome.isEmpty() ? "hóspede" : nome;
     }
 
     private void finalizarCheckOut(int hospedagemId) {
-        String sqlUpdateHospedagem = "UPDATE hospedagem SET status = 0, data_saida = ? WHERE id = ?";
-        String sqlUpdateCama = "UPDATE cama SET status = 0 WHERE id = (SELECT cama_id FROM hospedagem WHERE id = ?)";
-
-        try (Connection conn = DatabaseConnector.conectar()) {
-            conn.setAutoCommit(false);
-            try (PreparedStatement psHospedagem = conn.prepareStatement(sqlUpdateHospedagem);
-                 PreparedStatement psCama = conn.prepareStatement(sqlUpdateCama)) {
-
-                LocalDate hoje = LocalDate.now();
-                psHospedagem.setString(1, hoje.toString());
-                psHospedagem.setInt(2, hospedagemId);
-                psHospedagem.executeUpdate();
-
-                psCama.setInt(1, hospedagemId);
-                psCama.executeUpdate();
-
-                conn.commit();
+        try {
+            if (HotelService.getInstancia().realizarCheckOut(hospedagemId)) {
                 JOptionPane.showMessageDialog(this, "Check-out concluído.", "OK", JOptionPane.INFORMATION_MESSAGE);
-            } catch (SQLException ex) {
-                conn.rollback();
-                JOptionPane.showMessageDialog(this, "Erro ao finalizar check-out.", "Erro", JOptionPane.ERROR_MESSAGE);
-                ex.printStackTrace();
+            } else {
+                JOptionPane.showMessageDialog(this, "Esta hospedagem já foi encerrada ou não existe mais.",
+                        "Aviso", JOptionPane.WARNING_MESSAGE);
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        } catch (Exception e1) {
-			// TODO Auto-generated catch block
-			e1.printStackTrace();
-		}
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, "Erro ao finalizar check-out.", "Erro", JOptionPane.ERROR_MESSAGE);
+            ex.printStackTrace();
+        }
     }
 }
@@ -1,5 +1,6 @@
 package view.dialogs;
 
+import cache.NotificadorAlteracoes;
 import db.DatabaseConnector;
 
 import javax.swing.*;
@@ -146,6 +147,7 @@ public class EditHospedeDialog extends JDialog {
 
             int n = ps.executeUpdate();
             if (n > 0) {
+                NotificadorAlteracoes.hospedeAlterado(idHospede);
                 JOptionPane.showMessageDialog(this, "Registro atualizado com sucesso.", "OK", JOptionPane.INFORMATION_MESSAGE);
                 dispose();
             } else {
@@ -167,6 +169,7 @@ public class EditHospedeDialog extends JDialog {
             ps.setInt(1, idHospede);
             int n = ps.executeUpdate();
             if (n > 0) {
+                NotificadorAlteracoes.hospedeAlterado(idHospede);
                 JOptionPane.showMessageDialog(this, "Registro excluído.", "OK", JOptionPane.INFORMATION_MESSAGE);
                 dispose();
             } else {
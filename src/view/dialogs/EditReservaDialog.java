@@ -12,9 +12,12 @@ import java.util.Date;
 
 import com.toedter.calendar.JDateChooser;
 
+import cache.NotificadorAlteracoes;
 import db.DatabaseConnector;
 import model.Cama;
 import model.Hospede;
+import service.HotelService;
+import service.OperacaoRecusada;
 
 public class EditReservaDialog extends JDialog {
     private static final long serialVersionUID = 1L;
@@ -127,17 +130,15 @@ public class EditReservaDialog extends JDialog {
     }
 
     private void checkIn() {
-        String sql = "UPDATE hospedagem SET status = 1 WHERE id = ?";
-        try (Connection conn = DatabaseConnector.conectar();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, idReserva);
-            int updated = ps.executeUpdate();
-            if (updated > 0) {
+        try {
+            if (HotelService.getInstancia().realizarCheckInDaReserva(idReserva) != null) {
                 JOptionPane.showMessageDialog(this, "Check-in realizado com sucesso.", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
                 dispose();
             } else {
                 JOptionPane.showMessageDialog(this, "Reserva não encontrada para check-in.", "Aviso", JOptionPane.WARNING_MESSAGE);
             }
+        } catch (OperacaoRecusada e) {
+            JOptionPane.showMessageDialog(this, e.getMessage(), "Aviso", JOptionPane.WARNING_MESSAGE);
         } catch (Exception e) {
             e.printStackTrace();
             JOptionPane.showMessageDialog(this, "Erro ao realizar check-in.", "Erro", JOptionPane.ERROR_MESSAGE);
@@ -163,6 +164,7 @@ public class EditReservaDialog extends JDialog {
                 int deleted = psDel.executeUpdate();
 
                 conn.commit();
+                NotificadorAlteracoes.hospedagemAlterada(idReserva);
 
                 if (deleted > 0) {
                     JOptionPane.showMessageDialog(this, "Reserva excluída.", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
@@ -0,0 +1,132 @@
+package view.dialogs;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableCellRenderer;
+
+import controller.Exportacao;
+import controller.GerenciadorExportacoes;
+
+import java.awt.*;
+import java.util.List;
+
+/** Andamento das exportações em segundo plano; não bloqueia o resto do sistema. */
+public class ExportacoesDialog extends JDialog {
+
+    private static final int COLUNA_PROGRESSO = 4;
+
+    private final GerenciadorExportacoes gerenciador = GerenciadorExportacoes.INSTANCIA;
+    private final Runnable ouvinte = this::atualizar;
+    private final Timer timerProgresso = new Timer(500, e -> atualizar());
+    private JTable tabela;
+    private List<Exportacao> exibidas = List.of();
+
+    public ExportacoesDialog(JFrame parent) {
+        super(parent, "Exportações", false);
+        setSize(760, 320);
+        setLocationRelativeTo(parent);
+        setLayout(new BorderLayout());
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+
+        String[] colunas = {"Relatório", "Arquivo", "Situação", "Linhas", "Progresso"};
+        DefaultTableModel modelo = new DefaultTableModel(colunas, 0) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false; // impede edição em qualquer célula
+            }
+        };
+        tabela = new JTable(modelo);
+        tabela.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        tabela.getColumnModel().getColumn(COLUNA_PROGRESSO).setCellRenderer(new RenderizadorProgresso());
+        add(new JScrollPane(tabela), BorderLayout.CENTER);
+
+        JPanel painelBotoes = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton btnCancelar = new JButton("Cancelar exportação");
+        JButton btnLimpar = new JButton("Limpar finalizadas");
+        JButton btnFechar = new JButton("Fechar");
+        painelBotoes.add(btnCancelar);
+        painelBotoes.add(btnLimpar);
+        painelBotoes.add(btnFechar);
+        add(painelBotoes, BorderLayout.SOUTH);
+
+        btnCancelar.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        btnLimpar.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        btnFechar.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+
+        btnCancelar.addActionListener(e -> cancelarSelecionada());
+        btnLimpar.addActionListener(e -> gerenciador.limparTerminadas());
+        btnFechar.addActionListener(e -> dispose());
+
+        gerenciador.addOuvinte(ouvinte);
+        timerProgresso.start();
+        atualizar();
+    }
+
+    @Override
+    public void dispose() {
+        timerProgresso.stop();
+        gerenciador.removeOuvinte(ouvinte);
+        super.dispose();
+    }
+
+    private void atualizar() {
+        int selecionada = tabela.getSelectedRow();
+        Exportacao anterior = selecionada >= 0 && selecionada < exibidas.size() ? exibidas.get(selecionada) : null;
+
+        exibidas = gerenciador.getExportacoes();
+        DefaultTableModel modelo = (DefaultTableModel) tabela.getModel();
+        modelo.setRowCount(0);
+        for (Exportacao exportacao : exibidas) {
+            modelo.addRow(new Object[]{
+                    exportacao.getDescricao(),
+                    exportacao.getArquivo().getName(),
+                    exportacao.getEstado(),
+                    exportacao.getLinhas(),
+                    exportacao.getProgresso()
+            });
+        }
+
+        int indice = exibidas.indexOf(anterior);
+        if (indice >= 0) tabela.setRowSelectionInterval(indice, indice);
+    }
+
+    private void cancelarSelecionada() {
+        int linha = tabela.getSelectedRow();
+        if (linha < 0 || linha >= exibidas.size()) {
+            JOptionPane.showMessageDialog(this, "Selecione uma exportação.");
+            return;
+        }
+        Exportacao exportacao = exibidas.get(linha);
+        if (exportacao.terminada()) {
+            JOptionPane.showMessageDialog(this, "Essa exportação já terminou.");
+            return;
+        }
+        gerenciador.cancelar(exportacao);
+        atualizar();
+    }
+
+    private static class RenderizadorProgresso extends JProgressBar implements TableCellRenderer {
+        private static final long serialVersionUID = 1L;
+
+        RenderizadorProgresso() {
+            super(0, 100);
+            setStringPainted(true);
+        }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                       boolean hasFocus, int row, int column) {
+            int progresso = value instanceof Integer p ? p : -1;
+            if (progresso < 0) {
+                // total desconhecido: só as linhas já escritas dizem o andamento
+                setValue(0);
+                setString("—");
+            } else {
+                setValue(progresso);
+                setString(progresso + "%");
+            }
+            return this;
+        }
+    }
+}
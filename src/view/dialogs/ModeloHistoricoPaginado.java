@@ -0,0 +1,225 @@
+package view.dialogs;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+
+import service.FiltroHistorico;
+import service.HotelRepository;
+import service.HotelService;
+import service.LinhaHistorico;
+
+/**
+ * Histórico de hospedagens carregado sob demanda: a tabela pede as linhas que
+ * está desenhando e as páginas que faltam vêm do banco numa thread à parte
+ * (paginação por chave, {@link HotelService#historicoPagina}). Só as páginas
+ * vistas por último ficam em memória; das outras guarda-se o último id, para
+ * buscá-las de novo sem OFFSET.
+ *
+ * Enquanto o total não chega ({@link #definirTotal}), a tabela cresce uma
+ * página por vez ao rolar até o fim; depois tem o tamanho do resultado e a
+ * barra de rolagem pula para qualquer ponto.
+ */
+class ModeloHistoricoPaginado extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    static final int TAMANHO_PAGINA = 200;
+    private static final int PAGINAS_EM_MEMORIA = 20;
+    // Ao arrastar a barra, só as últimas pedidas ainda interessam
+    private static final int PAGINAS_NA_FILA = 6;
+    private static final DateTimeFormatter DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    // Uma thread para todas as tabelas paginadas, que morre quando ociosa
+    private static final ThreadPoolExecutor CARGA = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r, "historico-paginas");
+                t.setDaemon(true);
+                return t;
+            });
+
+    static {
+        CARGA.allowCoreThreadTimeOut(true);
+    }
+
+    private final HotelService servico;
+    private final FiltroHistorico filtro;
+    private final Consumer<Exception> aoFalhar;
+
+    // Só na EDT
+    private final Map<Integer, List<LinhaHistorico>> paginas = new LinkedHashMap<>(32, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<LinhaHistorico>> maisAntiga) {
+            return size() > PAGINAS_EM_MEMORIA;
+        }
+    };
+    private final Set<Integer> solicitadas = new HashSet<>();
+    private final Set<Integer> comErro = new HashSet<>();
+    private int linhas;
+    private int total = -1;
+    private boolean temMais = true;
+
+    // Página -> id da última hospedagem dela, lido pela thread de carga
+    private final ConcurrentSkipListMap<Integer, Integer> limites = new ConcurrentSkipListMap<>();
+    private final LinkedBlockingDeque<Integer> pendentes = new LinkedBlockingDeque<>();
+    private final AtomicBoolean carregando = new AtomicBoolean();
+    private volatile boolean descartado;
+
+    /** {@code aoFalhar} roda na EDT, uma vez por página que não carregou. */
+    ModeloHistoricoPaginado(HotelService servico, FiltroHistorico filtro, Consumer<Exception> aoFalhar) {
+        this.servico = servico;
+        this.filtro = filtro;
+        this.aoFalhar = aoFalhar;
+        solicitar(0);
+    }
+
+    /** Total do filtro, quando a contagem termina: a tabela passa a ter todas as linhas. */
+    void definirTotal(int total) {
+        int antes = linhas;
+        this.total = total;
+        linhas = total;
+        temMais = false;
+        if (linhas > antes) fireTableRowsInserted(antes, linhas - 1);
+        else if (linhas < antes) fireTableRowsDeleted(linhas, antes - 1);
+    }
+
+    /** O filtro mudou e outro modelo assumiu: páginas a caminho são ignoradas. */
+    void descartar() {
+        descartado = true;
+        pendentes.clear();
+    }
+
+    @Override
+    public int getRowCount() {
+        return linhas;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return HotelRepository.COLUNAS_HISTORICO.length;
+    }
+
+    @Override
+    public String getColumnName(int coluna) {
+        return HotelRepository.COLUNAS_HISTORICO[coluna];
+    }
+
+    @Override
+    public Object getValueAt(int linha, int coluna) {
+        int pagina = linha / TAMANHO_PAGINA;
+        List<LinhaHistorico> itens = paginas.get(pagina);
+        if (itens == null) {
+            solicitar(pagina);
+            return coluna == 0 ? "Carregando..." : "";
+        }
+        int indice = linha % TAMANHO_PAGINA;
+        if (indice >= itens.size()) return ""; // o histórico encolheu depois da contagem
+        LinhaHistorico h = itens.get(indice);
+        return switch (coluna) {
+            case 0 -> h.nome();
+            case 1 -> h.sexo();
+            case 2 -> h.documento();
+            case 3 -> h.telefone();
+            case 4 -> h.email();
+            case 5 -> formatar(h.entrada());
+            default -> formatar(h.saida());
+        };
+    }
+
+    private static String formatar(LocalDate data) {
+        return data == null ? "" : data.format(DATA);
+    }
+
+    private void solicitar(int pagina) {
+        if (descartado || comErro.contains(pagina) || !solicitadas.add(pagina)) return;
+        pendentes.addLast(pagina);
+        while (pendentes.size() > PAGINAS_NA_FILA) {
+            Integer antiga = pendentes.pollFirst();
+            if (antiga != null) solicitadas.remove(antiga);
+        }
+        if (carregando.compareAndSet(false, true)) CARGA.execute(this::carregarPendentes);
+    }
+
+    // Na thread de carga: a mais recente primeiro, que é a que está na tela
+    private void carregarPendentes() {
+        try {
+            Integer pagina;
+            while (!descartado && (pagina = pendentes.pollLast()) != null) {
+                int numero = pagina;
+                try {
+                    List<LinhaHistorico> itens = carregar(numero);
+                    SwingUtilities.invokeLater(() -> publicar(numero, itens));
+                } catch (Exception e) {
+                    SwingUtilities.invokeLater(() -> falhar(numero, e));
+                }
+            }
+        } finally {
+            carregando.set(false);
+            // pedido que chegou entre o último poll e o set acima
+            if (!descartado && !pendentes.isEmpty() && carregando.compareAndSet(false, true)) {
+                CARGA.execute(this::carregarPendentes);
+            }
+        }
+    }
+
+    private List<LinhaHistorico> carregar(int pagina) throws Exception {
+        int antesDoId = 0;
+        if (pagina > 0) {
+            Integer conhecido = limites.get(pagina - 1);
+            if (conhecido != null) {
+                antesDoId = conhecido;
+            } else {
+                // Do limite conhecido mais próximo, pula até a última linha da página anterior
+                Map.Entry<Integer, Integer> base = limites.floorEntry(pagina - 1);
+                int basePagina = base != null ? base.getKey() : -1;
+                int baseId = base != null ? base.getValue() : 0;
+                antesDoId = servico.historicoIdNaPosicao(filtro, baseId, (pagina - 1 - basePagina) * TAMANHO_PAGINA - 1);
+                if (antesDoId == 0) return List.of();
+                limites.put(pagina - 1, antesDoId);
+            }
+        }
+        List<LinhaHistorico> itens = servico.historicoPagina(filtro, antesDoId, TAMANHO_PAGINA);
+        if (!itens.isEmpty()) limites.put(pagina, itens.get(itens.size() - 1).id());
+        return itens;
+    }
+
+    private void publicar(int pagina, List<LinhaHistorico> itens) {
+        if (descartado) return;
+        solicitadas.remove(pagina);
+        paginas.put(pagina, itens);
+
+        int inicio = pagina * TAMANHO_PAGINA;
+        if (total < 0 && temMais && inicio + itens.size() >= linhas) {
+            // Sem o total ainda: cresce até esta página e, se veio cheia, reserva a próxima
+            int antes = linhas;
+            temMais = itens.size() == TAMANHO_PAGINA;
+            linhas = inicio + itens.size() + (temMais ? TAMANHO_PAGINA : 0);
+            if (linhas > antes) fireTableRowsInserted(antes, linhas - 1);
+            else if (linhas < antes) fireTableRowsDeleted(linhas, antes - 1);
+        }
+        int fim = Math.min(inicio + TAMANHO_PAGINA, linhas) - 1;
+        if (fim >= inicio) fireTableRowsUpdated(inicio, fim);
+    }
+
+    private void falhar(int pagina, Exception e) {
+        if (descartado) return;
+        solicitadas.remove(pagina);
+        comErro.add(pagina);
+        aoFalhar.accept(e);
+    }
+}
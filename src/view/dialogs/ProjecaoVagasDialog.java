@@ -9,11 +9,11 @@ import javax.swing.text.DocumentFilter;
 import javax.swing.text.JTextComponent;
 
 import com.toedter.calendar.JDateChooser;
-import db.DatabaseConnector;
 import model.Cama;
+import service.HotelService;
 
 import java.awt.*;
-import java.sql.*;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
@@ -24,12 +24,12 @@ import java.util.List;
 
 public class ProjecaoVagasDialog extends JDialog {
 
-    private static final DateTimeFormatter ISO = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter FRIENDLY = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
     private JDateChooser txtDataInicio;
     private JDateChooser txtDataFim;
     private JTable tabela;
+    private JLabel lblResumoDiario;
 
     public ProjecaoVagasDialog(JFrame parent) {
         super(parent, "Projeção de Vagas - Camas Disponíveis no Período", true);
@@ -67,12 +67,17 @@ public class ProjecaoVagasDialog extends JDialog {
         tabela = new JTable(modelo);
         add(new JScrollPane(tabela), BorderLayout.CENTER);
 
+        lblResumoDiario = new JLabel(" ");
+        lblResumoDiario.setBorder(BorderFactory.createEmptyBorder(4, 8, 4, 8));
+        add(lblResumoDiario, BorderLayout.SOUTH);
+
         btnFiltrar.addActionListener(e -> carregarCamasDisponiveisNoPeriodo());
     }
 
     private void carregarCamasDisponiveisNoPeriodo() {
         DefaultTableModel modelo = (DefaultTableModel) tabela.getModel();
         modelo.setRowCount(0);
+        lblResumoDiario.setText(" ");
 
         LocalDate dataInicio;
         LocalDate dataFim;
@@ -90,30 +95,24 @@ public class ProjecaoVagasDialog extends JDialog {
             return;
         }
 
-        String sql =
-                "SELECT c.id, c.descricao, c.quarto_numero " +
-                "FROM cama c " +
-                "WHERE NOT EXISTS ( " +
-                "  SELECT 1 FROM hospedagem h " +
-                "  WHERE h.cama_id = c.id " +
-                "    AND NOT (h.data_saida < ? OR h.data_entrada > ?) " +
-                ") " +
-                "ORDER BY c.descricao";
-
-        try (Connection conn = DatabaseConnector.conectar();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-        	ps.setString(1, ISO.format(dataInicio));
-        	ps.setString(2, ISO.format(dataFim));
-
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    modelo.addRow(new Object[] {
-                        rs.getString("descricao"),
-                        rs.getInt("quarto_numero")
-                    });
-                }
+        try {
+            HotelService servico = HotelService.getInstancia();
+            for (Cama cama : servico.camasDisponiveis(dataInicio, dataFim)) {
+                modelo.addRow(new Object[] {
+                    cama.getDescricao(),
+                    cama.getQuartoNumero()
+                });
             }
+
+            // Dia mais apertado do período (camas livres naquele dia, mesmo que não no período todo)
+            int[] livres = servico.camasLivresPorDia(dataInicio, (int) (dataFim.toEpochDay() - dataInicio.toEpochDay()) + 1);
+            int diaMinimo = 0;
+            for (int i = 1; i < livres.length; i++) {
+                if (livres[i] < livres[diaMinimo]) diaMinimo = i;
+            }
+            lblResumoDiario.setText("Camas livres no período todo: " + modelo.getRowCount()
+                    + "   |   Dia mais cheio: " + dataInicio.plusDays(diaMinimo).format(FRIENDLY)
+                    + " (" + livres[diaMinimo] + " camas livres)");
         } catch (Exception e) {
             e.printStackTrace();
             JOptionPane.showMessageDialog(this, "Erro ao carregar camas disponíveis: " + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
@@ -189,37 +188,10 @@ public class ProjecaoVagasDialog extends JDialog {
     }
     
     public List<Cama> getCamasDisponiveis(LocalDate dataInicio, LocalDate dataFim) throws Exception {
-        if (dataFim.isBefore(dataInicio)) {
-            throw new IllegalArgumentException("Data fim não pode ser anterior à data início.");
-        }
-
         List<Cama> lista = new ArrayList<>();
 
-        String sql =
-                "SELECT c.id, c.descricao, c.quarto_numero " +
-                "FROM cama c " +
-                "WHERE NOT EXISTS ( " +
-                "  SELECT 1 FROM hospedagem h " +
-                "  WHERE h.cama_id = c.id " +
-                "    AND NOT (h.data_saida < ? OR h.data_entrada > ?) " +
-                ") " +
-                "ORDER BY c.descricao";
-
-        try (Connection conn = DatabaseConnector.conectar();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            // Corrigido aqui:
-            ps.setString(1, ISO.format(dataInicio));
-            ps.setString(2, ISO.format(dataFim));
-
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    int id = rs.getInt("id");
-                    String descricao = rs.getString("descricao");
-                    int quarto = rs.getInt("quarto_numero");
-                    lista.add(new Cama(id, descricao));
-                }
-            }
+        try {
+            lista.addAll(HotelService.getInstancia().camasDisponiveis(dataInicio, dataFim));
         } catch (SQLException e) {
             e.printStackTrace();
             JOptionPane.showMessageDialog(null, "Erro ao carregar camas disponíveis: " + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
@@ -1,12 +1,12 @@
 package view.dialogs;
 
-import db.DatabaseConnector;
+import service.HotelService;
+import service.LinhaHospedagem;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
@@ -125,26 +125,16 @@ public class QuartoDialog extends JDialog {
         DefaultTableModel modelo = (DefaultTableModel) tabela.getModel();
         modelo.setRowCount(0);
 
-        String sql = "SELECT res.id AS hospedagem_id, h.nome, h.telefone, h.email, res.data_entrada, res.data_saida " +
-                "FROM hospedagem res " +
-                "JOIN cama c ON res.cama_id = c.id " +
-                "JOIN hospede h ON res.hospede_id = h.id " +
-                "WHERE c.quarto_numero = ? AND res.status = 1";
-
-        try (Connection conn = DatabaseConnector.conectar();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, numeroQuarto);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    modelo.addRow(new Object[]{
-                            rs.getInt("hospedagem_id"),
-                            rs.getString("nome"),
-                            rs.getString("telefone"),
-                            rs.getString("email"),
-                            formatarData(rs.getString("data_entrada")),
-                            formatarData(rs.getString("data_saida"))
-                    });
-                }
+        try {
+            for (LinhaHospedagem h : HotelService.getInstancia().hospedagensAtivasDoQuarto(numeroQuarto)) {
+                modelo.addRow(new Object[]{
+                        h.id(),
+                        h.hospede(),
+                        h.telefone(),
+                        h.email(),
+                        formatarData(h.entrada()),
+                        formatarData(h.saida())
+                });
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -152,9 +142,8 @@ public class QuartoDialog extends JDialog {
         }
     }
 
-    private String formatarData(String dataISO) {
-        if (dataISO == null || dataISO.isEmpty()) return "";
-        LocalDate data = LocalDate.parse(dataISO);
+    private String formatarData(LocalDate data) {
+        if (data == null) return "";
         return data.format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
     }
 
@@ -167,33 +156,10 @@ public class QuartoDialog extends JDialog {
         );
         if (confirm != JOptionPane.YES_OPTION) return;
 
-        try (Connection conn = DatabaseConnector.conectar()) {
-            conn.setAutoCommit(false); // Transação
-
-            String updateHospedagem = "UPDATE hospedagem " +
-                    "SET status = 0, data_saida = ? " +
-                    "WHERE cama_id IN (SELECT id FROM cama WHERE quarto_numero = ?) AND status = 1";
-
-            String updateCamas = "UPDATE cama SET status = 0 WHERE quarto_numero = ?";
-
-            try (PreparedStatement psHospedagem = conn.prepareStatement(updateHospedagem);
-                 PreparedStatement psCamas = conn.prepareStatement(updateCamas)) {
-
-                LocalDate hoje = LocalDate.now();
-                psHospedagem.setString(1, hoje.toString());
-                psHospedagem.setInt(2, numeroQuarto);
-                psHospedagem.executeUpdate();
-
-                psCamas.setInt(1, numeroQuarto);
-                psCamas.executeUpdate();
-
-                conn.commit();
-                JOptionPane.showMessageDialog(this, "Quarto liberado com sucesso!");
-                dispose();
-            } catch (SQLException ex) {
-                conn.rollback();
-                throw ex;
-            }
+        try {
+            HotelService.getInstancia().liberarQuarto(numeroQuarto);
+            JOptionPane.showMessageDialog(this, "Quarto liberado com sucesso!");
+            dispose();
         } catch (Exception ex) {
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Erro ao liberar quarto.", "Erro", JOptionPane.ERROR_MESSAGE);
@@ -1,16 +1,16 @@
 package view.dialogs;
 
-import db.DatabaseConnector;
 import controller.ExcelExporter;
+import controller.FonteLinhas;
+import controller.GerenciadorExportacoes;
 import controller.PdfExporter;
+import model.Cama;
+import service.HotelService;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.io.File;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 
 public class RelatorioCamasVagasDialog extends JDialog {
 
@@ -53,21 +53,10 @@ public class RelatorioCamasVagasDialog extends JDialog {
         DefaultTableModel modelo = (DefaultTableModel) tabela.getModel();
         modelo.setRowCount(0);
 
-        String sql = "SELECT q.numero AS quarto_numero, c.descricao AS cama_descricao "
-                   + "FROM cama c "
-                   + "JOIN quarto q ON c.quarto_numero = q.numero "
-                   + "WHERE c.status = 0";
-
-        try (Connection conn = DatabaseConnector.conectar();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-
-            while (rs.next()) {
-                String quarto = rs.getString("quarto_numero");
-                String cama = rs.getString("cama_descricao");
-                modelo.addRow(new Object[] { quarto, cama });
+        try {
+            for (Cama cama : HotelService.getInstancia().relatorioCamasVagas()) {
+                modelo.addRow(new Object[] { String.valueOf(cama.getQuartoNumero()), cama.getDescricao() });
             }
-
         } catch (Exception e) {
             e.printStackTrace();
             JOptionPane.showMessageDialog(this, "Erro ao carregar dados: " + e.getMessage());
@@ -88,12 +77,10 @@ public class RelatorioCamasVagasDialog extends JDialog {
                 arquivo = new File(arquivo.getAbsolutePath() + ".xlsx");
             }
 
-            boolean sucesso = ExcelExporter.exportarTabelaParaExcel(tabela, arquivo);
-            if (sucesso) {
-                JOptionPane.showMessageDialog(this, "Exportado com sucesso!");
-            } else {
-                JOptionPane.showMessageDialog(this, "Erro ao exportar.");
-            }
+            FonteLinhas linhas = FonteLinhas.copia(tabela.getModel());
+            GerenciadorExportacoes.INSTANCIA
+                    .enviar("Camas vagas (Excel)", arquivo, tabela.getRowCount(), () -> linhas, ExcelExporter::escrever)
+                    .avisarAoTerminar(this, "Exportado com sucesso!", "Erro ao exportar.");
         }
     }
 
@@ -111,13 +98,11 @@ public class RelatorioCamasVagasDialog extends JDialog {
                 arquivo = new File(arquivo.getAbsolutePath() + ".pdf");
             }
 
-            boolean sucesso = PdfExporter.exportarTabelaParaPdf(tabela, arquivo, "Relatório de Camas Vagas");
-;
-            if (sucesso) {
-                JOptionPane.showMessageDialog(this, "PDF exportado com sucesso!");
-            } else {
-                JOptionPane.showMessageDialog(this, "Erro ao exportar para PDF.");
-            }
+            FonteLinhas linhas = FonteLinhas.copia(tabela.getModel());
+            GerenciadorExportacoes.INSTANCIA
+                    .enviar("Camas vagas (PDF)", arquivo, tabela.getRowCount(), () -> linhas,
+                            (fonte, destino) -> PdfExporter.escrever(fonte, destino, "Relatório de Camas Vagas", null, false))
+                    .avisarAoTerminar(this, "PDF exportado com sucesso!", "Erro ao exportar para PDF.");
         }
     }
 
@@ -3,23 +3,22 @@ package view.dialogs;
 import javax.swing.*;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
-import javax.swing.table.DefaultTableModel;
-import javax.swing.table.TableRowSorter;
 import javax.swing.text.*;
 import java.awt.*;
 import java.io.File;
-import java.sql.*;
-import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.Date;
 
 import com.toedter.calendar.JDateChooser;
-import db.DatabaseConnector;
 import controller.ExcelExporter;
+import controller.ExecutorBusca;
+import controller.GerenciadorExportacoes;
 import controller.PdfExporter;
+import service.FiltroHistorico;
+import service.HotelService;
+import service.TotaisHistorico;
 
 public class RelatorioHistoricoHospedagensDialog extends JDialog {
 
@@ -29,9 +28,11 @@ public class RelatorioHistoricoHospedagensDialog extends JDialog {
     private JComboBox<String> comboSexo;
     private JLabel lblTotal;
     private JTextField txtBuscaNome;
-    private TableRowSorter<DefaultTableModel> sorter;
-
-    private static final DateTimeFormatter ISO = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private Timer timerBusca;
+    private ModeloHistoricoPaginado modelo;
+    private int totalHospedagens = -1; // da última consulta; estimativa para o progresso da exportação
+    private final ExecutorBusca<TotaisHistorico> busca = new ExecutorBusca<>("historico-hospedagens");
+    private final HotelService servico = HotelService.getInstancia();
 
     public RelatorioHistoricoHospedagensDialog(JFrame parent) {
         super(parent, "Relatório - Histórico de Hospedagens", true);
@@ -74,14 +75,8 @@ public class RelatorioHistoricoHospedagensDialog extends JDialog {
         lblTotal = new JLabel();
         atualizarLabelTotal(0, 0);
 
-        String[] colunas = {"Nome", "Sexo", "Documento", "Telefone", "Email", "Data Entrada", "Data Saída"};
-        DefaultTableModel modelo = new DefaultTableModel(colunas, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-        tabela = new JTable(modelo);
+        // Sem ordenação na tabela: ordenar pediria todas as linhas; a ordem é a do banco, mais novas primeiro
+        tabela = new JTable();
 
         // Painel total (label)
         JPanel painelTotal = new JPanel(new FlowLayout(FlowLayout.CENTER));
@@ -94,24 +89,14 @@ public class RelatorioHistoricoHospedagensDialog extends JDialog {
         txtBuscaNome = new JTextField(20);
         painelBusca.add(txtBuscaNome);
 
-        // Configurar TableRowSorter para filtrar tabela
-        sorter = new TableRowSorter<>(modelo);
-        tabela.setRowSorter(sorter);
-
-        // Listener para filtro dinâmico no campo busca
+        // Busca (nome, documento, telefone ou email) vai para o SQL pelo índice de hóspedes,
+        // com o mesmo debounce do autocomplete do check-in
+        timerBusca = new Timer(250, e -> carregarDados());
+        timerBusca.setRepeats(false);
         txtBuscaNome.getDocument().addDocumentListener(new DocumentListener() {
-            private void filtrar() {
-                String texto = txtBuscaNome.getText();
-                if (texto.trim().length() == 0) {
-                    sorter.setRowFilter(null);
-                } else {
-                    sorter.setRowFilter(RowFilter.regexFilter("(?i)" + texto, 0)); // coluna "Nome"
-                }
-                atualizarLabelTotalPeloFiltro();
-            }
-            @Override public void insertUpdate(DocumentEvent e) { filtrar(); }
-            @Override public void removeUpdate(DocumentEvent e) { filtrar(); }
-            @Override public void changedUpdate(DocumentEvent e) { filtrar(); }
+            @Override public void insertUpdate(DocumentEvent e) { timerBusca.restart(); }
+            @Override public void removeUpdate(DocumentEvent e) { timerBusca.restart(); }
+            @Override public void changedUpdate(DocumentEvent e) { timerBusca.restart(); }
         });
 
         // Montar painel centro com ordem: total, busca, tabela
@@ -129,6 +114,7 @@ public class RelatorioHistoricoHospedagensDialog extends JDialog {
             txtDataFim.setDate(null);
             comboSexo.setSelectedIndex(0);
             txtBuscaNome.setText("");
+            timerBusca.stop();
             carregarDados();
         });
 
@@ -151,14 +137,10 @@ public class RelatorioHistoricoHospedagensDialog extends JDialog {
         carregarDados();
     }
 
-    private void carregarDados() {
-        DefaultTableModel modelo = (DefaultTableModel) tabela.getModel();
-        modelo.setRowCount(0);
-
-        LocalDate dataInicio = null;
-        LocalDate dataFim = null;
-        String sexoSelecionado = (String) comboSexo.getSelectedItem();
-
+    // Filtros da tela, lidos na EDT; os mesmos servem à tabela, aos totais e à exportação
+    private FiltroHistorico lerFiltros() {
+        LocalDate dataInicio;
+        LocalDate dataFim;
         try {
             dataInicio = parseFromChooser(txtDataInicio);
         } catch (DateTimeParseException e) {
@@ -169,91 +151,39 @@ public class RelatorioHistoricoHospedagensDialog extends JDialog {
         } catch (DateTimeParseException e) {
             dataFim = null;
         }
+        String sexo = (String) comboSexo.getSelectedItem();
+        return new FiltroHistorico(dataInicio, dataFim, "Todos".equals(sexo) ? null : sexo, txtBuscaNome.getText());
+    }
 
-        StringBuilder sql = new StringBuilder();
-        sql.append("SELECT h.nome, h.sexo, h.documento, h.telefone, h.email, ");
-        sql.append("hos.data_entrada, hos.data_saida ");
-        sql.append("FROM hospede h ");
-        sql.append("JOIN hospedagem hos ON hos.hospede_id = h.id ");
-        sql.append("WHERE 1=1 ");
-
-        if (dataInicio != null) {
-            sql.append("AND hos.data_entrada >= ? ");
-        }
-        if (dataFim != null) {
-            sql.append("AND hos.data_saida <= ? ");
-        }
-        if (!"Todos".equals(sexoSelecionado)) {
-            sql.append("AND h.sexo = ? ");
-        }
-        sql.append("ORDER BY hos.id DESC");
-
-        StringBuilder sqlTotais = new StringBuilder();
-        sqlTotais.append("SELECT COUNT(*) AS totalHospedagens, ");
-        sqlTotais.append("COALESCE(SUM(julianday(hos.data_saida) - julianday(hos.data_entrada)), 0) AS totalDiarias ");
-        sqlTotais.append("FROM hospedagem hos ");
-        sqlTotais.append("JOIN hospede h ON h.id = hos.hospede_id ");
-        sqlTotais.append("WHERE 1=1 ");
-
-        if (dataInicio != null) {
-            sqlTotais.append("AND hos.data_entrada >= ? ");
-        }
-        if (dataFim != null) {
-            sqlTotais.append("AND hos.data_saida <= ? ");
-        }
-        if (!"Todos".equals(sexoSelecionado)) {
-            sqlTotais.append("AND h.sexo = ? ");
-        }
-
-        try (Connection conn = DatabaseConnector.conectar();
-             PreparedStatement stmt = conn.prepareStatement(sql.toString());
-             PreparedStatement stmtTotais = conn.prepareStatement(sqlTotais.toString())) {
-
-            int paramIndex = 1;
-            if (dataInicio != null) {
-                stmt.setString(paramIndex, ISO.format(dataInicio));
-                stmtTotais.setString(paramIndex, ISO.format(dataInicio));
-                paramIndex++;
-            }
-            if (dataFim != null) {
-                stmt.setString(paramIndex, ISO.format(dataFim));
-                stmtTotais.setString(paramIndex, ISO.format(dataFim));
-                paramIndex++;
-            }
-            if (!"Todos".equals(sexoSelecionado)) {
-                stmt.setString(paramIndex, sexoSelecionado);
-                stmtTotais.setString(paramIndex, sexoSelecionado);
-            }
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    modelo.addRow(new Object[]{
-                            rs.getString("nome"),
-                            rs.getString("sexo"),
-                            rs.getString("documento"),
-                            rs.getString("telefone"),
-                            rs.getString("email"),
-                            formatarDataSegura(rs.getString("data_entrada")),
-                            formatarDataSegura(rs.getString("data_saida"))
-                    });
-                }
-            }
-
-            try (ResultSet rsTotais = stmtTotais.executeQuery()) {
-                if (rsTotais.next()) {
-                    int totalHospedagens = rsTotais.getInt("totalHospedagens");
-                    int totalDiarias = rsTotais.getInt("totalDiarias");
-                    atualizarLabelTotal(totalHospedagens, totalDiarias);
-                }
-            }
+    // A tabela troca de modelo na hora e busca as linhas visíveis aos poucos; os totais são
+    // contados à parte, e um novo filtro cancela a contagem anterior
+    private void carregarDados() {
+        FiltroHistorico filtros = lerFiltros();
+        if (modelo != null) modelo.descartar();
+        modelo = new ModeloHistoricoPaginado(servico, filtros, this::mostrarErro);
+        tabela.setModel(modelo);
+        totalHospedagens = -1;
+        lblTotal.setText("<html><b style='font-size:14px;'>Calculando totais...</b></html>");
+
+        ModeloHistoricoPaginado atual = modelo;
+        busca.buscar(execucao -> servico.comConexoes(execucao.conexoes()).totaisHistorico(filtros),
+            totais -> {
+                totalHospedagens = totais.hospedagens();
+                atualizarLabelTotal(totais.hospedagens(), totais.diarias());
+                atual.definirTotal(totais.hospedagens());
+            },
+            this::mostrarErro);
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Erro ao carregar dados: " + e.getMessage());
-        }
+    private void mostrarErro(Exception e) {
+        e.printStackTrace();
+        JOptionPane.showMessageDialog(this, "Erro ao carregar dados: " + e.getMessage());
+    }
 
-        // Atualiza label total considerando filtro do campo busca (vazio no carregamento)
-        atualizarLabelTotalPeloFiltro();
+    @Override
+    public void dispose() {
+        if (modelo != null) modelo.descartar();
+        super.dispose();
     }
 
     private void atualizarLabelTotal(int totalHospedagens, int totalDiarias) {
@@ -262,35 +192,6 @@ public class RelatorioHistoricoHospedagensDialog extends JDialog {
                 totalHospedagens, totalDiarias));
     }
 
-    private void atualizarLabelTotalPeloFiltro() {
-        DefaultTableModel modelo = (DefaultTableModel) tabela.getModel();
-
-        int totalHospedagensFiltradas = tabela.getRowCount(); // linhas visíveis após filtro
-
-        int totalDiarias = 0;
-        for (int i = 0; i < totalHospedagensFiltradas; i++) {
-            int modelIndex = tabela.convertRowIndexToModel(i);
-
-            String dataEntradaStr = (String) modelo.getValueAt(modelIndex, 5); // coluna Data Entrada
-            String dataSaidaStr = (String) modelo.getValueAt(modelIndex, 6);   // coluna Data Saída
-
-            try {
-                SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
-                Date dataEntrada = sdf.parse(dataEntradaStr);
-                Date dataSaida = sdf.parse(dataSaidaStr);
-                long diffMillis = dataSaida.getTime() - dataEntrada.getTime();
-                int diffDias = (int) (diffMillis / (1000 * 60 * 60 * 24));
-                if (diffDias > 0) {
-                    totalDiarias += diffDias;
-                }
-            } catch (Exception e) {
-                // Ignorar erro de parse
-            }
-        }
-
-        atualizarLabelTotal(totalHospedagensFiltradas, totalDiarias);
-    }
-
     private LocalDate parseFromChooser(JDateChooser chooser) throws DateTimeParseException {
         Date data = chooser.getDate();
         if (data == null) throw new DateTimeParseException("Data nula", "", 0);
@@ -358,16 +259,6 @@ public class RelatorioHistoricoHospedagensDialog extends JDialog {
         });
     }
 
-    private String formatarDataSegura(String dataString) {
-        if (dataString == null || dataString.isEmpty()) return "";
-        try {
-            Date data = new SimpleDateFormat("yyyy-MM-dd").parse(dataString);
-            return new SimpleDateFormat("dd/MM/yyyy").format(data);
-        } catch (Exception ex) {
-            return "";
-        }
-    }
-
     private void exportarParaExcel() {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Salvar relatório como...");
@@ -379,15 +270,20 @@ public class RelatorioHistoricoHospedagensDialog extends JDialog {
             if (!arquivo.getName().toLowerCase().endsWith(".xlsx")) {
                 arquivo = new File(arquivo.getAbsolutePath() + ".xlsx");
             }
-            boolean sucesso = ExcelExporter.exportarTabelaParaExcel(tabela, arquivo);
-            if (sucesso) {
-                JOptionPane.showMessageDialog(this, "Relatório exportado com sucesso!");
-            } else {
-                JOptionPane.showMessageDialog(this, "Erro ao exportar relatório.");
-            }
+            exportarDoBanco("Histórico de hospedagens (Excel)", arquivo, ExcelExporter::escrever,
+                    "Relatório exportado com sucesso!", "Erro ao exportar relatório.");
         }
     }
 
+    // Vai direto do banco para o arquivo, sem passar pela tabela: o histórico inteiro pode ter milhões de linhas
+    private void exportarDoBanco(String descricao, File arquivo, GerenciadorExportacoes.Destino destino,
+                                 String msgSucesso, String msgErro) {
+        FiltroHistorico filtros = lerFiltros();
+        GerenciadorExportacoes.INSTANCIA
+                .enviar(descricao, arquivo, totalHospedagens, () -> servico.relatorioHistorico(filtros), destino)
+                .avisarAoTerminar(this, msgSucesso, msgErro);
+    }
+
     private void exportarParaPdf() {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Salvar relatório como...");
@@ -405,12 +301,9 @@ public class RelatorioHistoricoHospedagensDialog extends JDialog {
                     .replaceAll("&nbsp;", " ")
                     .trim();
 
-            boolean sucesso = PdfExporter.exportarTabelaParaPdfComResumoPaisagem(tabela, arquivo, titulo, resumo);
-            if (sucesso) {
-                JOptionPane.showMessageDialog(this, "Relatório PDF exportado com sucesso!");
-            } else {
-                JOptionPane.showMessageDialog(this, "Erro ao exportar PDF.");
-            }
+            exportarDoBanco("Histórico de hospedagens (PDF)", arquivo,
+                    (fonte, destino) -> PdfExporter.escrever(fonte, destino, titulo, resumo, true),
+                    "Relatório PDF exportado com sucesso!", "Erro ao exportar PDF.");
         }
     }
 
@@ -4,13 +4,13 @@ import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.io.File;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 
-import db.DatabaseConnector;
 import controller.ExcelExporter;
+import controller.FonteLinhas;
+import controller.GerenciadorExportacoes;
 import controller.PdfExporter;
+import model.Hospede;
+import service.HotelService;
 
 public class RelatorioHospedesHospedadosDialog extends JDialog {
 
@@ -53,23 +53,10 @@ public class RelatorioHospedesHospedadosDialog extends JDialog {
         DefaultTableModel modelo = (DefaultTableModel) tabela.getModel();
         modelo.setRowCount(0);
 
-        String sql = "SELECT h.nome, h.documento, h.telefone, h.email " +
-                     "FROM hospede h " +
-                     "JOIN hospedagem hos ON hos.hospede_id = h.id " +
-                     "WHERE hos.status = 1";
-
-        try (Connection conn = DatabaseConnector.conectar();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-
-            while (rs.next()) {
-                String nome = rs.getString("nome");
-                String documento = rs.getString("documento");
-                String telefone = rs.getString("telefone");
-                String email = rs.getString("email");
-                modelo.addRow(new Object[]{nome, documento, telefone, email});
+        try {
+            for (Hospede h : HotelService.getInstancia().relatorioHospedesHospedados()) {
+                modelo.addRow(new Object[]{h.getNome(), h.getDocumento(), h.getWhatsapp(), h.getEmail()});
             }
-
         } catch (Exception e) {
             e.printStackTrace();
             JOptionPane.showMessageDialog(this, "Erro ao carregar dados: " + e.getMessage());
@@ -90,12 +77,10 @@ public class RelatorioHospedesHospedadosDialog extends JDialog {
                 arquivo = new File(arquivo.getAbsolutePath() + ".xlsx");
             }
 
-            boolean sucesso = ExcelExporter.exportarTabelaParaExcel(tabela, arquivo);
-            if (sucesso) {
-                JOptionPane.showMessageDialog(this, "Exportado para Excel com sucesso!");
-            } else {
-                JOptionPane.showMessageDialog(this, "Erro ao exportar para Excel.");
-            }
+            FonteLinhas linhas = FonteLinhas.copia(tabela.getModel());
+            GerenciadorExportacoes.INSTANCIA
+                    .enviar("Hóspedes hospedados (Excel)", arquivo, tabela.getRowCount(), () -> linhas, ExcelExporter::escrever)
+                    .avisarAoTerminar(this, "Exportado para Excel com sucesso!", "Erro ao exportar para Excel.");
         }
     }
 
@@ -113,13 +98,11 @@ public class RelatorioHospedesHospedadosDialog extends JDialog {
                 arquivo = new File(arquivo.getAbsolutePath() + ".pdf");
             }
 
-            boolean sucesso = PdfExporter.exportarTabelaParaPdf(tabela, arquivo, "Relatório - Hóspedes Hospedados");
-;
-            if (sucesso) {
-                JOptionPane.showMessageDialog(this, "PDF exportado com sucesso!");
-            } else {
-                JOptionPane.showMessageDialog(this, "Erro ao exportar para PDF.");
-            }
+            FonteLinhas linhas = FonteLinhas.copia(tabela.getModel());
+            GerenciadorExportacoes.INSTANCIA
+                    .enviar("Hóspedes hospedados (PDF)", arquivo, tabela.getRowCount(), () -> linhas,
+                            (fonte, destino) -> PdfExporter.escrever(fonte, destino, "Relatório - Hóspedes Hospedados", null, false))
+                    .avisarAoTerminar(this, "PDF exportado com sucesso!", "Erro ao exportar para PDF.");
         }
     }
 